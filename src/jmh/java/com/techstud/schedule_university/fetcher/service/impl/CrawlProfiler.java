@@ -0,0 +1,60 @@
+package com.techstud.schedule_university.fetcher.service.impl;
+
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.infra.IterationParams;
+import org.openjdk.jmh.profile.InternalProfiler;
+import org.openjdk.jmh.results.AggregationPolicy;
+import org.openjdk.jmh.results.IterationResult;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.ScalarResult;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Пик занятой кучи за итерацию и скорость обхода
+ *
+ * <p>{@code heap.peak} - максимум по итерациям суммы пиков heap-пулов, пики сбрасываются
+ * после сборки мусора перед каждой итерацией. Для бенчмарков в режиме SingleShotTime с
+ * параметром {@code groups} добавляется {@code groups.rate} - групп в секунду.</p>
+ */
+public class CrawlProfiler implements InternalProfiler {
+
+    @Override
+    public String getDescription() {
+        return "Heap peak per iteration and groups per second of crawl benchmarks";
+    }
+
+    @Override
+    public void beforeIteration(BenchmarkParams benchmarkParams, IterationParams iterationParams) {
+        System.gc();
+        heapPools().forEach(MemoryPoolMXBean::resetPeakUsage);
+    }
+
+    @Override
+    public Collection<? extends Result> afterIteration(BenchmarkParams benchmarkParams,
+                                                       IterationParams iterationParams, IterationResult result) {
+        List<Result> results = new ArrayList<>();
+        long peak = heapPools().stream().mapToLong(pool -> pool.getPeakUsage().getUsed()).sum();
+        results.add(new ScalarResult("heap.peak", peak / 1048576.0, "MB", AggregationPolicy.MAX));
+
+        String groups = benchmarkParams.getParam("groups");
+        if (groups != null && benchmarkParams.getMode() == Mode.SingleShotTime) {
+            double seconds = result.getPrimaryResult().getScore() * benchmarkParams.getTimeUnit().toNanos(1) / 1e9;
+            results.add(new ScalarResult("groups.rate", Integer.parseInt(groups) / seconds, "groups/s",
+                    AggregationPolicy.AVG));
+        }
+        return results;
+    }
+
+    private static List<MemoryPoolMXBean> heapPools() {
+        return ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP)
+                .toList();
+    }
+}
@@ -0,0 +1,92 @@
+package com.techstud.schedule_university.fetcher.service.impl;
+
+import com.techstud.schedule_university.fetcher.TestFetchClients;
+import com.techstud.schedule_university.fetcher.dto.GroupData;
+import com.techstud.schedule_university.fetcher.service.GroupFetcherService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Полный обход синтетического университета растущего размера
+ *
+ * <p>Фетчер и транспорты те же, что в приложении, запросы уходят на
+ * {@link SyntheticUniversityServer} через {@code fetcher.http.host-overrides}. Ограничение
+ * частоты и кэш страниц выключены, чтобы каждый обход запрашивал и разбирал все страницы.</p>
+ *
+ * <p>Оценка - время одного обхода. Пик кучи и число групп в секунду добавляет
+ * {@link CrawlProfiler}, включённый в профиле {@code jmh} по умолчанию.</p>
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+@State(Scope.Benchmark)
+public class CrawlScalingBenchmark {
+
+    @Param({"UNECON", "NSU", "SPBSTU", "BMSTU"})
+    private SyntheticUniversityServer.Shape university;
+
+    @Param({"1000", "5000", "20000"})
+    private int groups;
+
+    @Param({"50"})
+    private int faculties;
+
+    @Param({"5"})
+    private long latencyMillis;
+
+    @Param({"0"})
+    private double errorRate;
+
+    private SyntheticUniversityServer server;
+    private TestFetchClients clients;
+    private GroupFetcherService fetcher;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        server = new SyntheticUniversityServer(university, groups, faculties, latencyMillis, errorRate);
+
+        clients = TestFetchClients.withoutCache();
+        clients.getHttpProperties().setHostOverrides(Map.of(university.host(), server.uri()));
+        clients.getRateLimitProperties().setEnabled(false);
+        fetcher = switch (university) {
+            case UNECON -> new UneconGroupDataFetchService(clients.getEngine());
+            case NSU -> new NsuGroupDataFetchService(clients.getEngine());
+            case SPBSTU -> new SpbstuGroupDataFetchService(clients.getEngine());
+            case BMSTU -> new BmstuGroupDataFetchService(clients.getTransport());
+        };
+
+        int found = fetcher.fetchGroupsData().size();
+        if (errorRate == 0 && found != groups) {
+            throw new IllegalStateException("Expected " + groups + " groups from " + university + ", found " + found);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        clients.close();
+        server.close();
+    }
+
+    @Benchmark
+    public List<GroupData> crawl() {
+        return fetcher.fetchGroupsData();
+    }
+}
@@ -0,0 +1,79 @@
+package com.techstud.schedule_university.fetcher.service.impl;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.techstud.schedule_university.fetcher.dto.api.response.SsauApiGroupDataResponse;
+import com.techstud.schedule_university.fetcher.util.HtmlStreamExtractor;
+import com.techstud.schedule_university.fetcher.util.JsonStreamExtractor;
+import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Этап разбора каждого фетчера без сети
+ *
+ * <p>Разбор вызывается так же, как его вызывает транспорт: тот же селектор или
+ * извлечение из JSON и то же преобразование в группу. Режим SampleTime даёт
+ * перцентили времени разбора, {@code -prof gc} - объём аллокаций на операцию.</p>
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FetcherParseBenchmark {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final TypeReference<List<SsauApiGroupDataResponse>> SSAU_RESPONSE = new TypeReference<>() {
+    };
+    private static final String SPBSTU_FACULTY_LINK = "/faculty/95/groups";
+
+    @Param({"BMSTU", "MEPHI", "MIIT", "NSU", "PGUPS", "SPBSTU", "SSAU", "SSEU", "TLTSU", "UNECON"})
+    private Fixture fixture;
+
+    private SimpleHttpResponse response;
+
+    @Setup
+    public void setUp() throws IOException {
+        response = fixture.response();
+        if (parse().isEmpty()) {
+            throw new IllegalStateException("No groups extracted from " + fixture);
+        }
+    }
+
+    @Benchmark
+    public List<?> parse() throws IOException {
+        return switch (fixture) {
+            case BMSTU -> JsonStreamExtractor.processResponse(response, BmstuGroupDataFetchService::extractGroups);
+            case SSEU -> JsonStreamExtractor.processResponse(response, SseuGroupDataFetchService::extractGroups);
+            case TLTSU -> JsonStreamExtractor.processResponse(response, TltsuGroupDataFetchService::extractGroups);
+            case SSAU -> MAPPER.readValue(response.getBodyText(), SSAU_RESPONSE);
+            case MEPHI -> HtmlStreamExtractor.processResponse(response, MephiGroupDataFetchService.GROUP_SELECTOR,
+                    MephiGroupDataFetchService::toGroup);
+            case MIIT -> HtmlStreamExtractor.processResponse(response, MiitGroupDataFetchService.GROUP_SELECTOR,
+                    MiitGroupDataFetchService::toGroup);
+            case NSU -> HtmlStreamExtractor.processResponse(response, NsuGroupDataFetchService.GROUP_SELECTOR,
+                    NsuGroupDataFetchService::toGroup);
+            case PGUPS -> HtmlStreamExtractor.processResponse(response, PgupsGroupDataFetchService.GROUP_SELECTOR,
+                    PgupsGroupDataFetchService::toGroup);
+            case SPBSTU -> HtmlStreamExtractor.processResponse(response, SpbstuGroupDataFetchService.GROUP_SELECTOR,
+                    element -> SpbstuGroupDataFetchService.toGroup(element, SPBSTU_FACULTY_LINK));
+            case UNECON -> HtmlStreamExtractor.processResponse(response, UneconGroupDataFetchService.GROUP_SELECTOR,
+                    UneconGroupDataFetchService::toGroup);
+        };
+    }
+}
@@ -0,0 +1,138 @@
+package com.techstud.schedule_university.fetcher.service.impl;
+
+import com.techstud.schedule_university.fetcher.config.FetcherArchiveProperties;
+import com.techstud.schedule_university.fetcher.util.HttpExchangeArchive;
+import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.HttpStatus;
+import org.jsoup.Jsoup;
+import org.jsoup.select.Evaluator;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.TreeSet;
+
+/**
+ * Страницы университетов для бенчмарков
+ *
+ * <p>Для фетчеров с многоуровневым обходом берётся страница, с которой извлекаются группы.
+ * Страницы в {@code fixtures} синтетические: повторяют разметку и поля сайтов, но не
+ * реальные страницы, поэтому цифры по ним говорят о разборе, а не о сайтах.</p>
+ *
+ * <p>Если переменная окружения {@value #ARCHIVE_ENV} указывает на архив, записанный в режиме
+ * {@code fetcher.archive.mode=record}, страницы берутся из него: для каждого университета
+ * записанная страница с наибольшим числом групп, для JSON - самый большой ответ. Переменная
+ * окружения, а не системное свойство, потому что JMH запускает бенчмарки в отдельных JVM.</p>
+ */
+public enum Fixture {
+    BMSTU("bmstu.json", "GET https://lks.bmstu.ru/lks-back/api/v1/structure", null),
+    MEPHI("mephi.html", "GET https://home.mephi.ru/study_groups", MephiGroupDataFetchService.GROUP_SELECTOR),
+    MIIT("miit.html", "GET https://www.miit.ru/timetable", MiitGroupDataFetchService.GROUP_SELECTOR),
+    NSU("nsu.html", "GET https://table.nsu.ru/", NsuGroupDataFetchService.GROUP_SELECTOR),
+    PGUPS("pgups.html", "GET https://rasp.pgups.ru/schedule/group", PgupsGroupDataFetchService.GROUP_SELECTOR),
+    SPBSTU("spbstu.html", "GET https://ruz.spbstu.ru/", SpbstuGroupDataFetchService.GROUP_SELECTOR),
+    SSAU("ssau.json", "POST https://ssau.ru/rasp/search", null),
+    SSEU("sseu.json", "GET https://lms3.sseu.ru/api/v1/schedule-board/groups", null),
+    TLTSU("tltsu.json", "GET https://its.tltsu.ru/api/groups/course/", null),
+    UNECON("unecon.html", "GET https://rasp.unecon.ru/", UneconGroupDataFetchService.GROUP_SELECTOR);
+
+    public static final String ARCHIVE_ENV = "FETCHER_FIXTURE_ARCHIVE";
+
+    private final String fileName;
+    private final String keyPrefix;
+    private final Evaluator groupSelector;
+
+    Fixture(String fileName, String keyPrefix, Evaluator groupSelector) {
+        this.fileName = fileName;
+        this.keyPrefix = keyPrefix;
+        this.groupSelector = groupSelector;
+    }
+
+    public byte[] body() {
+        return page().body();
+    }
+
+    public SimpleHttpResponse response() {
+        Page page = page();
+        return SimpleHttpResponse.create(HttpStatus.SC_OK, page.body(), page.contentType());
+    }
+
+    private Page page() {
+        try {
+            HttpExchangeArchive archive = Archive.INSTANCE;
+            return archive != null ? recorded(archive) : saved();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Page saved() throws IOException {
+        try (InputStream in = Fixture.class.getResourceAsStream("/fixtures/" + fileName)) {
+            if (in == null) {
+                throw new IllegalStateException("Fixture not found: " + fileName);
+            }
+            return new Page(in.readAllBytes(), defaultContentType());
+        }
+    }
+
+    private Page recorded(HttpExchangeArchive archive) throws IOException {
+        Page best = null;
+        int bestSize = -1;
+        for (String key : new TreeSet<>(archive.recordedKeys())) {
+            if (!key.startsWith(keyPrefix)) {
+                continue;
+            }
+            HttpExchangeArchive.RecordedResponse recorded = archive.replay(key);
+            if (recorded.code() != HttpStatus.SC_OK || recorded.body() == null) {
+                continue;
+            }
+            ContentType contentType = recorded.contentType() != null ? recorded.contentType() : defaultContentType();
+            int size = groupSelector != null
+                    ? Jsoup.parse(new String(recorded.body(), charsetOf(contentType))).select(groupSelector).size()
+                    : recorded.body().length;
+            if (size > bestSize) {
+                best = new Page(recorded.body(), contentType);
+                bestSize = size;
+            }
+        }
+        if (best == null) {
+            throw new IllegalStateException("No recorded " + name() + " page starting with " + keyPrefix);
+        }
+        return best;
+    }
+
+    private ContentType defaultContentType() {
+        return fileName.endsWith(".json")
+                ? ContentType.APPLICATION_JSON
+                : ContentType.TEXT_HTML.withCharset("UTF-8");
+    }
+
+    private static Charset charsetOf(ContentType contentType) {
+        return contentType.getCharset() != null ? contentType.getCharset() : StandardCharsets.UTF_8;
+    }
+
+    private record Page(byte[] body, ContentType contentType) {
+    }
+
+    /**
+     * Архив, заданный {@value #ARCHIVE_ENV}, открывается один раз на JVM
+     */
+    private static final class Archive {
+        private static final HttpExchangeArchive INSTANCE = open();
+
+        private static HttpExchangeArchive open() {
+            String path = System.getenv(ARCHIVE_ENV);
+            if (path == null || path.isBlank()) {
+                return null;
+            }
+            FetcherArchiveProperties properties = new FetcherArchiveProperties();
+            properties.setMode(FetcherArchiveProperties.Mode.REPLAY);
+            properties.setPath(Path.of(path));
+            return new HttpExchangeArchive(properties);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.techstud.schedule_university.fetcher.service.impl;
+
+import com.techstud.schedule_university.fetcher.util.FetcherHttpUtils;
+import com.techstud.schedule_university.fetcher.util.HtmlStreamExtractor;
+import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.jsoup.select.Evaluator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Разбор HTML страниц: полное DOM-дерево jsoup против потокового извлечения
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class HtmlExtractionBenchmark {
+
+    @Param({"MEPHI", "MIIT", "NSU", "PGUPS", "SPBSTU", "UNECON"})
+    private Fixture fixture;
+
+    private SimpleHttpResponse response;
+    private byte[] body;
+    private Evaluator selector;
+    private FetcherHttpUtils.ThrowingFunction<Element, ?> mapper;
+
+    @Setup
+    public void setUp() throws Exception {
+        response = fixture.response();
+        body = fixture.body();
+        switch (fixture) {
+            case MEPHI -> use(MephiGroupDataFetchService.GROUP_SELECTOR, MephiGroupDataFetchService::toGroup);
+            case MIIT -> use(MiitGroupDataFetchService.GROUP_SELECTOR, MiitGroupDataFetchService::toGroup);
+            case NSU -> use(NsuGroupDataFetchService.GROUP_SELECTOR, NsuGroupDataFetchService::toGroup);
+            case PGUPS -> use(PgupsGroupDataFetchService.GROUP_SELECTOR, PgupsGroupDataFetchService::toGroup);
+            case SPBSTU -> use(SpbstuGroupDataFetchService.GROUP_SELECTOR,
+                    element -> SpbstuGroupDataFetchService.toGroup(element, "/faculty/95/groups"));
+            case UNECON -> use(UneconGroupDataFetchService.GROUP_SELECTOR, UneconGroupDataFetchService::toGroup);
+            default -> throw new IllegalArgumentException("Not an HTML fixture: " + fixture);
+        }
+
+        if (jsoupDom().size() != streaming().size()) {
+            throw new IllegalStateException("DOM and streaming extraction disagree on " + fixture);
+        }
+    }
+
+    @Benchmark
+    public List<Object> jsoupDom() throws Exception {
+        Document document = Jsoup.parse(new ByteArrayInputStream(body), "UTF-8", "");
+        List<Object> results = new ArrayList<>();
+        for (Element element : document.select(selector)) {
+            Object result = mapper.apply(element);
+            if (result != null) {
+                results.add(result);
+            }
+        }
+        return results;
+    }
+
+    @Benchmark
+    public List<?> streaming() throws IOException {
+        return HtmlStreamExtractor.processResponse(response, selector, mapper);
+    }
+
+    private void use(Evaluator selector, FetcherHttpUtils.ThrowingFunction<Element, ?> mapper) {
+        this.selector = selector;
+        this.mapper = mapper;
+    }
+}
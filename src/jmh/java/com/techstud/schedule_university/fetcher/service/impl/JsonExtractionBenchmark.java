@@ -0,0 +1,107 @@
+package com.techstud.schedule_university.fetcher.service.impl;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.techstud.schedule_university.fetcher.dto.GroupData;
+import com.techstud.schedule_university.fetcher.util.JsonStreamExtractor;
+import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Разбор JSON ответов: дерево Jackson databind против потокового извлечения
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonExtractionBenchmark {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final Set<String> SSAU_FIELDS = Set.of("id", "text");
+
+    @Param({"BMSTU", "SSAU", "SSEU", "TLTSU"})
+    private Fixture fixture;
+
+    private SimpleHttpResponse response;
+    private byte[] body;
+
+    @Setup
+    public void setUp() throws IOException {
+        response = fixture.response();
+        body = fixture.body();
+        if (databind().size() != streaming().size()) {
+            throw new IllegalStateException("Databind and streaming extraction disagree on " + fixture);
+        }
+    }
+
+    @Benchmark
+    public List<GroupData> databind() throws IOException {
+        JsonNode root = MAPPER.readTree(body);
+        List<GroupData> groups = new ArrayList<>();
+        switch (fixture) {
+            case BMSTU -> collectTree(root.path("data"), groups);
+            case SSAU -> collectArray(root, "id", "text", groups);
+            case SSEU, TLTSU -> collectArray(root, "id", "name", groups);
+            default -> throw new IllegalArgumentException("Not a JSON fixture: " + fixture);
+        }
+        return groups;
+    }
+
+    @Benchmark
+    public List<GroupData> streaming() throws IOException {
+        return switch (fixture) {
+            case BMSTU -> JsonStreamExtractor.processResponse(response, BmstuGroupDataFetchService::extractGroups);
+            case SSEU -> JsonStreamExtractor.processResponse(response, SseuGroupDataFetchService::extractGroups);
+            case TLTSU -> JsonStreamExtractor.processResponse(response, TltsuGroupDataFetchService::extractGroups);
+            case SSAU -> JsonStreamExtractor.processResponse(response, parser -> {
+                List<GroupData> groups = new ArrayList<>();
+                JsonStreamExtractor.forEachObject(parser, SSAU_FIELDS, fields -> {
+                    if (fields.containsKey("id") && fields.containsKey("text")) {
+                        groups.add(new GroupData(fields.get("text"), fields.get("id")));
+                    }
+                });
+                return groups;
+            });
+            default -> throw new IllegalArgumentException("Not a JSON fixture: " + fixture);
+        };
+    }
+
+    private static void collectTree(JsonNode node, List<GroupData> groups) {
+        JsonNode children = node.path("children");
+        for (JsonNode child : children) {
+            collectTree(child, groups);
+        }
+
+        String nodeType = node.path("nodeType").asText(null);
+        boolean isGroup = nodeType != null ? "group".equalsIgnoreCase(nodeType) : children.isEmpty();
+        if (isGroup && node.hasNonNull("abbr") && node.hasNonNull("uuid")) {
+            groups.add(new GroupData(node.get("abbr").asText(), node.get("uuid").asText()));
+        }
+    }
+
+    private static void collectArray(JsonNode root, String idField, String nameField, List<GroupData> groups) {
+        for (JsonNode node : root) {
+            if (node.hasNonNull(idField) && node.hasNonNull(nameField)) {
+                groups.add(new GroupData(node.get(nameField).asText(), node.get(idField).asText()));
+            }
+        }
+    }
+}
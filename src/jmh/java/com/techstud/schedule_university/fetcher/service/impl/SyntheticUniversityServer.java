@@ -0,0 +1,247 @@
+package com.techstud.schedule_university.fetcher.service.impl;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Локальный сервер со страницами в разметке сайта университета
+ *
+ * <p>Страницы генерируются при запуске под заданное число групп и факультетов, так что
+ * их построение не попадает в замер. Каждый ответ задерживается на {@code latencyMillis},
+ * а с вероятностью {@code errorRate} вместо страницы отдаётся 503. Запросы обрабатываются
+ * в виртуальных потоках, поэтому задержки не ограничивают число одновременных запросов.</p>
+ */
+public final class SyntheticUniversityServer implements AutoCloseable {
+
+    private static final int UNECON_COURSES = 4;
+    private static final int BMSTU_DEPARTMENTS = 4;
+
+    private final Shape shape;
+    private final int groups;
+    private final Map<String, Page> pages = new HashMap<>();
+    private final long latencyMillis;
+    private final double errorRate;
+    private final AtomicLong requests = new AtomicLong();
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    /**
+     * Разметка сайта и хост, который сервер подменяет
+     */
+    public enum Shape {
+        UNECON("rasp.unecon.ru"),
+        NSU("table.nsu.ru"),
+        SPBSTU("ruz.spbstu.ru"),
+        BMSTU("lks.bmstu.ru");
+
+        private final String host;
+
+        Shape(String host) {
+            this.host = host;
+        }
+
+        public String host() {
+            return host;
+        }
+    }
+
+    private record Page(String contentType, byte[] body) {
+    }
+
+    public SyntheticUniversityServer(Shape shape, int groups, int faculties, long latencyMillis, double errorRate)
+            throws IOException {
+        this.shape = shape;
+        this.groups = groups;
+        this.latencyMillis = latencyMillis;
+        this.errorRate = errorRate;
+        switch (shape) {
+            case UNECON -> generateUnecon(faculties);
+            case NSU -> generateNsu(faculties);
+            case SPBSTU -> generateSpbstu(faculties);
+            case BMSTU -> generateBmstu(faculties);
+        }
+
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 1024);
+        server.createContext("/", this::handle);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    /**
+     * @return Адрес сервера для {@code fetcher.http.host-overrides}
+     */
+    public URI uri() {
+        return URI.create("http://127.0.0.1:" + server.getAddress().getPort());
+    }
+
+    public Shape shape() {
+        return shape;
+    }
+
+    /**
+     * @return Сколько групп должен найти полный обход
+     */
+    public int groups() {
+        return groups;
+    }
+
+    /**
+     * @return Число страниц, которые нужно запросить для полного обхода
+     */
+    public int pages() {
+        return pages.size();
+    }
+
+    public long requests() {
+        return requests.get();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            requests.incrementAndGet();
+            if (latencyMillis > 0) {
+                TimeUnit.MILLISECONDS.sleep(latencyMillis);
+            }
+
+            URI uri = exchange.getRequestURI();
+            Page page = pages.get(uri.getRawQuery() != null ? uri.getRawPath() + "?" + uri.getRawQuery()
+                    : uri.getRawPath());
+            if (page == null) {
+                exchange.sendResponseHeaders(404, -1);
+                return;
+            }
+            if (errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate) {
+                exchange.sendResponseHeaders(503, -1);
+                return;
+            }
+
+            exchange.getResponseHeaders().set("Content-Type", page.contentType());
+            exchange.sendResponseHeaders(200, page.body().length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(page.body());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void generateUnecon(int faculties) {
+        StringBuilder root = new StringBuilder("<div class=\"fakultets\">");
+        int group = 0;
+        for (int f = 0; f < faculties; f++) {
+            root.append("<a href=\"raspisanie.php?fakultet=").append(f).append("\">Факультет ").append(f)
+                    .append("</a>");
+            StringBuilder faculty = new StringBuilder("<div class=\"kurses\">");
+            for (int c = 0; c < UNECON_COURSES; c++) {
+                String course = "raspisanie.php?fakultet=" + f + "&kurs=" + c;
+                faculty.append("<a href=\"").append(course.replace("&", "&amp;")).append("\">")
+                        .append(c + 1).append(" курс</a>");
+                StringBuilder groupsHtml = new StringBuilder("<div class=\"grps\">");
+                for (int end = share(f * UNECON_COURSES + c + 1, faculties * UNECON_COURSES); group < end; group++) {
+                    groupsHtml.append("<a href=\"raspisanie_grp.php?g=").append(group).append("\">")
+                            .append(code(group)).append("</a>");
+                }
+                html("/" + course, groupsHtml.append("</div>"));
+            }
+            html("/raspisanie.php?fakultet=" + f, faculty.append("</div>"));
+        }
+        html("/raspisanie.php", root.append("</div>"));
+    }
+
+    private void generateNsu(int faculties) {
+        StringBuilder root = new StringBuilder();
+        int group = 0;
+        for (int f = 0; f < faculties; f++) {
+            root.append("<a class=\"faculty\" href=\"/faculty/").append(f).append("\">Факультет ").append(f)
+                    .append("</a>");
+            StringBuilder faculty = new StringBuilder("<div class=\"groups\">");
+            for (int end = share(f + 1, faculties); group < end; group++) {
+                faculty.append("<a class=\"group\" href=\"/group/").append(code(group)).append("\">")
+                        .append(code(group)).append("</a>");
+            }
+            html("/faculty/" + f, faculty.append("</div>"));
+        }
+        html("/faculties", root);
+    }
+
+    private void generateSpbstu(int faculties) {
+        StringBuilder root = new StringBuilder("<ul class=\"faculty-list\">");
+        int group = 0;
+        for (int f = 0; f < faculties; f++) {
+            String link = "/faculty/" + f + "/groups";
+            root.append("<li class=\"faculty-list__item\"><a class=\"faculty-list__link\" href=\"").append(link)
+                    .append("\">Институт ").append(f).append("</a></li>");
+            StringBuilder faculty = new StringBuilder("<ul class=\"groups-list\">");
+            for (int end = share(f + 1, faculties); group < end; group++) {
+                faculty.append("<li class=\"groups-list__item\"><a class=\"groups-list__link\" href=\"")
+                        .append(link).append('/').append(group).append("\">").append(code(group))
+                        .append("</a></li>");
+            }
+            html(link, faculty.append("</ul>"));
+        }
+        html("/", root.append("</ul>"));
+    }
+
+    private void generateBmstu(int faculties) {
+        StringBuilder json = new StringBuilder(
+                "{\"data\":{\"abbr\":\"МГТУ\",\"uuid\":\"root\",\"nodeType\":\"university\",\"children\":[");
+        int group = 0;
+        for (int f = 0; f < faculties; f++) {
+            json.append(f > 0 ? "," : "").append("{\"abbr\":\"Ф").append(f).append("\",\"uuid\":\"f-").append(f)
+                    .append("\",\"nodeType\":\"faculty\",\"children\":[");
+            for (int d = 0; d < BMSTU_DEPARTMENTS; d++) {
+                json.append(d > 0 ? "," : "").append("{\"abbr\":\"Ф").append(f).append('-').append(d)
+                        .append("\",\"uuid\":\"d-").append(f).append('-').append(d)
+                        .append("\",\"nodeType\":\"department\",\"children\":[");
+                int first = group;
+                int end = share(f * BMSTU_DEPARTMENTS + d + 1, faculties * BMSTU_DEPARTMENTS);
+                for (; group < end; group++) {
+                    json.append(group > first ? "," : "").append("{\"abbr\":\"").append(code(group))
+                            .append("\",\"uuid\":\"g-").append(group)
+                            .append("\",\"nodeType\":\"group\",\"children\":[]}");
+                }
+                json.append("]}");
+            }
+            json.append("]}");
+        }
+        json.append("]}}");
+        pages.put("/lks-back/api/v1/structure",
+                new Page("application/json", json.toString().getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Сколько групп приходится на первые {@code parts} частей из {@code total}
+     */
+    private int share(int parts, int total) {
+        return (int) ((long) groups * parts / total);
+    }
+
+    private void html(String path, CharSequence content) {
+        String body = "<!DOCTYPE html><html><head><meta charset=\"utf-8\"><title>Расписание</title></head><body>"
+                + content + "</body></html>";
+        pages.put(path, new Page("text/html; charset=UTF-8", body.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static String code(int group) {
+        return "ГР-" + (100 + group % 900) + "-" + group / 900;
+    }
+}
@@ -24,7 +24,8 @@ public class SecurityConfig {
                         auth
                                 .requestMatchers("/register", "/login", "/refresh-token", "/api/auth/**",
                                         "/resend-code",
-                                        "/swagger-ui/**", "/v3/api-docs/**")
+                                        "/swagger-ui/**", "/v3/api-docs/**",
+                                        "/actuator/health", "/actuator/prometheus")
                                 .permitAll()
                                 .anyRequest()
                                 .authenticated())
@@ -0,0 +1,26 @@
+package com.techstud.schedule_university.fetcher.actuator;
+
+import com.techstud.schedule_university.fetcher.dto.CrawlScheduleStatus;
+import com.techstud.schedule_university.fetcher.service.GroupCrawlScheduler;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Расписание плановых обходов: /actuator/crawlschedule
+ */
+@Component
+@Endpoint(id = "crawlschedule")
+@RequiredArgsConstructor
+public class CrawlScheduleEndpoint {
+
+    private final GroupCrawlScheduler groupCrawlScheduler;
+
+    @ReadOperation
+    public Map<String, CrawlScheduleStatus> schedule() {
+        return groupCrawlScheduler.getStatuses();
+    }
+}
@@ -0,0 +1,45 @@
+package com.techstud.schedule_university.fetcher.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Настройки планового обхода университетов
+ *
+ * <p>Расписание задаётся cron выражением в часовом поясе университета. Университеты,
+ * отсортированные по названию, сдвигаются друг относительно друга на {@code stagger},
+ * а каждый запуск дополнительно сдвигается на случайное время до {@code jitter}.
+ * Ключ в {@code universities} - название университета.</p>
+ *
+ * <p>За {@code warmUpLead} до запуска открываются соединения к сайту университета,
+ * нулевое значение отключает прогрев.</p>
+ */
+@ConfigurationProperties(prefix = "fetcher.schedule")
+@Configuration
+@Getter
+@Setter
+public class CrawlScheduleProperties {
+    private boolean enabled = true;
+    private String defaultCron = "0 0 3 * * *";
+    private ZoneId defaultZone = ZoneId.of("Europe/Moscow");
+    private Duration defaultJitter = Duration.ofMinutes(20);
+    private Duration stagger = Duration.ofMinutes(5);
+    private Duration warmUpLead = Duration.ofSeconds(30);
+    private Map<String, UniversitySchedule> universities = new HashMap<>();
+
+    @Getter
+    @Setter
+    public static class UniversitySchedule {
+        private boolean enabled = true;
+        private String cron;
+        private ZoneId zone;
+        private Duration jitter;
+    }
+}
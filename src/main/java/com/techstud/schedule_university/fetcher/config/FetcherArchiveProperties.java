@@ -0,0 +1,31 @@
+package com.techstud.schedule_university.fetcher.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+
+/**
+ * Настройки записи и воспроизведения HTTP обменов с сайтами университетов
+ *
+ * <p>В режиме {@code record} каждый запрос и ответ дописываются в архив {@code path},
+ * в режиме {@code replay} ответы берутся из архива без обращения к сети. Ограничение
+ * частоты при воспроизведении продолжает работать, для бенчмарков его стоит выключить.</p>
+ */
+@ConfigurationProperties(prefix = "fetcher.archive")
+@Configuration
+@Getter
+@Setter
+public class FetcherArchiveProperties {
+    private Mode mode = Mode.DISABLED;
+    private Path path = Path.of("fetcher-archive.zip");
+    private boolean replayLatency = false;
+
+    public enum Mode {
+        DISABLED,
+        RECORD,
+        REPLAY
+    }
+}
@@ -0,0 +1,35 @@
+package com.techstud.schedule_university.fetcher.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Настройки кэша страниц университетов
+ *
+ * <p>Тело сохраняется только для ответов с ETag или Last-Modified и не больше
+ * {@code maxBodySize}, для остальных на диске хранится только отпечаток.</p>
+ *
+ * <p>По умолчанию кэш лежит в {@code data/http-cache} рабочего каталога приложения, рядом
+ * с остальными его данными, и переживает перезапуск и очистку временных файлов.</p>
+ *
+ * <p>Пропуск дочерних страниц у неизменившейся страницы по умолчанию выключен: дочерняя
+ * страница может измениться без изменения родительской, поэтому результат обхода
+ * переиспользуется не дольше {@code subtreeMaxAge}.</p>
+ */
+@ConfigurationProperties(prefix = "fetcher.cache")
+@Configuration
+@Getter
+@Setter
+public class FetcherCacheProperties {
+    private boolean enabled = true;
+    private Path directory = Path.of("data", "http-cache");
+    private DataSize maxBodySize = DataSize.ofMegabytes(4);
+    private boolean skipUnchangedSubtrees = false;
+    private Duration subtreeMaxAge = Duration.ofHours(6);
+}
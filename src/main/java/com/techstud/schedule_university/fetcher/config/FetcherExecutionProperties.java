@@ -0,0 +1,29 @@
+package com.techstud.schedule_university.fetcher.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Настройки выполнения обходов университетов
+ *
+ * <p>Ограничение задаётся на каждый университет отдельно, ключ - название университета.
+ * Потоковые выдачи групп занимают отдельные слоты, не больше {@code maxStreamConcurrency}
+ * на университет, и не задерживают обходы каталога. Выдача закрывается по истечении
+ * {@code streamTimeout}.</p>
+ */
+@ConfigurationProperties(prefix = "fetcher.execution")
+@Configuration
+@Getter
+@Setter
+public class FetcherExecutionProperties {
+    private int defaultMaxConcurrency = 1;
+    private Map<String, Integer> maxConcurrency = new HashMap<>();
+    private int maxStreamConcurrency = 2;
+    private Duration streamTimeout = Duration.ofMinutes(10);
+}
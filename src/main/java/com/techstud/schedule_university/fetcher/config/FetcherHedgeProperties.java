@@ -0,0 +1,30 @@
+package com.techstud.schedule_university.fetcher.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Настройки дублирующих запросов к медленным сайтам университетов
+ *
+ * <p>Копия запроса отправляется, если ответа нет дольше {@code percentile} задержек
+ * последних {@code window} запросов к хосту. Каждый запрос пополняет бюджет хоста на
+ * {@code budgetRatio}, каждая копия тратит единицу, бюджет не копится больше
+ * {@code maxBudget}.</p>
+ */
+@ConfigurationProperties(prefix = "fetcher.hedge")
+@Configuration
+@Getter
+@Setter
+public class FetcherHedgeProperties {
+    private boolean enabled = true;
+    private double percentile = 0.95;
+    private int window = 100;
+    private int minSamples = 20;
+    private Duration minDelay = Duration.ofMillis(50);
+    private double budgetRatio = 0.1;
+    private double maxBudget = 5;
+}
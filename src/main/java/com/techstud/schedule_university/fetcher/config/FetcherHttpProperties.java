@@ -0,0 +1,46 @@
+package com.techstud.schedule_university.fetcher.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Настройки общего HTTP транспорта фетчеров
+ *
+ * <p>Значения по умолчанию подобраны под ежечасный обход всех университетов</p>
+ *
+ * <p>{@code hostOverrides} отправляет запросы к хосту на другой адрес, сохраняя путь,
+ * например на локальный синтетический сервер:
+ * {@code fetcher.http.host-overrides.[rasp.unecon.ru]=http://127.0.0.1:8089}</p>
+ *
+ * <p>{@code maxBodySize} ограничивает тело ответа после распаковки, ответ больше
+ * лимита завершается ошибкой и не повторяется</p>
+ */
+@ConfigurationProperties(prefix = "fetcher.http")
+@Configuration
+@Getter
+@Setter
+public class FetcherHttpProperties {
+    private int maxConnTotal = 100;
+    private int maxConnPerRoute = 8;
+    private Map<String, Integer> maxConnPerHost = new HashMap<>();
+    private Duration connectTimeout = Duration.ofSeconds(10);
+    private Duration responseTimeout = Duration.ofSeconds(30);
+    private Duration connectionTimeToLive = Duration.ofMinutes(10);
+    private Duration defaultKeepAlive = Duration.ofMinutes(1);
+    private Duration idleEviction = Duration.ofMinutes(2);
+    private Duration validateAfterInactivity = Duration.ofSeconds(2);
+    private int tlsSessionCacheSize = 256;
+    private Duration tlsSessionTimeout = Duration.ofHours(4);
+    private int asyncIoThreads = 2;
+    private int maxInFlightPerHost = 16;
+    private Map<String, URI> hostOverrides = new HashMap<>();
+    private DataSize maxBodySize = DataSize.ofMegabytes(16);
+}
@@ -0,0 +1,42 @@
+package com.techstud.schedule_university.fetcher.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Настройки ограничения частоты запросов к сайтам университетов
+ *
+ * <p>Частота задаётся в запросах в секунду и подстраивается между {@code minRate} и
+ * {@code maxRate} хоста. Ключ в {@code hosts} - имя хоста.</p>
+ */
+@ConfigurationProperties(prefix = "fetcher.rate-limit")
+@Configuration
+@Getter
+@Setter
+public class FetcherRateLimitProperties {
+    private boolean enabled = true;
+    private double defaultRate = 4;
+    private double defaultMaxRate = 16;
+    private double minRate = 0.25;
+    private double burst = 4;
+    private double increaseStep = 0.5;
+    private double decreaseFactor = 0.5;
+    private Duration decreaseCooldown = Duration.ofSeconds(2);
+    private double latencySpikeFactor = 3;
+    private Duration minLatencySpike = Duration.ofMillis(500);
+    private Duration maxRetryAfter = Duration.ofMinutes(5);
+    private Map<String, HostLimit> hosts = new HashMap<>();
+
+    @Getter
+    @Setter
+    public static class HostLimit {
+        private Double rate;
+        private Double maxRate;
+    }
+}
@@ -0,0 +1,30 @@
+package com.techstud.schedule_university.fetcher.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Настройки повторов и размыкателя цепи для запросов к сайтам университетов
+ *
+ * <p>Повторяются только GET и HEAD запросы. Пауза перед повтором растёт в
+ * {@code backoffMultiplier} раз от {@code initialBackoff} до {@code maxBackoff}, от неё
+ * берётся случайная доля (full jitter).</p>
+ */
+@ConfigurationProperties(prefix = "fetcher.resilience")
+@Configuration
+@Getter
+@Setter
+public class FetcherResilienceProperties {
+    private int maxAttempts = 3;
+    private Duration initialBackoff = Duration.ofMillis(500);
+    private Duration maxBackoff = Duration.ofSeconds(10);
+    private double backoffMultiplier = 2;
+    private Set<Integer> retryableStatuses = Set.of(429, 500, 502, 503, 504);
+    private int failureThreshold = 5;
+    private Duration openDuration = Duration.ofSeconds(30);
+}
@@ -0,0 +1,34 @@
+package com.techstud.schedule_university.fetcher.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Настройки кэша каталогов групп
+ *
+ * <p>Каталог обновляется в фоне, начиная с возраста {@code ttl - refreshAhead}. До возраста
+ * {@code maxStale} чтение не ждёт обхода и получает текущий каталог. Новый каталог, в
+ * котором групп меньше {@code minRetainedRatio} от прошлого, считается ошибкой обхода, пока
+ * {@code shrinkConfirmations} обходов подряд не вернут одни и те же группы.</p>
+ *
+ * <p>{@code batchDeadline} - общий срок пакетного обхода, если запрос не задал свой,
+ * {@code maxBatchDeadline} - наибольший срок, который может задать запрос</p>
+ */
+@ConfigurationProperties(prefix = "fetcher.catalog")
+@Configuration
+@Getter
+@Setter
+public class GroupCatalogProperties {
+    private Duration ttl = Duration.ofHours(6);
+    private Duration refreshAhead = Duration.ofHours(1);
+    private Duration maxStale = Duration.ofDays(7);
+    private Duration failureBackoff = Duration.ofMinutes(5);
+    private double minRetainedRatio = 0.5;
+    private int shrinkConfirmations = 3;
+    private Duration batchDeadline = Duration.ofMinutes(2);
+    private Duration maxBatchDeadline = Duration.ofMinutes(10);
+}
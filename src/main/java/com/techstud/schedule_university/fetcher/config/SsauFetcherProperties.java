@@ -0,0 +1,33 @@
+package com.techstud.schedule_university.fetcher.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Настройки обхода поиска групп СГАУ
+ *
+ * <p>Все поисковые запросы идут в рамках одной CSRF-сессии, число одновременных
+ * запросов не должно превышать лимит соединений на хост. Лимит выдачи поиска задаётся
+ * явно и должен совпадать с тем, сколько результатов отдаёт сервер: лишнее расширение
+ * префикса стоит нескольких запросов, а завышенный лимит теряет группы</p>
+ *
+ * <p>Время жизни сессии берётся из Max-Age/Expires куки, {@code sessionDefaultTtl}
+ * используется, если сервер его не указал</p>
+ */
+@ConfigurationProperties(prefix = "fetcher.ssau")
+@Configuration
+@Getter
+@Setter
+public class SsauFetcherProperties {
+    private int searchConcurrency = 6;
+    private int searchResultCap;
+    private int searchMaxDepth = 6;
+    private int searchRediscoveryInterval = 10;
+    private int searchRetryAttempts = 2;
+    private Duration sessionDefaultTtl = Duration.ofMinutes(30);
+    private Duration sessionRenewBefore = Duration.ofMinutes(2);
+}
@@ -0,0 +1,219 @@
+package com.techstud.schedule_university.fetcher.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.techstud.schedule_university.fetcher.config.FetcherExecutionProperties;
+import com.techstud.schedule_university.fetcher.config.GroupCatalogProperties;
+import com.techstud.schedule_university.fetcher.dto.BatchCrawlResult;
+import com.techstud.schedule_university.fetcher.dto.GroupData;
+import com.techstud.schedule_university.fetcher.exception.GroupCatalogUnavailableException;
+import com.techstud.schedule_university.fetcher.service.GroupBatchCrawlService;
+import com.techstud.schedule_university.fetcher.service.GroupCatalogCache;
+import com.techstud.schedule_university.fetcher.service.GroupFetchServiceFacade;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Slf4j
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/fetcher")
+public class GroupCrawlController {
+
+    private static final Duration RESPONSE_GRACE = Duration.ofSeconds(10);
+
+    private final GroupBatchCrawlService groupBatchCrawlService;
+    private final GroupCatalogProperties groupCatalogProperties;
+    private final GroupFetchServiceFacade groupFetchServiceFacade;
+    private final GroupCatalogCache groupCatalogCache;
+    private final FetcherExecutionProperties fetcherExecutionProperties;
+    private final ObjectMapper objectMapper;
+
+    @Operation(
+            summary = "Пакетный обход университетов",
+            description = """
+            Обходит университеты одновременно и обновляет их каталоги групп.
+            Ответ приходит не позже срока, обходы, не успевшие к нему, продолжаются в фоне.
+            Статус по университету: OK, STALE (отдаётся прошлый каталог), FAILED или TIMED_OUT.
+            """,
+            tags = {"Fetcher"},
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Результат по каждому университету"),
+                    @ApiResponse(responseCode = "400", description = "Неизвестный университет или срок больше допустимого")
+            }
+    )
+    @PostMapping("/crawl")
+    public DeferredResult<ResponseEntity<BatchCrawlResult>> crawl(
+            @Parameter(description = "Университеты через запятую или all")
+            @RequestParam(defaultValue = GroupBatchCrawlService.ALL_UNIVERSITIES) List<String> universities,
+            @Parameter(description = "Общий срок, например 90s, не больше fetcher.catalog.max-batch-deadline")
+            @RequestParam(required = false) Duration deadline) {
+        log.info("Incoming batch crawl request for {}", universities);
+        Duration batchDeadline = batchDeadline(deadline);
+        DeferredResult<ResponseEntity<BatchCrawlResult>> response =
+                new DeferredResult<>(batchDeadline.plus(RESPONSE_GRACE).toMillis());
+        groupBatchCrawlService.crawl(universities, batchDeadline).whenComplete((result, e) -> {
+            if (e != null) {
+                response.setErrorResult(e);
+            } else {
+                response.setResult(ResponseEntity.ok(result));
+            }
+        });
+        return response;
+    }
+
+    @Operation(
+            summary = "Каталог групп университета",
+            description = """
+            Отдаёт каталог групп из памяти, устаревающий каталог обновляется в фоне.
+            Обхода ждёт только первое чтение и чтение каталога старше fetcher.catalog.max-stale,
+            но не дольше fetcher.catalog.batch-deadline.
+            """,
+            tags = {"Fetcher"},
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Каталог групп"),
+                    @ApiResponse(responseCode = "400", description = "Неизвестный университет"),
+                    @ApiResponse(responseCode = "503", description = "Обход не удался, а удачного каталога нет")
+            }
+    )
+    @GetMapping("/groups/{university}")
+    public DeferredResult<List<GroupData>> getGroups(@PathVariable String university) {
+        String universityName = university.trim().toUpperCase(Locale.ROOT);
+        DeferredResult<List<GroupData>> response =
+                new DeferredResult<>(groupCatalogProperties.getBatchDeadline().toMillis());
+        groupCatalogCache.getGroups(universityName).whenComplete((groups, e) -> {
+            if (e != null) {
+                response.setErrorResult(e);
+            } else {
+                response.setResult(groups);
+            }
+        });
+        return response;
+    }
+
+    @Operation(
+            summary = "Потоковая выдача групп университета",
+            description = """
+            Обходит университет и отдаёт группы по мере их нахождения, по одному JSON объекту в строке
+            (application/x-ndjson) или событиями group (text/event-stream).
+            Группы не сортируются и не сохраняются в каталог. Медленный клиент замедляет обход.
+            """,
+            tags = {"Fetcher"},
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Поток групп"),
+                    @ApiResponse(responseCode = "400", description = "Неизвестный университет")
+            }
+    )
+    @GetMapping(value = "/groups/{university}/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseBodyEmitter streamGroups(@PathVariable String university) {
+        ResponseBodyEmitter emitter = new ResponseBodyEmitter(streamTimeout());
+        stream(university, emitter, groupData -> {
+            byte[] json = objectMapper.writeValueAsBytes(groupData);
+            byte[] line = Arrays.copyOf(json, json.length + 1);
+            line[json.length] = '\n';
+            emitter.send(line, MediaType.APPLICATION_NDJSON);
+        });
+        return emitter;
+    }
+
+    @GetMapping(value = "/groups/{university}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamGroupEvents(@PathVariable String university) {
+        SseEmitter emitter = new SseEmitter(streamTimeout());
+        stream(university, emitter, groupData -> emitter.send(SseEmitter.event()
+                .name("group")
+                .data(groupData, MediaType.APPLICATION_JSON)));
+        return emitter;
+    }
+
+    /**
+     * Передаёт группы университета в emitter
+     *
+     * <p>После таймаута, ошибки или завершения emitter следующая группа бросает
+     * исключение, и фетчер отменяет обход.</p>
+     */
+    private void stream(String university, ResponseBodyEmitter emitter, GroupWriter writer) {
+        String universityName = university.trim().toUpperCase(Locale.ROOT);
+        log.info("Incoming group stream request for {}", universityName);
+        AtomicBoolean closed = new AtomicBoolean();
+        emitter.onTimeout(() -> closed.set(true));
+        emitter.onError(e -> closed.set(true));
+        emitter.onCompletion(() -> closed.set(true));
+        groupFetchServiceFacade.streamGroups(universityName, groupData -> {
+            if (closed.get()) {
+                throw new CancellationException("Group stream of " + universityName + " is closed");
+            }
+            try {
+                writer.write(groupData);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }).whenComplete((groups, e) -> {
+            if (e != null) {
+                emitter.completeWithError(e);
+            } else {
+                log.info("Streamed {} groups of {}", groups, universityName);
+                emitter.complete();
+            }
+        });
+    }
+
+    private Duration batchDeadline(Duration deadline) {
+        if (deadline == null) {
+            return groupCatalogProperties.getBatchDeadline();
+        }
+        Duration maxDeadline = groupCatalogProperties.getMaxBatchDeadline();
+        if (deadline.isNegative() || deadline.isZero() || deadline.compareTo(maxDeadline) > 0) {
+            throw new IllegalArgumentException("Deadline must be positive and not longer than " + maxDeadline);
+        }
+        return deadline;
+    }
+
+    private long streamTimeout() {
+        return fetcherExecutionProperties.getStreamTimeout().toMillis();
+    }
+
+    @FunctionalInterface
+    private interface GroupWriter {
+        void write(GroupData groupData) throws IOException;
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Map<String, String>> handleIllegalArgumentException(IllegalArgumentException e) {
+        // Тип задан явно, чтобы ошибка дошла и до клиента потоковой выдачи
+        return ResponseEntity.badRequest()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(Map.of("error", e.getMessage()));
+    }
+
+    @ExceptionHandler(GroupCatalogUnavailableException.class)
+    public ResponseEntity<Map<String, String>> handleGroupCatalogUnavailableException(
+            GroupCatalogUnavailableException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(Map.of("error", e.getMessage()));
+    }
+}
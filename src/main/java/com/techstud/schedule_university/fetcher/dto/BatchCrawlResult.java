@@ -0,0 +1,7 @@
+package com.techstud.schedule_university.fetcher.dto;
+
+import java.time.Instant;
+import java.util.Map;
+
+public record BatchCrawlResult(Instant startedAt, long deadlineMillis, Map<String, UniversityCrawlResult> universities) {
+}
@@ -0,0 +1,4 @@
+package com.techstud.schedule_university.fetcher.dto;
+
+public record CacheHostStats(long notModified, long unchanged, long changed, double hitRatio) {
+}
@@ -0,0 +1,4 @@
+package com.techstud.schedule_university.fetcher.dto;
+
+public record CatalogWriteStats(int inserted, int touched, int renamed, int restored, int deleted) {
+}
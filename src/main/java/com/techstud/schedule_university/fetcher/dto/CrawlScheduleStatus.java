@@ -0,0 +1,7 @@
+package com.techstud.schedule_university.fetcher.dto;
+
+import java.time.Instant;
+
+public record CrawlScheduleStatus(String cron, String zone, Instant nextRun, Instant lastRunStarted,
+                                  Instant lastRunFinished, String lastRunOutcome, Integer lastRunGroups) {
+}
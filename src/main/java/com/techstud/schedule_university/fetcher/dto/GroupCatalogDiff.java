@@ -0,0 +1,58 @@
+package com.techstud.schedule_university.fetcher.dto;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Разница между двумя последовательными каталогами университета
+ *
+ * <p>Группы сравниваются по {@code universityGroupId}, смена {@code groupCode} считается
+ * переименованием</p>
+ */
+public record GroupCatalogDiff(String universityName, List<GroupData> added, List<GroupData> removed,
+                               List<GroupRename> renamed) {
+
+    public record GroupRename(String universityGroupId, String previousGroupCode, String groupCode) {
+    }
+
+    /**
+     * @param previous Прошлый каталог, пустой при первом обходе
+     * @param current Новый каталог
+     */
+    public static GroupCatalogDiff between(String universityName, List<GroupData> previous, List<GroupData> current) {
+        Map<String, GroupData> previousById = index(previous);
+        Map<String, GroupData> currentById = index(current);
+
+        List<GroupData> added = new ArrayList<>();
+        List<GroupRename> renamed = new ArrayList<>();
+        currentById.forEach((id, group) -> {
+            GroupData before = previousById.get(id);
+            if (before == null) {
+                added.add(group);
+            } else if (!before.groupCode().equals(group.groupCode())) {
+                renamed.add(new GroupRename(id, before.groupCode(), group.groupCode()));
+            }
+        });
+
+        List<GroupData> removed = previousById.entrySet().stream()
+                .filter(entry -> !currentById.containsKey(entry.getKey()))
+                .map(Map.Entry::getValue)
+                .toList();
+
+        return new GroupCatalogDiff(universityName, List.copyOf(added), removed, List.copyOf(renamed));
+    }
+
+    public boolean isEmpty() {
+        return added.isEmpty() && removed.isEmpty() && renamed.isEmpty();
+    }
+
+    private static Map<String, GroupData> index(List<GroupData> groups) {
+        Map<String, GroupData> byId = new LinkedHashMap<>();
+        for (GroupData group : groups) {
+            byId.putIfAbsent(group.universityGroupId(), group);
+        }
+        return byId;
+    }
+}
@@ -0,0 +1,31 @@
+package com.techstud.schedule_university.fetcher.dto;
+
+/**
+ * Результат обхода одного университета в пакетном обходе
+ *
+ * @param status Итог обхода
+ * @param groups Число групп в каталоге, который сейчас отдаётся читающим, или null, если каталога нет
+ * @param durationMillis Время от начала пакета до результата
+ * @param error Причина ошибки для {@link Status#FAILED}
+ */
+public record UniversityCrawlResult(Status status, Integer groups, long durationMillis, String error) {
+
+    public enum Status {
+        /**
+         * Обход удался, каталог обновлён
+         */
+        OK,
+        /**
+         * Обход не удался или отклонён, отдаётся последний удачный каталог
+         */
+        STALE,
+        /**
+         * Обход не удался, а удачного каталога нет
+         */
+        FAILED,
+        /**
+         * Обход не успел к сроку пакета и продолжается в фоне
+         */
+        TIMED_OUT
+    }
+}
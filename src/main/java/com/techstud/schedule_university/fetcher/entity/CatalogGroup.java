@@ -0,0 +1,50 @@
+package com.techstud.schedule_university.fetcher.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * Группа из каталога университета
+ *
+ * <p>Группа, пропавшая с сайта, не удаляется, а помечается {@code deletedAt}. Схему fetcher,
+ * таблицу и последовательность создаёт Hibernate ({@code ddl-auto: update}), Liquibase отключён.</p>
+ */
+@Entity
+@Builder
+@Getter @Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "catalog_groups", schema = "fetcher",
+        uniqueConstraints = @UniqueConstraint(name = "uk_catalog_groups_university_group",
+                columnNames = {"university", "university_group_id"}))
+public class CatalogGroup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "catalog_group_id_seq")
+    @SequenceGenerator(name = "catalog_group_id_seq", schema = "fetcher", sequenceName = "catalog_group_id_seq",
+            allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false, length = 64)
+    private String university;
+
+    @Column(nullable = false)
+    private String groupCode;
+
+    @Column(nullable = false)
+    private String universityGroupId;
+
+    @Column(nullable = false, updatable = false)
+    private Instant firstSeen;
+
+    @Column(nullable = false)
+    private Instant lastSeen;
+
+    private Instant deletedAt;
+}
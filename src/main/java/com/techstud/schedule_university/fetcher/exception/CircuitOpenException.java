@@ -0,0 +1,19 @@
+package com.techstud.schedule_university.fetcher.exception;
+
+import lombok.Getter;
+
+import java.io.IOException;
+
+/**
+ * Запрос не отправлен, потому что сайт считается недоступным
+ */
+@Getter
+public class CircuitOpenException extends IOException {
+
+    private final String host;
+
+    public CircuitOpenException(String host) {
+        super("Circuit breaker is open for host: " + host);
+        this.host = host;
+    }
+}
@@ -0,0 +1,11 @@
+package com.techstud.schedule_university.fetcher.exception;
+
+/**
+ * Обход университета не удался, а сохранённого каталога групп нет
+ */
+public class GroupCatalogUnavailableException extends RuntimeException {
+
+    public GroupCatalogUnavailableException(String universityName, Throwable cause) {
+        super("Group catalog is unavailable for university: " + universityName, cause);
+    }
+}
@@ -0,0 +1,19 @@
+package com.techstud.schedule_university.fetcher.exception;
+
+import lombok.Getter;
+
+import java.io.IOException;
+
+/**
+ * Тело ответа после распаковки больше допустимого размера
+ */
+@Getter
+public class ResponseTooLargeException extends IOException {
+
+    private final long maxBytes;
+
+    public ResponseTooLargeException(long maxBytes) {
+        super("Response body exceeds " + maxBytes + " bytes");
+        this.maxBytes = maxBytes;
+    }
+}
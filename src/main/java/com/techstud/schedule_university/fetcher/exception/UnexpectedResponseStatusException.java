@@ -0,0 +1,19 @@
+package com.techstud.schedule_university.fetcher.exception;
+
+import lombok.Getter;
+
+import java.io.IOException;
+
+/**
+ * Ответ сервера с кодом, отличным от 200
+ */
+@Getter
+public class UnexpectedResponseStatusException extends IOException {
+
+    private final int statusCode;
+
+    public UnexpectedResponseStatusException(int statusCode) {
+        super("Unexpected response code: " + statusCode);
+        this.statusCode = statusCode;
+    }
+}
@@ -0,0 +1,41 @@
+package com.techstud.schedule_university.fetcher.repository;
+
+import com.techstud.schedule_university.fetcher.entity.CatalogGroup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface CatalogGroupRepository extends JpaRepository<CatalogGroup, Long> {
+
+    List<CatalogGroup> findByUniversity(String university);
+
+    List<CatalogGroup> findByUniversityAndDeletedAtIsNull(String university);
+
+    @Modifying
+    @Query("""
+        UPDATE CatalogGroup g\s
+        SET g.lastSeen = :seenAt\s
+        WHERE g.university = :university AND g.deletedAt IS NULL""")
+    int touchActive(@Param("university") String university, @Param("seenAt") Instant seenAt);
+
+    @Modifying
+    @Query("""
+        UPDATE CatalogGroup g\s
+        SET g.deletedAt = :deletedAt\s
+        WHERE g.id IN :ids""")
+    int softDelete(@Param("ids") Collection<Long> ids, @Param("deletedAt") Instant deletedAt);
+
+    @Modifying
+    @Query("""
+        UPDATE CatalogGroup g\s
+        SET g.deletedAt = NULL\s
+        WHERE g.id IN :ids""")
+    int restore(@Param("ids") Collection<Long> ids);
+}
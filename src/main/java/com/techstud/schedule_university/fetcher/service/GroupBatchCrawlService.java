@@ -0,0 +1,138 @@
+package com.techstud.schedule_university.fetcher.service;
+
+import com.techstud.schedule_university.fetcher.config.GroupCatalogProperties;
+import com.techstud.schedule_university.fetcher.dto.BatchCrawlResult;
+import com.techstud.schedule_university.fetcher.dto.GroupData;
+import com.techstud.schedule_university.fetcher.dto.UniversityCrawlResult;
+import com.techstud.schedule_university.fetcher.dto.UniversityCrawlResult.Status;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Пакетный обход нескольких университетов с общим сроком
+ *
+ * <p>Университеты обновляются одновременно через {@link GroupCatalogCache}, поэтому удачный
+ * обход сохраняется и публикуется как обычно, а неудачный оставляет последний удачный
+ * каталог. Пакет завершается не позже срока. Обходы, не успевшие к нему, не прерываются
+ * и обновят каталог в фоне, а в результате пакета получают {@link Status#TIMED_OUT}.</p>
+ */
+@Component
+@Slf4j
+public class GroupBatchCrawlService {
+
+    public static final String ALL_UNIVERSITIES = "all";
+
+    private final GroupCatalogCache groupCatalogCache;
+    private final GroupFetchServiceFactory groupFetchServiceFactory;
+    private final GroupCatalogProperties properties;
+    private final Clock clock;
+
+    @Autowired
+    public GroupBatchCrawlService(GroupCatalogCache groupCatalogCache,
+                                  GroupFetchServiceFactory groupFetchServiceFactory,
+                                  GroupCatalogProperties properties) {
+        this(groupCatalogCache, groupFetchServiceFactory, properties, Clock.systemUTC());
+    }
+
+    public GroupBatchCrawlService(GroupCatalogCache groupCatalogCache,
+                                  GroupFetchServiceFactory groupFetchServiceFactory,
+                                  GroupCatalogProperties properties, Clock clock) {
+        this.groupCatalogCache = groupCatalogCache;
+        this.groupFetchServiceFactory = groupFetchServiceFactory;
+        this.properties = properties;
+        this.clock = clock;
+    }
+
+    /**
+     * Обходит университеты одновременно
+     *
+     * @param universityNames Названия университетов, пустой список или {@code all} - все зарегистрированные
+     * @param deadline Общий срок пакета, null - {@code fetcher.catalog.batch-deadline}
+     * @return Future с результатом по каждому университету, завершается не позже срока
+     * @throws IllegalArgumentException Если для университета нет фетчера
+     */
+    public CompletableFuture<BatchCrawlResult> crawl(Collection<String> universityNames, Duration deadline) {
+        List<String> universities = resolve(universityNames);
+        Duration batchDeadline = deadline != null ? deadline : properties.getBatchDeadline();
+        Instant startedAt = clock.instant();
+        long start = System.nanoTime();
+        log.info("Batch crawl of {} started, deadline {}", universities, batchDeadline);
+
+        Map<String, CompletableFuture<UniversityCrawlResult>> pending = new LinkedHashMap<>();
+        for (String universityName : universities) {
+            pending.put(universityName, refresh(universityName, startedAt, start)
+                    .orTimeout(batchDeadline.toNanos(), TimeUnit.NANOSECONDS)
+                    .exceptionally(ignored -> timedOut(universityName, start)));
+        }
+
+        return CompletableFuture.allOf(pending.values().toArray(CompletableFuture[]::new))
+                .thenApply(ignored -> {
+                    Map<String, UniversityCrawlResult> results = new LinkedHashMap<>();
+                    pending.forEach((universityName, result) -> results.put(universityName, result.join()));
+                    log.info("Batch crawl finished in {} ms: {}", elapsedMillis(start), results.values().stream()
+                            .collect(Collectors.groupingBy(UniversityCrawlResult::status, Collectors.counting())));
+                    return new BatchCrawlResult(startedAt, batchDeadline.toMillis(), results);
+                });
+    }
+
+    private List<String> resolve(Collection<String> universityNames) {
+        if (universityNames == null || universityNames.isEmpty()
+                || universityNames.stream().anyMatch(ALL_UNIVERSITIES::equalsIgnoreCase)) {
+            return groupFetchServiceFactory.getUniversityNames();
+        }
+
+        List<String> universities = universityNames.stream()
+                .map(universityName -> universityName.trim().toUpperCase(Locale.ROOT))
+                .distinct()
+                .toList();
+        universities.forEach(groupFetchServiceFactory::getGroupFetcherService);
+        return universities;
+    }
+
+    private CompletableFuture<UniversityCrawlResult> refresh(String universityName, Instant startedAt, long start) {
+        CompletableFuture<List<GroupData>> refresh;
+        try {
+            refresh = groupCatalogCache.refresh(universityName);
+        } catch (RuntimeException e) {
+            refresh = CompletableFuture.failedFuture(e);
+        }
+
+        return refresh.handle((groups, e) -> {
+            if (e != null) {
+                Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                return new UniversityCrawlResult(Status.FAILED, null, elapsedMillis(start), cause.getMessage());
+            }
+            boolean fresh = groupCatalogCache.getCatalog(universityName)
+                    .map(entry -> !entry.fetchedAt().isBefore(startedAt))
+                    .orElse(false);
+            return new UniversityCrawlResult(fresh ? Status.OK : Status.STALE, groups.size(), elapsedMillis(start),
+                    null);
+        });
+    }
+
+    private UniversityCrawlResult timedOut(String universityName, long start) {
+        log.warn("Crawl of {} did not finish before the batch deadline", universityName);
+        Integer groups = groupCatalogCache.getCatalog(universityName)
+                .map(entry -> entry.groups().size())
+                .orElse(null);
+        return new UniversityCrawlResult(Status.TIMED_OUT, groups, elapsedMillis(start), null);
+    }
+
+    private static long elapsedMillis(long start) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+}
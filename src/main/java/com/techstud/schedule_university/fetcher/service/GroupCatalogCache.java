@@ -0,0 +1,267 @@
+package com.techstud.schedule_university.fetcher.service;
+
+import com.techstud.schedule_university.fetcher.config.GroupCatalogProperties;
+import com.techstud.schedule_university.fetcher.dto.GroupCatalogDiff;
+import com.techstud.schedule_university.fetcher.dto.GroupData;
+import com.techstud.schedule_university.fetcher.entity.CatalogGroup;
+import com.techstud.schedule_university.fetcher.exception.GroupCatalogUnavailableException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Кэш каталогов групп университетов
+ *
+ * <p>Чтение отдаёт каталог из памяти. Начиная с возраста {@code ttl - refreshAhead}
+ * каталог обновляется в фоне, а читающие продолжают получать текущий. Ждать обхода
+ * приходится только при первом чтении и когда каталог старше {@code maxStale}.</p>
+ *
+ * <p>Если обход упал, не нашёл ни одной группы или нашёл подозрительно мало, сохраняется
+ * последний удачный каталог, а повторный обход откладывается на {@code failureBackoff}.
+ * Если удачного каталога ещё нет, ошибка доставляется читающему. Уменьшившийся каталог
+ * всё же принимается, если {@code shrinkConfirmations} обходов подряд вернули одни и те же
+ * группы: так настоящее сокращение списка групп не блокирует каталог навсегда.</p>
+ *
+ * <p>Принятые каталоги сохраняются в {@link GroupCatalogStore}, после перезапуска
+ * каталог поднимается оттуда при первом чтении. Разница с прошлым каталогом
+ * передаётся всем {@link GroupCatalogChangeSink}.</p>
+ */
+@Component
+@Slf4j
+public class GroupCatalogCache {
+
+    private final GroupFetchServiceFacade groupFetchServiceFacade;
+    private final GroupFetchServiceFactory groupFetchServiceFactory;
+    private final GroupCatalogStore catalogStore;
+    private final List<GroupCatalogChangeSink> changeSinks;
+    private final GroupCatalogProperties properties;
+    private final Clock clock;
+    private final Map<String, CatalogEntry> catalogs = new ConcurrentHashMap<>();
+    private final Map<String, Instant> lastFailures = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<List<GroupData>>> refreshes = new ConcurrentHashMap<>();
+    private final Map<String, ShrunkCatalog> shrunkCatalogs = new ConcurrentHashMap<>();
+
+    @Autowired
+    public GroupCatalogCache(GroupFetchServiceFacade groupFetchServiceFacade,
+                             GroupFetchServiceFactory groupFetchServiceFactory, GroupCatalogStore catalogStore,
+                             List<GroupCatalogChangeSink> changeSinks, GroupCatalogProperties properties) {
+        this(groupFetchServiceFacade, groupFetchServiceFactory, catalogStore, changeSinks, properties,
+                Clock.systemUTC());
+    }
+
+    public GroupCatalogCache(GroupFetchServiceFacade groupFetchServiceFacade,
+                             GroupFetchServiceFactory groupFetchServiceFactory, GroupCatalogStore catalogStore,
+                             List<GroupCatalogChangeSink> changeSinks, GroupCatalogProperties properties,
+                             Clock clock) {
+        this.groupFetchServiceFacade = groupFetchServiceFacade;
+        this.groupFetchServiceFactory = groupFetchServiceFactory;
+        this.catalogStore = catalogStore;
+        this.changeSinks = List.copyOf(changeSinks);
+        this.properties = properties;
+        this.clock = clock;
+    }
+
+    public record CatalogEntry(List<GroupData> groups, Instant fetchedAt) {
+    }
+
+    private record ShrunkCatalog(Set<String> groupIds, int confirmations) {
+    }
+
+    /**
+     * Возвращает каталог групп университета
+     *
+     * @param universityName Название университета
+     * @return Future с каталогом, завершается сразу, если каталог не нужно ждать
+     * @throws IllegalArgumentException Если для университета нет фетчера
+     */
+    public CompletableFuture<List<GroupData>> getGroups(String universityName) {
+        groupFetchServiceFactory.getGroupFetcherService(universityName);
+        CatalogEntry entry = catalogs.get(universityName);
+        if (entry == null) {
+            entry = loadPersisted(universityName);
+        }
+        if (entry == null) {
+            return refresh(universityName);
+        }
+
+        Duration age = Duration.between(entry.fetchedAt(), clock.instant());
+        if (age.compareTo(properties.getTtl().minus(properties.getRefreshAhead())) < 0
+                || isBackingOff(universityName)) {
+            return CompletableFuture.completedFuture(entry.groups());
+        }
+
+        if (age.compareTo(properties.getMaxStale()) >= 0) {
+            log.info("Group catalog for {} is {} old, waiting for refresh", universityName, age);
+            return refresh(universityName);
+        }
+
+        log.debug("Serving group catalog for {} while it is refreshed in background", universityName);
+        refresh(universityName);
+        return CompletableFuture.completedFuture(entry.groups());
+    }
+
+    /**
+     * Обходит университет и обновляет каталог, если результат выглядит правдоподобно
+     *
+     * <p>Одновременные обновления одного университета присоединяются к уже идущему,
+     * так что каждый обход принимается и публикуется один раз</p>
+     *
+     * @param universityName Название университета
+     * @return Future с новым каталогом или с последним удачным, если обход не удался
+     */
+    public CompletableFuture<List<GroupData>> refresh(String universityName) {
+        CompletableFuture<List<GroupData>> refreshing = new CompletableFuture<>();
+        CompletableFuture<List<GroupData>> existing = refreshes.putIfAbsent(universityName, refreshing);
+        if (existing != null) {
+            return existing.copy();
+        }
+
+        groupFetchServiceFacade.asyncParseGroups(universityName)
+                .handle((groups, e) -> accept(universityName, groups, e))
+                .whenComplete((groups, e) -> {
+                    refreshes.remove(universityName, refreshing);
+                    if (e != null) {
+                        refreshing.completeExceptionally(e);
+                    } else {
+                        refreshing.complete(groups);
+                    }
+                });
+        return refreshing.copy();
+    }
+
+    /**
+     * @return Сохранённый каталог без обращения к сайту
+     */
+    public Optional<CatalogEntry> getCatalog(String universityName) {
+        return Optional.ofNullable(catalogs.get(universityName));
+    }
+
+    private List<GroupData> accept(String universityName, List<GroupData> groups, Throwable error) {
+        CatalogEntry previous = catalogs.get(universityName);
+        if (previous == null) {
+            previous = loadPersisted(universityName);
+        }
+        String rejection = rejectionReason(universityName, groups, error, previous);
+        if (rejection == null) {
+            Instant fetchedAt = clock.instant();
+            shrunkCatalogs.remove(universityName);
+            catalogs.put(universityName, new CatalogEntry(List.copyOf(groups), fetchedAt));
+            lastFailures.remove(universityName);
+            log.info("Group catalog for {} updated: {} groups", universityName, groups.size());
+            persist(universityName, groups, fetchedAt);
+            publishChanges(GroupCatalogDiff.between(universityName,
+                    previous != null ? previous.groups() : List.of(), groups));
+            return groups;
+        }
+
+        lastFailures.put(universityName, clock.instant());
+        if (previous == null) {
+            log.error("Group catalog for {} is unavailable: {}", universityName, rejection);
+            throw new GroupCatalogUnavailableException(universityName, unwrap(error));
+        }
+
+        log.warn("Keeping last known good group catalog for {} ({} groups from {}): {}",
+                universityName, previous.groups().size(), previous.fetchedAt(), rejection);
+        return previous.groups();
+    }
+
+    private CatalogEntry loadPersisted(String universityName) {
+        List<CatalogGroup> stored;
+        try {
+            stored = catalogStore.loadCatalog(universityName);
+        } catch (RuntimeException e) {
+            log.error("Failed to load stored group catalog for {}: {}", universityName, e.getMessage());
+            return null;
+        }
+        if (stored.isEmpty()) {
+            return null;
+        }
+
+        CatalogEntry entry = new CatalogEntry(
+                stored.stream()
+                        .map(group -> new GroupData(group.getGroupCode(), group.getUniversityGroupId()))
+                        .sorted(Comparator.comparing(GroupData::universityGroupId))
+                        .toList(),
+                stored.stream().map(CatalogGroup::getLastSeen).max(Comparator.naturalOrder()).orElseThrow());
+        CatalogEntry existing = catalogs.putIfAbsent(universityName, entry);
+        log.info("Group catalog for {} loaded from store: {} groups", universityName, entry.groups().size());
+        return existing != null ? existing : entry;
+    }
+
+    private void persist(String universityName, List<GroupData> groups, Instant fetchedAt) {
+        try {
+            catalogStore.applyCrawl(universityName, groups, fetchedAt);
+        } catch (RuntimeException e) {
+            log.error("Failed to save group catalog for {}: {}", universityName, e.getMessage());
+        }
+    }
+
+    private void publishChanges(GroupCatalogDiff diff) {
+        if (diff.isEmpty()) {
+            return;
+        }
+        log.info("Group catalog for {} changed: {} added, {} removed, {} renamed", diff.universityName(),
+                diff.added().size(), diff.removed().size(), diff.renamed().size());
+        for (GroupCatalogChangeSink sink : changeSinks) {
+            try {
+                sink.onCatalogChanged(diff);
+            } catch (RuntimeException e) {
+                log.error("Group catalog change sink {} failed: {}", sink.getClass().getSimpleName(), e.getMessage());
+            }
+        }
+    }
+
+    private String rejectionReason(String universityName, List<GroupData> groups, Throwable error,
+                                   CatalogEntry previous) {
+        if (error != null) {
+            return "crawl failed: " + unwrap(error).getMessage();
+        }
+        if (groups == null || groups.isEmpty()) {
+            return "crawl returned no groups";
+        }
+        if (previous != null && groups.size() < previous.groups().size() * properties.getMinRetainedRatio()) {
+            int confirmations = confirmShrink(universityName, groups);
+            if (confirmations < properties.getShrinkConfirmations()) {
+                return "crawl returned " + groups.size() + " groups, last known good catalog has "
+                        + previous.groups().size() + " (" + confirmations + " of "
+                        + properties.getShrinkConfirmations() + " consistent crawls)";
+            }
+            log.warn("Group catalog for {} shrank from {} to {} groups in {} consistent crawls, accepting it",
+                    universityName, previous.groups().size(), groups.size(), confirmations);
+        }
+        return null;
+    }
+
+    /**
+     * @return Сколько обходов подряд, включая этот, вернули тот же уменьшенный каталог
+     */
+    private int confirmShrink(String universityName, List<GroupData> groups) {
+        Set<String> groupIds = groups.stream().map(GroupData::universityGroupId).collect(Collectors.toSet());
+        return shrunkCatalogs.merge(universityName, new ShrunkCatalog(groupIds, 1),
+                (pending, latest) -> pending.groupIds().equals(latest.groupIds())
+                        ? new ShrunkCatalog(pending.groupIds(), pending.confirmations() + 1)
+                        : latest).confirmations();
+    }
+
+    private boolean isBackingOff(String universityName) {
+        Instant lastFailure = lastFailures.get(universityName);
+        return lastFailure != null && clock.instant().isBefore(lastFailure.plus(properties.getFailureBackoff()));
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+}
@@ -0,0 +1,13 @@
+package com.techstud.schedule_university.fetcher.service;
+
+import com.techstud.schedule_university.fetcher.dto.GroupCatalogDiff;
+
+/**
+ * Получатель изменений каталогов групп
+ *
+ * <p>Вызывается после каждого принятого обхода, в котором каталог изменился</p>
+ */
+public interface GroupCatalogChangeSink {
+
+    void onCatalogChanged(GroupCatalogDiff diff);
+}
@@ -0,0 +1,110 @@
+package com.techstud.schedule_university.fetcher.service;
+
+import com.techstud.schedule_university.fetcher.dto.CatalogWriteStats;
+import com.techstud.schedule_university.fetcher.dto.GroupData;
+import com.techstud.schedule_university.fetcher.entity.CatalogGroup;
+import com.techstud.schedule_university.fetcher.repository.CatalogGroupRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.ToIntFunction;
+
+/**
+ * Хранилище каталогов групп в схеме fetcher
+ *
+ * <p>Результат обхода записывается разницей с сохранённым каталогом: новые группы
+ * вставляются пачками, у оставшихся одним запросом обновляется {@code lastSeen},
+ * пропавшие помечаются удалёнными. Всё выполняется в одной транзакции.</p>
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class GroupCatalogStore {
+
+    private static final int ID_CHUNK_SIZE = 1000;
+
+    private final CatalogGroupRepository catalogGroupRepository;
+
+    /**
+     * Загружает сохранённый каталог без удалённых групп
+     */
+    @Transactional(readOnly = true)
+    public List<CatalogGroup> loadCatalog(String universityName) {
+        return catalogGroupRepository.findByUniversityAndDeletedAtIsNull(universityName);
+    }
+
+    /**
+     * Записывает результат обхода
+     *
+     * @param universityName Название университета
+     * @param groups Группы, найденные обходом
+     * @param seenAt Время обхода
+     * @return Число вставленных, обновлённых и удалённых строк
+     */
+    @Transactional
+    public CatalogWriteStats applyCrawl(String universityName, List<GroupData> groups, Instant seenAt) {
+        Map<String, CatalogGroup> stored = new HashMap<>();
+        for (CatalogGroup group : catalogGroupRepository.findByUniversity(universityName)) {
+            stored.put(group.getUniversityGroupId(), group);
+        }
+
+        Map<String, GroupData> crawled = new LinkedHashMap<>();
+        for (GroupData group : groups) {
+            crawled.putIfAbsent(group.universityGroupId(), group);
+        }
+
+        List<CatalogGroup> inserted = new ArrayList<>();
+        List<Long> restored = new ArrayList<>();
+        int renamed = 0;
+        for (GroupData group : crawled.values()) {
+            CatalogGroup existing = stored.get(group.universityGroupId());
+            if (existing == null) {
+                inserted.add(CatalogGroup.builder()
+                        .university(universityName)
+                        .groupCode(group.groupCode())
+                        .universityGroupId(group.universityGroupId())
+                        .firstSeen(seenAt)
+                        .lastSeen(seenAt)
+                        .build());
+                continue;
+            }
+            if (existing.getDeletedAt() != null) {
+                restored.add(existing.getId());
+            }
+            if (!Objects.equals(existing.getGroupCode(), group.groupCode())) {
+                existing.setGroupCode(group.groupCode());
+                renamed++;
+            }
+        }
+
+        List<Long> deleted = stored.values().stream()
+                .filter(group -> group.getDeletedAt() == null && !crawled.containsKey(group.getUniversityGroupId()))
+                .map(CatalogGroup::getId)
+                .toList();
+
+        forEachChunk(deleted, chunk -> catalogGroupRepository.softDelete(chunk, seenAt));
+        forEachChunk(restored, catalogGroupRepository::restore);
+        int touched = catalogGroupRepository.touchActive(universityName, seenAt);
+        catalogGroupRepository.saveAll(inserted);
+
+        CatalogWriteStats stats = new CatalogWriteStats(inserted.size(), touched, renamed, restored.size(),
+                deleted.size());
+        log.info("Group catalog for {} saved: {}", universityName, stats);
+        return stats;
+    }
+
+    private static void forEachChunk(List<Long> ids, ToIntFunction<List<Long>> update) {
+        for (int from = 0; from < ids.size(); from += ID_CHUNK_SIZE) {
+            update.applyAsInt(ids.subList(from, Math.min(from + ID_CHUNK_SIZE, ids.size())));
+        }
+    }
+}
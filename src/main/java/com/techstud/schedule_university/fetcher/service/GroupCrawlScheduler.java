@@ -0,0 +1,188 @@
+package com.techstud.schedule_university.fetcher.service;
+
+import com.techstud.schedule_university.fetcher.config.CrawlScheduleProperties;
+import com.techstud.schedule_university.fetcher.config.CrawlScheduleProperties.UniversitySchedule;
+import com.techstud.schedule_university.fetcher.dto.CrawlScheduleStatus;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.support.CronExpression;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Плановый обход всех зарегистрированных фетчеров
+ *
+ * <p>У каждого университета своё cron расписание в его часовом поясе. Чтобы обходы не
+ * начинались одновременно, университет получает постоянный сдвиг по своему месту в
+ * списке и случайный сдвиг на каждый запуск. Следующий запуск планируется после
+ * завершения текущего, поэтому обходы одного университета не накладываются.</p>
+ *
+ * <p>Незадолго до запуска фетчер прогревает соединения к сайту университета, чтобы
+ * обход не тратил время на TCP и TLS рукопожатия.</p>
+ */
+@Component
+@Slf4j
+public class GroupCrawlScheduler {
+
+    private final GroupFetchServiceFactory groupFetchServiceFactory;
+    private final GroupCatalogCache groupCatalogCache;
+    private final TaskScheduler taskScheduler;
+    private final CrawlScheduleProperties properties;
+    private final Clock clock;
+    private final Map<String, ScheduleState> states = new ConcurrentHashMap<>();
+
+    @Autowired
+    public GroupCrawlScheduler(GroupFetchServiceFactory groupFetchServiceFactory, GroupCatalogCache groupCatalogCache,
+                               TaskScheduler taskScheduler, CrawlScheduleProperties properties) {
+        this(groupFetchServiceFactory, groupCatalogCache, taskScheduler, properties, Clock.systemUTC());
+    }
+
+    public GroupCrawlScheduler(GroupFetchServiceFactory groupFetchServiceFactory, GroupCatalogCache groupCatalogCache,
+                               TaskScheduler taskScheduler, CrawlScheduleProperties properties, Clock clock) {
+        this.groupFetchServiceFactory = groupFetchServiceFactory;
+        this.groupCatalogCache = groupCatalogCache;
+        this.taskScheduler = taskScheduler;
+        this.properties = properties;
+        this.clock = clock;
+    }
+
+    /**
+     * Планирует первый запуск для каждого университета
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!properties.isEnabled()) {
+            log.info("Scheduled crawls are disabled");
+            return;
+        }
+
+        List<String> universities = groupFetchServiceFactory.getUniversityNames();
+        for (int slot = 0; slot < universities.size(); slot++) {
+            String universityName = universities.get(slot);
+            UniversitySchedule schedule = properties.getUniversities().get(universityName);
+            if (schedule != null && !schedule.isEnabled()) {
+                log.info("Scheduled crawls for {} are disabled", universityName);
+                continue;
+            }
+
+            String cron = schedule != null && schedule.getCron() != null ? schedule.getCron() : properties.getDefaultCron();
+            ZoneId zone = schedule != null && schedule.getZone() != null ? schedule.getZone() : properties.getDefaultZone();
+            Duration jitter = schedule != null && schedule.getJitter() != null
+                    ? schedule.getJitter()
+                    : properties.getDefaultJitter();
+            ScheduleState state = new ScheduleState(universityName, CronExpression.parse(cron), cron, zone,
+                    properties.getStagger().multipliedBy(slot), jitter);
+            states.put(universityName, state);
+            scheduleNext(state);
+        }
+    }
+
+    /**
+     * @return Расписание и результат последнего запуска по каждому университету
+     */
+    public Map<String, CrawlScheduleStatus> getStatuses() {
+        Map<String, CrawlScheduleStatus> statuses = new TreeMap<>();
+        states.forEach((universityName, state) -> statuses.put(universityName, state.toStatus()));
+        return statuses;
+    }
+
+    private void scheduleNext(ScheduleState state) {
+        ZonedDateTime next = state.cron.next(ZonedDateTime.ofInstant(clock.instant(), state.zone));
+        if (next == null) {
+            log.warn("Cron expression {} for {} has no next run", state.cronText, state.universityName);
+            state.nextRun = null;
+            return;
+        }
+
+        long jitterMillis = state.jitter.toMillis() > 0
+                ? ThreadLocalRandom.current().nextLong(state.jitter.toMillis())
+                : 0;
+        Instant runAt = next.toInstant().plus(state.offset).plusMillis(jitterMillis);
+        state.nextRun = runAt;
+        taskScheduler.schedule(() -> run(state), runAt);
+        Instant warmUpAt = runAt.minus(properties.getWarmUpLead());
+        if (properties.getWarmUpLead().isPositive() && warmUpAt.isAfter(clock.instant())) {
+            taskScheduler.schedule(() -> warmUp(state), warmUpAt);
+        }
+        log.debug("Next crawl of {} scheduled at {}", state.universityName, runAt);
+    }
+
+    private void warmUp(ScheduleState state) {
+        // Прогрев ждёт ответов, поэтому не занимает поток планировщика
+        Thread.ofVirtual().name("warm-up-" + state.universityName).start(() -> {
+            try {
+                groupFetchServiceFactory.getGroupFetcherService(state.universityName).warmUp();
+            } catch (RuntimeException e) {
+                log.warn("Warm-up before crawl of {} failed: {}", state.universityName, e.getMessage());
+            }
+        });
+    }
+
+    private void run(ScheduleState state) {
+        state.lastRunStarted = clock.instant();
+        state.nextRun = null;
+        log.info("Scheduled crawl of {} started", state.universityName);
+
+        try {
+            groupCatalogCache.refresh(state.universityName).whenComplete((groups, e) -> {
+                state.lastRunFinished = clock.instant();
+                if (e != null) {
+                    state.lastRunOutcome = "FAILED";
+                    state.lastRunGroups = null;
+                    log.error("Scheduled crawl of {} failed: {}", state.universityName, e.getMessage());
+                } else {
+                    state.lastRunOutcome = "OK";
+                    state.lastRunGroups = groups.size();
+                }
+                scheduleNext(state);
+            });
+        } catch (RuntimeException e) {
+            state.lastRunFinished = clock.instant();
+            state.lastRunOutcome = "FAILED";
+            log.error("Scheduled crawl of {} could not be started: {}", state.universityName, e.getMessage());
+            scheduleNext(state);
+        }
+    }
+
+    private static final class ScheduleState {
+        private final String universityName;
+        private final CronExpression cron;
+        private final String cronText;
+        private final ZoneId zone;
+        private final Duration offset;
+        private final Duration jitter;
+        private volatile Instant nextRun;
+        private volatile Instant lastRunStarted;
+        private volatile Instant lastRunFinished;
+        private volatile String lastRunOutcome;
+        private volatile Integer lastRunGroups;
+
+        private ScheduleState(String universityName, CronExpression cron, String cronText, ZoneId zone,
+                              Duration offset, Duration jitter) {
+            this.universityName = universityName;
+            this.cron = cron;
+            this.cronText = cronText;
+            this.zone = zone;
+            this.offset = offset;
+            this.jitter = jitter;
+        }
+
+        private CrawlScheduleStatus toStatus() {
+            return new CrawlScheduleStatus(cronText, zone.getId(), nextRun, lastRunStarted, lastRunFinished,
+                    lastRunOutcome, lastRunGroups);
+        }
+    }
+}
@@ -1,31 +1,76 @@
 package com.techstud.schedule_university.fetcher.service;
 
 import com.techstud.schedule_university.fetcher.dto.GroupData;
+import com.techstud.schedule_university.fetcher.util.FetcherMetrics;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
 
-import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
 
+/**
+ * Запуск обходов университетов
+ *
+ * <p>Каждый вызов обходит сайт университета, ошибка обхода доставляется в future.
+ * Для чтения каталога групп используется {@link GroupCatalogCache}. Длительность обхода
+ * и число найденных групп учитываются в {@link FetcherMetrics}.</p>
+ */
 @Component
 @Slf4j
 @RequiredArgsConstructor
 public class GroupFetchServiceFacade {
 
     private final GroupFetchServiceFactory groupFetchServiceFactory;
+    private final UniversityCrawlExecutor crawlExecutor;
+    private final InFlightCrawlRegistry inFlightCrawlRegistry;
+    private final FetcherMetrics fetcherMetrics;
 
-    @Async
     public CompletableFuture<List<GroupData>> asyncParseGroups(String universityName) {
         log.info("Received task for fetching groups for university: {}", universityName);
-        return CompletableFuture.supplyAsync(() -> {
+        return inFlightCrawlRegistry.join(universityName, () -> crawlExecutor.submit(universityName, () -> {
             try {
-                return groupFetchServiceFactory.getGroupFetcherService(universityName).fetchGroupsData();
-            } catch (Exception e) {
+                return fetcherMetrics.recordCrawl(universityName,
+                        () -> groupFetchServiceFactory.getGroupFetcherService(universityName).fetchGroupsData());
+            } catch (RuntimeException e) {
                 log.error("Error while fetching groups", e);
-                return Collections.emptyList();
+                throw e;
+            }
+        }));
+    }
+
+    /**
+     * Обходит университет, передавая группы получателю по мере их нахождения
+     *
+     * <p>Получатель вызывается в потоке обхода, а фетчеры запрашивают новые страницы по
+     * мере того, как он забирает прежние, поэтому медленный получатель замедляет обход, а
+     * не копит группы в памяти. Такой обход не присоединяется к уже идущему обходу того же
+     * университета, не обновляет каталог и занимает отдельный слот, не задерживая обходы
+     * каталога.</p>
+     *
+     * @param universityName Название университета
+     * @param sink Получатель групп
+     * @return Future с числом переданных групп
+     * @throws IllegalArgumentException Если для университета нет фетчера
+     */
+    public CompletableFuture<Long> streamGroups(String universityName, Consumer<GroupData> sink) {
+        log.info("Received task for streaming groups for university: {}", universityName);
+        GroupFetcherService groupFetcherService = groupFetchServiceFactory.getGroupFetcherService(universityName);
+        return crawlExecutor.submitStream(universityName, () -> {
+            try {
+                return fetcherMetrics.recordStreamedCrawl(universityName, () -> {
+                    LongAdder groups = new LongAdder();
+                    groupFetcherService.fetchGroupsData(groupData -> {
+                        sink.accept(groupData);
+                        groups.increment();
+                    });
+                    return groups.sum();
+                });
+            } catch (RuntimeException e) {
+                log.error("Error while streaming groups", e);
+                throw e;
             }
         });
     }
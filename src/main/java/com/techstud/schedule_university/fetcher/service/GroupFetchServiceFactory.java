@@ -5,6 +5,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
 import java.util.Map;
 
 @Component
@@ -12,6 +13,8 @@ import java.util.Map;
 @Slf4j
 public class GroupFetchServiceFactory {
 
+    private static final String FETCHER_BEAN_SUFFIX = "_GROUP_FETCHER";
+
     private final Map<String, GroupFetcherService> groupFetcherServiceMap;
 
     @PostConstruct
@@ -20,10 +23,21 @@ public class GroupFetchServiceFactory {
     }
 
     public GroupFetcherService getGroupFetcherService(String universityName) {
-        GroupFetcherService groupFetcherService = groupFetcherServiceMap.get(universityName + "_GROUP_FETCHER");
+        GroupFetcherService groupFetcherService = groupFetcherServiceMap.get(universityName + FETCHER_BEAN_SUFFIX);
         if (groupFetcherService == null) {
             throw new IllegalArgumentException("GroupFetcherService for university " + universityName + " not found");
         }
         return groupFetcherService;
     }
+
+    /**
+     * @return Названия университетов, для которых зарегистрирован фетчер
+     */
+    public List<String> getUniversityNames() {
+        return groupFetcherServiceMap.keySet().stream()
+                .filter(beanName -> beanName.endsWith(FETCHER_BEAN_SUFFIX))
+                .map(beanName -> beanName.substring(0, beanName.length() - FETCHER_BEAN_SUFFIX.length()))
+                .sorted()
+                .toList();
+    }
 }
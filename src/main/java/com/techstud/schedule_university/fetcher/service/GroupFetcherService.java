@@ -3,9 +3,32 @@ package com.techstud.schedule_university.fetcher.service;
 import com.techstud.schedule_university.fetcher.dto.GroupData;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface GroupFetcherService {
 
     List<GroupData> fetchGroupsData();
 
+    /**
+     * Обходит университет, передавая группы получателю по мере их нахождения
+     *
+     * <p>По умолчанию группы передаются после завершения обхода. Фетчеры, обходящие
+     * несколько страниц, передают группы каждой страницы сразу после её разбора, без
+     * сортировки и без накопления всего списка.</p>
+     *
+     * <p>Ошибка обхода пробрасывается. Если исключение бросил получатель, обход
+     * отменяется, а исключение пробрасывается дальше.</p>
+     *
+     * @param sink Получатель, вызывается в потоке обхода
+     */
+    default void fetchGroupsData(Consumer<GroupData> sink) {
+        fetchGroupsData().forEach(sink);
+    }
+
+    /**
+     * Заранее открывает соединения к сайту университета перед плановым обходом
+     */
+    default void warmUp() {
+    }
+
 }
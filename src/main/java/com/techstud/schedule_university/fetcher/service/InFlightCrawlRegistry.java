@@ -0,0 +1,67 @@
+package com.techstud.schedule_university.fetcher.service;
+
+import com.techstud.schedule_university.fetcher.dto.GroupData;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Реестр выполняющихся обходов
+ *
+ * <p>Пока обход университета выполняется, последующие вызовы присоединяются к нему
+ * вместо запуска нового обхода. Семантика:</p>
+ * <ul>
+ *     <li>каждый вызывающий получает собственную копию future, отмена копии отсоединяет
+ *     только этого вызывающего, общий обход продолжается;</li>
+ *     <li>ошибка обхода доставляется всем присоединившимся;</li>
+ *     <li>запись удаляется до завершения future, поэтому вызов после завершения
+ *     запускает новый обход.</li>
+ * </ul>
+ */
+@Component
+@Slf4j
+public class InFlightCrawlRegistry {
+
+    private final Map<String, CompletableFuture<List<GroupData>>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Присоединяется к выполняющемуся обходу или запускает новый
+     *
+     * @param universityName Название университета
+     * @param crawlStarter Запуск обхода, вызывается только если обход ещё не выполняется
+     * @return Копия общего future обхода
+     */
+    public CompletableFuture<List<GroupData>> join(String universityName,
+                                                   Supplier<CompletableFuture<List<GroupData>>> crawlStarter) {
+        CompletableFuture<List<GroupData>> shared = new CompletableFuture<>();
+        CompletableFuture<List<GroupData>> existing = inFlight.putIfAbsent(universityName, shared);
+        if (existing != null) {
+            log.info("Crawl for university {} is already running, attaching to it", universityName);
+            return existing.copy();
+        }
+
+        try {
+            crawlStarter.get().whenComplete((groups, e) -> {
+                inFlight.remove(universityName, shared);
+                if (e != null) {
+                    shared.completeExceptionally(e);
+                } else {
+                    shared.complete(groups);
+                }
+            });
+        } catch (RuntimeException e) {
+            inFlight.remove(universityName, shared);
+            shared.completeExceptionally(e);
+        }
+        return shared.copy();
+    }
+
+    public boolean isInFlight(String universityName) {
+        return inFlight.containsKey(universityName);
+    }
+}
@@ -0,0 +1,149 @@
+package com.techstud.schedule_university.fetcher.service;
+
+import com.techstud.schedule_university.fetcher.config.FetcherExecutionProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Исполнитель обходов университетов
+ *
+ * <p>Каждый обход выполняется в собственном виртуальном потоке, поэтому блокирующий
+ * обход не занимает ни пул {@code @Async}, ни общий ForkJoinPool. Число одновременных
+ * обходов одного университета ограничено, лишние ждут своей очереди. Потоковые выдачи
+ * занимают отдельные слоты: медленный клиент задерживает только другие выдачи, но не
+ * обходы каталога. Слоты и метрики заводятся только для университетов, у которых есть фетчер.</p>
+ */
+@Component
+@Slf4j
+public class UniversityCrawlExecutor implements DisposableBean {
+
+    private final FetcherExecutionProperties properties;
+    private final GroupFetchServiceFactory groupFetchServiceFactory;
+    private final MeterRegistry meterRegistry;
+    private final ExecutorService executor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("crawl-", 0).factory());
+    private final Map<String, UniversitySlots> slots = new ConcurrentHashMap<>();
+    private final Map<String, UniversitySlots> streamSlots = new ConcurrentHashMap<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger queued = new AtomicInteger();
+
+    public UniversityCrawlExecutor(FetcherExecutionProperties properties,
+                                   GroupFetchServiceFactory groupFetchServiceFactory, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.groupFetchServiceFactory = groupFetchServiceFactory;
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("fetcher.crawls.in_flight", inFlight, AtomicInteger::get)
+                .description("Crawls currently running")
+                .register(meterRegistry);
+        Gauge.builder("fetcher.crawls.queued", queued, AtomicInteger::get)
+                .description("Crawls waiting for a per-university slot")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Запускает обход в виртуальном потоке с учётом лимита университета
+     *
+     * @param universityName Название университета
+     * @param crawl Блокирующий обход
+     * @return Future с результатом обхода
+     * @throws IllegalArgumentException Если для университета нет фетчера
+     */
+    public <T> CompletableFuture<T> submit(String universityName, Supplier<T> crawl) {
+        groupFetchServiceFactory.getGroupFetcherService(universityName);
+        return submit(slots.computeIfAbsent(universityName, name -> createSlots(name, "crawl",
+                properties.getMaxConcurrency().getOrDefault(name, properties.getDefaultMaxConcurrency()))), crawl);
+    }
+
+    /**
+     * Запускает потоковую выдачу в виртуальном потоке в отдельном слоте университета
+     *
+     * @param universityName Название университета
+     * @param stream Блокирующая выдача
+     * @return Future с результатом выдачи
+     * @throws IllegalArgumentException Если для университета нет фетчера
+     */
+    public <T> CompletableFuture<T> submitStream(String universityName, Supplier<T> stream) {
+        groupFetchServiceFactory.getGroupFetcherService(universityName);
+        return submit(streamSlots.computeIfAbsent(universityName, name -> createSlots(name, "stream",
+                properties.getMaxStreamConcurrency())), stream);
+    }
+
+    private <T> CompletableFuture<T> submit(UniversitySlots universitySlots, Supplier<T> crawl) {
+
+        return CompletableFuture.supplyAsync(() -> {
+            universitySlots.queued.incrementAndGet();
+            queued.incrementAndGet();
+            try {
+                universitySlots.semaphore.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CompletionException(e);
+            } finally {
+                universitySlots.queued.decrementAndGet();
+                queued.decrementAndGet();
+            }
+
+            universitySlots.inFlight.incrementAndGet();
+            inFlight.incrementAndGet();
+            try {
+                return crawl.get();
+            } finally {
+                universitySlots.inFlight.decrementAndGet();
+                inFlight.decrementAndGet();
+                universitySlots.semaphore.release();
+            }
+        }, executor);
+    }
+
+    public int getInFlightCrawls() {
+        return inFlight.get();
+    }
+
+    public int getQueuedCrawls() {
+        return queued.get();
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    private UniversitySlots createSlots(String universityName, String kind, int maxConcurrency) {
+        UniversitySlots universitySlots = new UniversitySlots(new Semaphore(maxConcurrency, true));
+
+        Gauge.builder("fetcher.university.crawls.in_flight", universitySlots.inFlight, AtomicInteger::get)
+                .tag("university", universityName)
+                .tag("kind", kind)
+                .register(meterRegistry);
+        Gauge.builder("fetcher.university.crawls.queued", universitySlots.queued, AtomicInteger::get)
+                .tag("university", universityName)
+                .tag("kind", kind)
+                .register(meterRegistry);
+
+        log.debug("{} slots for {} created, max concurrency: {}", kind, universityName, maxConcurrency);
+        return universitySlots;
+    }
+
+    private static final class UniversitySlots {
+        private final Semaphore semaphore;
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicInteger queued = new AtomicInteger();
+
+        private UniversitySlots(Semaphore semaphore) {
+            this.semaphore = semaphore;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.techstud.schedule_university.fetcher.service.impl;
+
+import com.techstud.schedule_university.fetcher.dto.GroupCatalogDiff;
+import com.techstud.schedule_university.fetcher.service.GroupCatalogChangeSink;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * Публикует изменения каталогов как события приложения, слушатели получают {@link GroupCatalogDiff}
+ */
+@Component
+@RequiredArgsConstructor
+public class ApplicationEventCatalogChangeSink implements GroupCatalogChangeSink {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Override
+    public void onCatalogChanged(GroupCatalogDiff diff) {
+        eventPublisher.publishEvent(diff);
+    }
+}
@@ -1,44 +1,62 @@
 package com.techstud.schedule_university.fetcher.service.impl;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.techstud.schedule_university.fetcher.dto.GroupData;
-import com.techstud.schedule_university.fetcher.dto.api.response.BmstuApiGroupDataResponse;
 import com.techstud.schedule_university.fetcher.service.GroupFetcherService;
+import com.techstud.schedule_university.fetcher.util.FetcherHttpTransport;
+import com.techstud.schedule_university.fetcher.util.ResponseBodyDecoder;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.hc.client5.http.classic.methods.HttpGet;
-import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
-import org.apache.hc.client5.http.impl.classic.HttpClients;
 import org.apache.hc.core5.http.Header;
 import org.apache.hc.core5.http.io.HttpClientResponseHandler;
 import org.apache.hc.core5.http.message.BasicHeader;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
-import static com.techstud.schedule_university.fetcher.util.FetcherHttpUtils.createResponseHandler;
+import static com.techstud.schedule_university.fetcher.util.JsonStreamExtractor.createStreamingResponseHandler;
+import static com.techstud.schedule_university.fetcher.util.JsonStreamExtractor.moveToField;
+import static com.techstud.schedule_university.fetcher.util.JsonStreamExtractor.walkTree;
 
 @Service("BMSTU_GROUP_FETCHER")
 @Slf4j
+@RequiredArgsConstructor
 public class BmstuGroupDataFetchService implements GroupFetcherService {
 
+    private static final Set<String> NODE_FIELDS = Set.of("abbr", "uuid", "nodeType");
+    private static final String GROUP_NODE_TYPE = "group";
+
+    private final FetcherHttpTransport httpTransport;
+
+    @Override
+    public void warmUp() {
+        httpTransport.warmUp(List.of("https://lks.bmstu.ru/"));
+    }
+
+    /**
+     * @throws UncheckedIOException Если структура не загрузилась: пустой список вместо каталога не возвращается
+     */
     @Override
     public List<GroupData> fetchGroupsData() {
-        List<GroupData> groupDataList = new ArrayList<>();
         String baseUrl = "https://lks.bmstu.ru/lks-back/api/v1/structure";
 
-        try (CloseableHttpClient httpClient = HttpClients.createDefault()) {
+        try {
             HttpGet httpGet = getHttpGet(baseUrl);
 
-            HttpClientResponseHandler<BmstuApiGroupDataResponse> responseHandler =
-                    createResponseHandler(BmstuApiGroupDataResponse.class, false);
+            HttpClientResponseHandler<List<GroupData>> responseHandler =
+                    createStreamingResponseHandler(BmstuGroupDataFetchService::extractGroups);
 
-            BmstuApiGroupDataResponse apiResponse = httpClient.execute(httpGet, responseHandler);
-
-            groupDataList = mapApiResponseToGroupDataList(apiResponse);
-        } catch (Exception e) {
+            return List.copyOf(httpTransport.executeCached(httpGet, responseHandler));
+        } catch (IOException e) {
             log.error("Error fetching group data", e);
+            throw new UncheckedIOException(e);
         }
-        return groupDataList;
     }
 
     private static HttpGet getHttpGet(String baseUrl) {
@@ -46,7 +64,7 @@ public class BmstuGroupDataFetchService implements GroupFetcherService {
 
         Header[] commonHeaders = {
                 new BasicHeader("Accept", "*/*"),
-                new BasicHeader("Accept-Encoding", "gzip, deflate, br, zstd"),
+                new BasicHeader("Accept-Encoding", ResponseBodyDecoder.ACCEPT_ENCODING),
                 new BasicHeader("Accept-Language", "ru,en;q=0.9"),
                 new BasicHeader("Content-Type", "application/x-www-form-urlencoded; charset=UTF-8"),
                 new BasicHeader("Referer", "https://lks.bmstu.ru/schedule/"),
@@ -64,55 +82,25 @@ public class BmstuGroupDataFetchService implements GroupFetcherService {
         return httpGet;
     }
 
-    private List<GroupData> mapApiResponseToGroupDataList(BmstuApiGroupDataResponse apiResponseData) {
+    /**
+     * Группой считается узел с типом group, а если тип не указан - лист дерева
+     */
+    static List<GroupData> extractGroups(JsonParser parser) throws IOException {
         List<GroupData> groupDataList = new ArrayList<>();
 
-        if (apiResponseData != null && apiResponseData.getData() != null) {
-            BmstuApiGroupDataResponse.BmstuApiResponseData responseData = apiResponseData.getData();
-
-            processLevel1(responseData.getChildren(), groupDataList);
+        if (!moveToField(parser, "data") || parser.currentToken() != JsonToken.START_OBJECT) {
+            log.warn("BMSTU structure response has no data");
+            return groupDataList;
         }
 
-        return groupDataList;
-    }
-
-    private void processLevel1(List<BmstuApiGroupDataResponse.BmstuApiResponseChildrenLevel1> level1Children, List<GroupData> groupDataList) {
-        if (level1Children != null) {
-            for (BmstuApiGroupDataResponse.BmstuApiResponseChildrenLevel1 child : level1Children) {
-                processLevel2(child.getChildren(), groupDataList);
+        walkTree(parser, "children", NODE_FIELDS, (fields, hasChildren) -> {
+            String nodeType = fields.get("nodeType");
+            boolean isGroup = nodeType != null ? GROUP_NODE_TYPE.equalsIgnoreCase(nodeType) : !hasChildren;
+            if (isGroup && fields.containsKey("abbr") && fields.containsKey("uuid")) {
+                groupDataList.add(new GroupData(fields.get("abbr"), fields.get("uuid")));
             }
-        }
-    }
+        });
 
-    private void processLevel2(List<BmstuApiGroupDataResponse.BmstuApiResponseChildrenLevel2> level2Children, List<GroupData> groupDataList) {
-        if (level2Children != null) {
-            for (BmstuApiGroupDataResponse.BmstuApiResponseChildrenLevel2 child : level2Children) {
-                processLevel3(child.getChildren(), groupDataList);
-            }
-        }
-    }
-
-    private void processLevel3(List<BmstuApiGroupDataResponse.BmstuApiResponseChildrenLevel3> level3Children, List<GroupData> groupDataList) {
-        if (level3Children != null) {
-            for (BmstuApiGroupDataResponse.BmstuApiResponseChildrenLevel3 child : level3Children) {
-                processLevel4(child.getChildren(), groupDataList);
-            }
-        }
-    }
-
-    private void processLevel4(List<BmstuApiGroupDataResponse.BmstuApiResponseChildrenLevel4> level4Children, List<GroupData> groupDataList) {
-        if (level4Children != null) {
-            for (BmstuApiGroupDataResponse.BmstuApiResponseChildrenLevel4 child : level4Children) {
-                processLevel5(child.getChildren(), groupDataList);
-            }
-        }
-    }
-
-    private void processLevel5(List<BmstuApiGroupDataResponse.BmstuApiResponseChildrenLevel5> level5Children, List<GroupData> groupDataList) {
-        if (level5Children != null) {
-            for (BmstuApiGroupDataResponse.BmstuApiResponseChildrenLevel5 child : level5Children) {
-                groupDataList.add(new GroupData(child.getAbbr(), child.getUuid()));
-            }
-        }
+        return groupDataList;
     }
 }
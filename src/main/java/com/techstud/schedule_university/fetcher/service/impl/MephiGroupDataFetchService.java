@@ -2,16 +2,15 @@ package com.techstud.schedule_university.fetcher.service.impl;
 
 import com.techstud.schedule_university.fetcher.dto.GroupData;
 import com.techstud.schedule_university.fetcher.service.GroupFetcherService;
+import com.techstud.schedule_university.fetcher.util.FetcherHttpTransport;
+import com.techstud.schedule_university.fetcher.util.ResponseBodyDecoder;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.hc.client5.http.classic.methods.HttpGet;
-import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
-import org.apache.hc.client5.http.impl.classic.HttpClients;
 import org.apache.hc.core5.http.Header;
 import org.apache.hc.core5.http.message.BasicHeader;
-import org.jsoup.Jsoup;
-import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
-import org.jsoup.select.Elements;
+import org.jsoup.select.Evaluator;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
@@ -19,39 +18,39 @@ import java.util.Comparator;
 import java.util.List;
 import java.util.stream.Collectors;
 
-import static com.techstud.schedule_university.fetcher.util.FetcherHttpUtils.createResponseHandler;
+import static com.techstud.schedule_university.fetcher.util.HtmlStreamExtractor.compile;
+import static com.techstud.schedule_university.fetcher.util.HtmlStreamExtractor.createStreamingResponseHandler;
 
 @Service("MEPHI_GROUP_FETCHER")
 @Slf4j
+@RequiredArgsConstructor
 public class MephiGroupDataFetchService implements GroupFetcherService {
 
+    static final Evaluator GROUP_SELECTOR = compile("a.list-group-item");
+
+    private final FetcherHttpTransport httpTransport;
+
+    @Override
+    public void warmUp() {
+        httpTransport.warmUp(List.of("https://home.mephi.ru/"));
+    }
+
     @Override
     public List<GroupData> fetchGroupsData() {
         List<GroupData> groupDataList = new ArrayList<>();
         String baseUrl = "https://home.mephi.ru";
         int[] levels = {0, 1, 2, 3, 4}; // Бакалавр, специалитет, магистратура и т.д.
 
-        try (CloseableHttpClient httpClient = HttpClients.createDefault()) {
+        try {
 
             for (int level : levels) {
                 String levelUrl = baseUrl + "/study_groups?level=" + level + "&organization_id=1&term_id=19";
 
                 HttpGet httpGet = getHttpGet(levelUrl);
 
-                String responseBody = httpClient.execute(httpGet, createResponseHandler(String.class, true));
-
-                Document document = Jsoup.parse(responseBody);
-
-                Elements groups = document.select("a.list-group-item");
-
-                for (Element groupElement : groups) {
-                    String groupCode = groupElement.text();
-
-                    String href = groupElement.attr("href");
-                    String universityGroupId = href.split("/")[2];
-
-                    groupDataList.add(new GroupData(groupCode, universityGroupId));
-                }
+                List<GroupData> groups = httpTransport.executeCached(httpGet,
+                        createStreamingResponseHandler(GROUP_SELECTOR, MephiGroupDataFetchService::toGroup));
+                groupDataList.addAll(groups);
 
                 if (groups.isEmpty()) {
                     log.warn("No groups found for level {}", level);
@@ -68,12 +67,21 @@ public class MephiGroupDataFetchService implements GroupFetcherService {
                 .collect(Collectors.toList());
     }
 
+    static GroupData toGroup(Element groupElement) {
+        String groupCode = groupElement.text();
+
+        String href = groupElement.attr("href");
+        String universityGroupId = href.split("/")[2];
+
+        return new GroupData(groupCode, universityGroupId);
+    }
+
     private static HttpGet getHttpGet(String url) {
         HttpGet httpGet = new HttpGet(url);
 
         List<Header> headers = new ArrayList<>();
         headers.add(new BasicHeader("Accept", "application/json, text/javascript, */*; q=0.01"));
-        headers.add(new BasicHeader("Accept-Encoding", "gzip, deflate, br, zstd"));
+        headers.add(new BasicHeader("Accept-Encoding", ResponseBodyDecoder.ACCEPT_ENCODING));
         headers.add(new BasicHeader("Accept-Language", "ru-RU,ru;q=0.9,en-US;q=0.8,en;q=0.7"));
         headers.add(new BasicHeader("Connection", "keep-alive"));
         headers.add(new BasicHeader("Content-Type", "application/json; charset=UTF-8"));
@@ -2,14 +2,12 @@ package com.techstud.schedule_university.fetcher.service.impl;
 
 import com.techstud.schedule_university.fetcher.dto.GroupData;
 import com.techstud.schedule_university.fetcher.service.GroupFetcherService;
+import com.techstud.schedule_university.fetcher.util.FetcherHttpTransport;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.hc.client5.http.classic.methods.HttpGet;
-import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
-import org.apache.hc.client5.http.impl.classic.HttpClients;
-import org.jsoup.Jsoup;
-import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
-import org.jsoup.select.Elements;
+import org.jsoup.select.Evaluator;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
@@ -17,43 +15,34 @@ import java.util.Comparator;
 import java.util.List;
 import java.util.stream.Collectors;
 
-import static com.techstud.schedule_university.fetcher.util.FetcherHttpUtils.createResponseHandler;
+import static com.techstud.schedule_university.fetcher.util.HtmlStreamExtractor.compile;
+import static com.techstud.schedule_university.fetcher.util.HtmlStreamExtractor.createStreamingResponseHandler;
 
 @Service("MIIT_GROUP_FETCHER")
 @Slf4j
+@RequiredArgsConstructor
 public class MiitGroupDataFetchService implements GroupFetcherService {
 
+    static final Evaluator GROUP_SELECTOR = compile("div.dropdown-menu .dropdown-item");
+
+    private final FetcherHttpTransport httpTransport;
+
+    @Override
+    public void warmUp() {
+        httpTransport.warmUp(List.of("https://www.miit.ru/"));
+    }
+
     @Override
     public List<GroupData> fetchGroupsData() {
         List<GroupData> groupDataList = new ArrayList<>();
         String baseUrl = "https://www.miit.ru/timetable";
 
-        try (CloseableHttpClient httpClient = HttpClients.createDefault()) {
+        try {
 
             HttpGet httpGet = new HttpGet(baseUrl);
 
-            String responseBody = httpClient.execute(httpGet, createResponseHandler(String.class, true));
-            Document document = Jsoup.parse(responseBody);
-
-            Elements groupElements = document.select("div.dropdown-menu .dropdown-item");
-            for (Element groupElement : groupElements) {
-                String href = groupElement.attr("href").trim();
-                String groupCode = groupElement.text().trim();
-
-                if (href.isEmpty() || href.equals("/") || href.contains(".pdf") || groupCode.isEmpty()) {
-                    log.warn("href or group code is empty: {}, {}", href, groupCode);
-                    continue;
-                }
-
-                String universityGroupId = href.startsWith("/timetable/") ? href.replace("/timetable/", "") : href;
-
-                if (!isNumeric(universityGroupId)) {
-                    log.warn("skipping non-numeric university group id: {}", universityGroupId);
-                    continue;
-                }
-
-                groupDataList.add(new GroupData(groupCode, universityGroupId));
-            }
+            groupDataList = httpTransport.executeCached(httpGet,
+                    createStreamingResponseHandler(GROUP_SELECTOR, MiitGroupDataFetchService::toGroup));
 
         } catch (Exception e) {
             log.error("Error fetching group data from MIIT", e);
@@ -64,7 +53,26 @@ public class MiitGroupDataFetchService implements GroupFetcherService {
                 .collect(Collectors.toList());
     }
 
-    private boolean isNumeric(String str) {
+    static GroupData toGroup(Element groupElement) {
+        String href = groupElement.attr("href").trim();
+        String groupCode = groupElement.text().trim();
+
+        if (href.isEmpty() || href.equals("/") || href.contains(".pdf") || groupCode.isEmpty()) {
+            log.warn("href or group code is empty: {}, {}", href, groupCode);
+            return null;
+        }
+
+        String universityGroupId = href.startsWith("/timetable/") ? href.replace("/timetable/", "") : href;
+
+        if (!isNumeric(universityGroupId)) {
+            log.warn("skipping non-numeric university group id: {}", universityGroupId);
+            return null;
+        }
+
+        return new GroupData(groupCode, universityGroupId);
+    }
+
+    private static boolean isNumeric(String str) {
         return str.matches("\\d+");
     }
 }
@@ -2,81 +2,99 @@ package com.techstud.schedule_university.fetcher.service.impl;
 
 import com.techstud.schedule_university.fetcher.dto.GroupData;
 import com.techstud.schedule_university.fetcher.service.GroupFetcherService;
+import com.techstud.schedule_university.fetcher.util.FetcherAsyncHttpEngine;
+import com.techstud.schedule_university.fetcher.util.PageStream;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.hc.client5.http.classic.methods.HttpGet;
-import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
-import org.apache.hc.client5.http.impl.classic.HttpClients;
-import org.jsoup.Jsoup;
-import org.jsoup.nodes.Document;
+import org.apache.hc.client5.http.async.methods.SimpleRequestBuilder;
 import org.jsoup.nodes.Element;
-import org.jsoup.select.Elements;
+import org.jsoup.select.Evaluator;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
-import static com.techstud.schedule_university.fetcher.util.FetcherHttpUtils.createResponseHandler;
+import static com.techstud.schedule_university.fetcher.util.HtmlStreamExtractor.compile;
 
 @Service("NSU_GROUP_FETCHER")
 @Slf4j
+@RequiredArgsConstructor
 public class NsuGroupDataFetchService implements GroupFetcherService {
 
-    @Override
-    public List<GroupData> fetchGroupsData() {
-        List<GroupData> groupDataList = new ArrayList<>();
-        Set<String> seenGroupIds = new HashSet<>();
-        String baseUrl = "https://table.nsu.ru/faculties";
+    private static final Evaluator FACULTY_SELECTOR = compile("a.faculty");
+    static final Evaluator GROUP_SELECTOR = compile("a.group");
 
-        try (CloseableHttpClient httpClient = HttpClients.createDefault()) {
-            HttpGet httpGet = new HttpGet(baseUrl);
+    private final FetcherAsyncHttpEngine httpEngine;
 
-            String responseBody = httpClient.execute(httpGet, createResponseHandler(String.class, true));
-            Document document = Jsoup.parse(responseBody);
+    @Override
+    public void warmUp() {
+        httpEngine.warmUp(List.of("https://table.nsu.ru/"));
+    }
 
-            Elements faculties = document.select("a.faculty");
-            for (Element faculty : faculties) {
-                String facultyLink = faculty.attr("href");
-                if (!facultyLink.isEmpty()) {
-                    parseFacultyGroups(httpClient, facultyLink, groupDataList, seenGroupIds);
-                }
-            }
+    /**
+     * @throws CompletionException Если страница не загрузилась: неполный список групп не возвращается
+     */
+    @Override
+    public List<GroupData> fetchGroupsData() {
+        List<GroupData> groupDataList = new ArrayList<>();
 
-        } catch (Exception e) {
-            log.error("Error processing pattern {}", e.getMessage());
-        }
+        fetchGroupsData(groupDataList::add);
 
         return groupDataList.stream()
                 .sorted(Comparator.comparing(GroupData::universityGroupId))
                 .collect(Collectors.toList());
     }
 
-    private void parseFacultyGroups(CloseableHttpClient httpClient, String facultyLink,
-                                    List<GroupData> groupDataList, Set<String> seenGroupIds) {
-        String facultyUrl = "https://table.nsu.ru" + facultyLink;
+    @Override
+    public void fetchGroupsData(Consumer<GroupData> sink) {
+        PageStream<GroupData> pages = new PageStream<>();
+        Set<String> seenGroupIds = new HashSet<>();
 
-        try {
-            HttpGet httpGet = new HttpGet(facultyUrl);
+        pages.drain(crawl(pages), groupData -> {
+            if (seenGroupIds.add(groupData.universityGroupId())) {
+                sink.accept(groupData);
+            }
+        });
+    }
 
-            String responseBody = httpClient.execute(httpGet, createResponseHandler(String.class, true));
-            Document document = Jsoup.parse(responseBody);
+    /**
+     * Обходит факультеты
+     *
+     * @param pages Получает группы каждой страницы факультета сразу после её разбора
+     */
+    private CompletableFuture<Void> crawl(PageStream<GroupData> pages) {
+        String baseUrl = "https://table.nsu.ru/faculties";
 
-            Elements groups = document.select("a.group");
-            for (Element group : groups) {
-                String groupCode = group.text().trim();
-                String groupHref = group.attr("href").trim();
+        return httpEngine.executeHtml(SimpleRequestBuilder.get(baseUrl).build(), FACULTY_SELECTOR,
+                        faculty -> faculty.attr("href").isEmpty() ? null : faculty.attr("href"))
+                .thenCompose(facultyLinks -> CompletableFuture.allOf(facultyLinks.stream()
+                        .map(facultyLink -> parseFacultyGroups(facultyLink, pages))
+                        .toArray(CompletableFuture[]::new)));
+    }
 
-                if (!groupCode.isEmpty() && groupHref.startsWith("/group/")) {
-                    String universityGroupId = groupHref.replace("/group/", "");
+    private CompletableFuture<Void> parseFacultyGroups(String facultyLink, PageStream<GroupData> pages) {
+        String facultyUrl = "https://table.nsu.ru" + facultyLink;
 
-                    if (seenGroupIds.add(universityGroupId)) {
-                        groupDataList.add(new GroupData(groupCode, universityGroupId));
+        return pages.page(() -> httpEngine.executeHtml(SimpleRequestBuilder.get(facultyUrl).build(), GROUP_SELECTOR,
+                        NsuGroupDataFetchService::toGroup))
+                .whenComplete((groups, e) -> {
+                    if (e != null && !pages.isCancelled()) {
+                        log.error("Error fetching group data from NSU", e);
                     }
-                }
-            }
+                })
+                .thenApply(groups -> null);
+    }
 
-        } catch (Exception e) {
-            log.error("Error fetching group data from NSU", e);
-        }
+    static GroupData toGroup(Element group) {
+        String groupCode = group.text().trim();
+        String groupHref = group.attr("href").trim();
 
+        if (groupCode.isEmpty() || !groupHref.startsWith("/group/")) {
+            return null;
+        }
+        return new GroupData(groupCode, groupHref.replace("/group/", ""));
     }
 }
@@ -2,14 +2,12 @@ package com.techstud.schedule_university.fetcher.service.impl;
 
 import com.techstud.schedule_university.fetcher.dto.GroupData;
 import com.techstud.schedule_university.fetcher.service.GroupFetcherService;
+import com.techstud.schedule_university.fetcher.util.FetcherHttpTransport;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.hc.client5.http.classic.methods.HttpGet;
-import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
-import org.apache.hc.client5.http.impl.classic.HttpClients;
-import org.jsoup.Jsoup;
-import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
-import org.jsoup.select.Elements;
+import org.jsoup.select.Evaluator;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
@@ -17,32 +15,33 @@ import java.util.Comparator;
 import java.util.List;
 import java.util.stream.Collectors;
 
-import static com.techstud.schedule_university.fetcher.util.FetcherHttpUtils.createResponseHandler;
+import static com.techstud.schedule_university.fetcher.util.HtmlStreamExtractor.compile;
+import static com.techstud.schedule_university.fetcher.util.HtmlStreamExtractor.createStreamingResponseHandler;
 
 @Service("PGUPS_GROUP_FETCHER")
 @Slf4j
+@RequiredArgsConstructor
 public class PgupsGroupDataFetchService implements GroupFetcherService {
 
+    static final Evaluator GROUP_SELECTOR = compile("a.btn.btn-sm.btn");
+
+    private final FetcherHttpTransport httpTransport;
+
+    @Override
+    public void warmUp() {
+        httpTransport.warmUp(List.of("https://rasp.pgups.ru/"));
+    }
+
     @Override
     public List<GroupData> fetchGroupsData() {
         List<GroupData> groupDataList = new ArrayList<>();
         String baseUrl = "https://rasp.pgups.ru/schedule/group";
 
-        try (CloseableHttpClient httpClient = HttpClients.createDefault()) {
+        try {
             HttpGet httpGet = new HttpGet(baseUrl);
 
-            String responseBody = httpClient.execute(httpGet, createResponseHandler(String.class, true));
-            Document document = Jsoup.parse(responseBody);
-
-            Elements elements = document.select("a.btn.btn-sm.btn");
-            for (Element element : elements) {
-                String groupId = element.text();
-                String href = element.attr("href");
-
-                String universityGroupId = href.replace("https://rasp.pgups.ru/schedule/group/", "");
-
-                groupDataList.add(new GroupData(groupId, universityGroupId));
-            }
+            groupDataList = httpTransport.executeCached(httpGet,
+                    createStreamingResponseHandler(GROUP_SELECTOR, PgupsGroupDataFetchService::toGroup));
 
             groupDataList = groupDataList.stream()
                     .filter(this::isValidGroup)
@@ -60,6 +59,15 @@ public class PgupsGroupDataFetchService implements GroupFetcherService {
                 .collect(Collectors.toList());
     }
 
+    static GroupData toGroup(Element element) {
+        String groupId = element.text();
+        String href = element.attr("href");
+
+        String universityGroupId = href.replace("https://rasp.pgups.ru/schedule/group/", "");
+
+        return new GroupData(groupId, universityGroupId);
+    }
+
     private boolean isValidGroup(GroupData group) {
         if (!group.universityGroupId().matches("\\d+")) {
             log.warn("Filtered out non-numeric group: {}", group);
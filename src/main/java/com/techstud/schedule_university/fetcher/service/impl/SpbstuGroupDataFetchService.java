@@ -2,73 +2,94 @@ package com.techstud.schedule_university.fetcher.service.impl;
 
 import com.techstud.schedule_university.fetcher.dto.GroupData;
 import com.techstud.schedule_university.fetcher.service.GroupFetcherService;
+import com.techstud.schedule_university.fetcher.util.FetcherAsyncHttpEngine;
+import com.techstud.schedule_university.fetcher.util.PageStream;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.hc.client5.http.classic.methods.HttpGet;
-import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
-import org.apache.hc.client5.http.impl.classic.HttpClients;
-import org.jsoup.Jsoup;
-import org.jsoup.nodes.Document;
+import org.apache.hc.client5.http.async.methods.SimpleRequestBuilder;
 import org.jsoup.nodes.Element;
-import org.jsoup.select.Elements;
+import org.jsoup.select.Evaluator;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
-import static com.techstud.schedule_university.fetcher.util.FetcherHttpUtils.createResponseHandler;
+import static com.techstud.schedule_university.fetcher.util.HtmlStreamExtractor.compile;
 
 @Service("SPBSTU_GROUP_FETCHER")
 @Slf4j
+@RequiredArgsConstructor
 public class SpbstuGroupDataFetchService implements GroupFetcherService {
 
-    @Override
-    public List<GroupData> fetchGroupsData() {
-        List<GroupData> groupDataList = new ArrayList<>();
-        String baseUrl = "https://ruz.spbstu.ru";
+    private static final Evaluator FACULTY_SELECTOR = compile("li.faculty-list__item > a.faculty-list__link");
+    static final Evaluator GROUP_SELECTOR = compile("li.groups-list__item > a.groups-list__link");
 
-        try (CloseableHttpClient httpClient = HttpClients.createDefault()) {
-            HttpGet httpGet = new HttpGet(baseUrl);
+    private final FetcherAsyncHttpEngine httpEngine;
 
-            String responseBody = httpClient.execute(httpGet, createResponseHandler(String.class, true));
-            Document document = Jsoup.parse(responseBody);
+    @Override
+    public void warmUp() {
+        httpEngine.warmUp(List.of("https://ruz.spbstu.ru/"));
+    }
 
-            Elements faculties = document.select("li.faculty-list__item > a.faculty-list__link");
-            for (Element faculty : faculties) {
-                String facultyLink = faculty.attr("href");
-                parseFacultyGroups(httpClient, facultyLink, groupDataList);
-            }
+    /**
+     * @throws CompletionException Если страница не загрузилась: неполный список групп не возвращается
+     */
+    @Override
+    public List<GroupData> fetchGroupsData() {
+        List<GroupData> groupDataList = new ArrayList<>();
 
-        } catch (Exception e) {
-            log.error(e.getMessage());
-        }
+        fetchGroupsData(groupDataList::add);
 
         return groupDataList.stream()
                 .sorted(Comparator.comparing(GroupData::universityGroupId))
                 .collect(Collectors.toList());
     }
 
-    private void parseFacultyGroups(CloseableHttpClient httpClient, String facultyLink, List<GroupData> groupDataList) {
-        String facultyUrl = "https://ruz.spbstu.ru" + facultyLink;
+    @Override
+    public void fetchGroupsData(Consumer<GroupData> sink) {
+        PageStream<GroupData> pages = new PageStream<>();
 
-        try {
-            HttpGet httpGet = new HttpGet(facultyUrl);
+        pages.drain(crawl(pages), sink);
+    }
 
-            String responseBody = httpClient.execute(httpGet, createResponseHandler(String.class, true));
-            Document document = Jsoup.parse(responseBody);
+    /**
+     * Обходит факультеты
+     *
+     * @param pages Получает группы каждой страницы факультета сразу после её разбора
+     */
+    private CompletableFuture<Void> crawl(PageStream<GroupData> pages) {
+        String baseUrl = "https://ruz.spbstu.ru";
 
-            Elements elements = document.select("li.groups-list__item > a.groups-list__link");
-            for (Element element : elements) {
-                String href = element.attr("href");
-                String groupId = element.text();
-                String universityGroupId = href.replace(facultyLink + "/", "");
+        return httpEngine.executeHtml(SimpleRequestBuilder.get(baseUrl).build(), FACULTY_SELECTOR,
+                        faculty -> faculty.attr("href"))
+                .thenCompose(facultyLinks -> CompletableFuture.allOf(facultyLinks.stream()
+                        .map(facultyLink -> parseFacultyGroups(facultyLink, pages))
+                        .toArray(CompletableFuture[]::new)));
+    }
+
+    private CompletableFuture<Void> parseFacultyGroups(String facultyLink, PageStream<GroupData> pages) {
+        String facultyUrl = "https://ruz.spbstu.ru" + facultyLink;
+
+        return pages.page(() -> httpEngine.executeHtml(SimpleRequestBuilder.get(facultyUrl).build(), GROUP_SELECTOR,
+                        element -> toGroup(element, facultyLink)))
+                .whenComplete((groups, e) -> {
+                    if (e != null && !pages.isCancelled()) {
+                        log.error(e.getMessage());
+                    }
+                })
+                .thenApply(groups -> null);
+    }
 
-                groupDataList.add(new GroupData(groupId, universityGroupId));
-            }
+    static GroupData toGroup(Element element, String facultyLink) {
+        String href = element.attr("href");
+        String groupId = element.text();
+        String universityGroupId = href.replace(facultyLink + "/", "");
 
-        } catch (Exception e) {
-            log.error(e.getMessage());
-        }
+        return new GroupData(groupId, universityGroupId);
     }
 }
@@ -0,0 +1,161 @@
+package com.techstud.schedule_university.fetcher.service.impl;
+
+import com.techstud.schedule_university.fetcher.config.SsauFetcherProperties;
+import com.techstud.schedule_university.fetcher.exception.ResponseTooLargeException;
+import com.techstud.schedule_university.fetcher.exception.UnexpectedResponseStatusException;
+import com.techstud.schedule_university.fetcher.util.FetcherHttpTransport;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.classic.methods.HttpGet;
+import org.apache.hc.core5.http.ClassicHttpResponse;
+import org.apache.hc.core5.http.Header;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Element;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpCookie;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * Менеджер сессии СГАУ
+ *
+ * <p>CSRF-токен и куки берутся из одного ответа главной страницы и переиспользуются
+ * всеми поисковыми запросами и обходами, пока сессия не истечёт. Сессия обновляется
+ * заранее, за {@code sessionRenewBefore} до истечения, и по ответу 419/403 через
+ * {@link #invalidate(SsauSession)}.</p>
+ */
+@Component
+@Slf4j
+public class SsauSessionManager {
+
+    public static final String BASE_URL = "https://ssau.ru";
+
+    private final FetcherHttpTransport httpTransport;
+    private final SsauFetcherProperties properties;
+    private final Clock clock;
+    private final ReentrantLock renewLock = new ReentrantLock();
+    private volatile SsauSession session;
+
+    @Autowired
+    public SsauSessionManager(FetcherHttpTransport httpTransport, SsauFetcherProperties properties) {
+        this(httpTransport, properties, Clock.systemUTC());
+    }
+
+    public SsauSessionManager(FetcherHttpTransport httpTransport, SsauFetcherProperties properties, Clock clock) {
+        this.httpTransport = httpTransport;
+        this.properties = properties;
+        this.clock = clock;
+    }
+
+    public record SsauSession(String csrfToken, String cookies, Instant expiresAt) {
+    }
+
+    /**
+     * Возвращает действующую сессию, при необходимости открывая новую
+     */
+    public SsauSession getSession() throws IOException {
+        SsauSession current = session;
+        if (isFresh(current)) {
+            return current;
+        }
+
+        renewLock.lock();
+        try {
+            current = session;
+            if (isFresh(current)) {
+                return current;
+            }
+            session = openSession();
+            return session;
+        } finally {
+            renewLock.unlock();
+        }
+    }
+
+    /**
+     * Сбрасывает сессию, отвергнутую сервером. Если её уже заменил другой поток, ничего не делает
+     */
+    public void invalidate(SsauSession rejected) {
+        renewLock.lock();
+        try {
+            if (session == rejected) {
+                log.info("SSAU session rejected by server, it will be renewed");
+                session = null;
+            }
+        } finally {
+            renewLock.unlock();
+        }
+    }
+
+    /**
+     * Сессию нужно обновить, если сервер ответил этим кодом
+     */
+    public static boolean isSessionRejected(Exception e) {
+        return e instanceof UnexpectedResponseStatusException statusException
+                && (statusException.getStatusCode() == 419 || statusException.getStatusCode() == 403);
+    }
+
+    private boolean isFresh(SsauSession current) {
+        return current != null
+                && clock.instant().isBefore(current.expiresAt().minus(properties.getSessionRenewBefore()));
+    }
+
+    private SsauSession openSession() throws IOException {
+        HttpGet httpGet = new HttpGet(BASE_URL);
+        httpGet.setHeader("User-Agent", "Mozilla/5.0 (Windows NT 10.0; Win64; x64)");
+
+        SsauSession opened = httpTransport.execute(httpGet, this::parseSession);
+        log.info("SSAU session opened, expires at {}", opened.expiresAt());
+        return opened;
+    }
+
+    private SsauSession parseSession(ClassicHttpResponse response) throws IOException {
+        int statusCode = response.getCode();
+        if (statusCode != 200) {
+            log.error("Error while opening SSAU session, status code: {}", statusCode);
+            throw new UnexpectedResponseStatusException(statusCode);
+        }
+
+        List<HttpCookie> cookies = new ArrayList<>();
+        for (Header header : response.getHeaders("Set-Cookie")) {
+            try {
+                cookies.addAll(HttpCookie.parse(header.getValue()));
+            } catch (IllegalArgumentException e) {
+                log.warn("Skipping malformed SSAU cookie: {}", e.getMessage());
+            }
+        }
+
+        Element csrfTag;
+        try (InputStream content = response.getEntity().getContent()) {
+            csrfTag = Jsoup.parse(content, StandardCharsets.UTF_8.name(), "").selectFirst("meta[name=csrf-token]");
+        } catch (ResponseTooLargeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException("Failed to read SSAU session page", e);
+        }
+        if (csrfTag == null) {
+            throw new IOException("CSRF token not found");
+        }
+
+        String cookieHeader = cookies.stream()
+                .map(cookie -> cookie.getName() + "=" + cookie.getValue())
+                .collect(Collectors.joining("; "));
+        Duration ttl = cookies.stream()
+                .map(HttpCookie::getMaxAge)
+                .filter(maxAge -> maxAge > 0)
+                .min(Long::compare)
+                .map(Duration::ofSeconds)
+                .orElse(properties.getSessionDefaultTtl());
+
+        return new SsauSession(csrfTag.attr("content"), cookieHeader, clock.instant().plus(ttl));
+    }
+}
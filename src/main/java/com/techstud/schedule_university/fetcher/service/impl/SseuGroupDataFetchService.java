@@ -1,53 +1,63 @@
 package com.techstud.schedule_university.fetcher.service.impl;
 
-import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.core.JsonParser;
 import com.techstud.schedule_university.fetcher.dto.GroupData;
-import com.techstud.schedule_university.fetcher.dto.api.response.SseuApiGroupDataResponse;
 import com.techstud.schedule_university.fetcher.service.GroupFetcherService;
+import com.techstud.schedule_university.fetcher.util.FetcherHttpTransport;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.hc.client5.http.classic.methods.HttpGet;
-import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
-import org.apache.hc.client5.http.impl.classic.HttpClients;
 import org.apache.hc.core5.http.io.HttpClientResponseHandler;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
-import static com.techstud.schedule_university.fetcher.util.FetcherHttpUtils.createResponseHandler;
+import static com.techstud.schedule_university.fetcher.util.JsonStreamExtractor.createStreamingResponseHandler;
+import static com.techstud.schedule_university.fetcher.util.JsonStreamExtractor.forEachObject;
 
 @Service("SSEU_GROUP_FETCHER")
 @Slf4j
+@RequiredArgsConstructor
 public class SseuGroupDataFetchService implements GroupFetcherService {
 
+    private static final Set<String> GROUP_FIELDS = Set.of("id", "name");
+
+    private final FetcherHttpTransport httpTransport;
+
+    @Override
+    public void warmUp() {
+        httpTransport.warmUp(List.of("https://lms3.sseu.ru/"));
+    }
+
     @Override
     public List<GroupData> fetchGroupsData() {
         List<GroupData> groupDataList = new ArrayList<>();
         String baseUrl = "https://lms3.sseu.ru/api/v1/schedule-board/groups";
 
-        try (CloseableHttpClient httpClient = HttpClients.createDefault()) {
+        try {
             HttpGet httpGet = new HttpGet(baseUrl);
             httpGet.setHeader("Accept", "application/json");
 
-            HttpClientResponseHandler<List<SseuApiGroupDataResponse>> responseHandler =
-                    createResponseHandler(new TypeReference<>() {
-                    });
-
-            List<SseuApiGroupDataResponse> apiResponses = httpClient.execute(httpGet, responseHandler);
+            HttpClientResponseHandler<List<GroupData>> responseHandler =
+                    createStreamingResponseHandler(SseuGroupDataFetchService::extractGroups);
 
-            groupDataList = mapApiResponseToGroupList(apiResponses);
+            groupDataList = httpTransport.executeCached(httpGet, responseHandler);
         } catch (Exception e) {
             log.error("Error fetching group data from SSEU", e);
         }
         return groupDataList;
     }
 
-    private List<GroupData> mapApiResponseToGroupList(List<SseuApiGroupDataResponse> sseuApiGroupDataResponseList) {
+    static List<GroupData> extractGroups(JsonParser parser) throws IOException {
         List<GroupData> groupDataList = new ArrayList<>();
 
-        sseuApiGroupDataResponseList.forEach(sseuApiGroupDataResponse -> {
-            GroupData groupData = new GroupData(sseuApiGroupDataResponse.name(), sseuApiGroupDataResponse.id().toString());
-            groupDataList.add(groupData);
+        forEachObject(parser, GROUP_FIELDS, fields -> {
+            if (fields.containsKey("id") && fields.containsKey("name")) {
+                groupDataList.add(new GroupData(fields.get("name"), fields.get("id")));
+            }
         });
 
         return groupDataList;
@@ -1,106 +1,99 @@
 package com.techstud.schedule_university.fetcher.service.impl;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.core.JsonParser;
 import com.techstud.schedule_university.fetcher.dto.GroupData;
 import com.techstud.schedule_university.fetcher.dto.api.response.TltsuApiGroupDataResponse;
 import com.techstud.schedule_university.fetcher.service.GroupFetcherService;
-import lombok.SneakyThrows;
+import com.techstud.schedule_university.fetcher.util.FetcherAsyncHttpEngine;
+import com.techstud.schedule_university.fetcher.util.FetcherHttpUtils;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.hc.client5.http.classic.methods.HttpGet;
-import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
-import org.apache.hc.core5.http.io.HttpClientResponseHandler;
-import org.apache.hc.core5.http.io.entity.EntityUtils;
+import org.apache.hc.client5.http.async.methods.SimpleRequestBuilder;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
-import java.util.Collection;
 import java.util.List;
-import java.util.stream.StreamSupport;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
-import static com.techstud.schedule_university.fetcher.util.FetcherHttpUtils.unchecked;
-import static org.apache.hc.client5.http.impl.classic.HttpClients.createDefault;
+import static com.techstud.schedule_university.fetcher.util.FetcherHttpUtils.allOfFlattened;
+import static com.techstud.schedule_university.fetcher.util.JsonStreamExtractor.forEachObject;
+import static com.techstud.schedule_university.fetcher.util.JsonStreamExtractor.forEachValue;
 
 @Service("TLTSU_GROUP_FETCHER")
 @Slf4j
+@RequiredArgsConstructor
 public class TltsuGroupDataFetchService implements GroupFetcherService {
 
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    private static final Set<String> INSTITUTE_FIELDS = Set.of("id");
+    private static final Set<String> GROUP_FIELDS = Set.of("id", "name");
+
+    private final FetcherAsyncHttpEngine httpEngine;
+
+    @Override
+    public void warmUp() {
+        httpEngine.warmUp(List.of("https://its.tltsu.ru/"));
+    }
 
     @Override
-    @SneakyThrows
     public List<GroupData> fetchGroupsData() {
         String institutesUrl = "https://its.tltsu.ru/api/institutes";
-        List<GroupData> groupDataList;
-        JsonNode jsonNode = objectMapper.readTree(returnHttpResponse(institutesUrl).toString());
-        List<TltsuApiGroupDataResponse> courseInfo = StreamSupport.stream(jsonNode.spliterator(), false)
-                .map(node -> node.get("id").asInt())
-                .map(unchecked(this::returnCourseInfo))
-                .flatMap(Collection::stream)
-                .toList();
-        groupDataList = courseInfo.parallelStream()
-                .map(unchecked(group ->
-                        returnGroupInfo(
-                                group.courseName(),
-                                group.universityId()
-                        )
-                ))
-                .flatMap(Collection::stream)
-                .toList();
-        return groupDataList;
+        return fetchJson(institutesUrl, this::extractInstituteIds)
+                .thenCompose(instituteIds -> allOfFlattened(instituteIds.stream()
+                        .map(this::returnCourseInfo)
+                        .toList()))
+                .thenCompose(courseInfo -> allOfFlattened(courseInfo.stream()
+                        .map(group -> returnGroupInfo(group.courseName(), group.universityId()))
+                        .toList()))
+                .join();
     }
 
-    private List<GroupData> returnGroupInfo(String courseName, int groupId) throws JsonProcessingException {
-        List<GroupData> groupDataList = new ArrayList<>();
+    private CompletableFuture<List<GroupData>> returnGroupInfo(String courseName, int groupId) {
         String link = "https://its.tltsu.ru/api/groups/course/"
                 + URLEncoder.encode(courseName, StandardCharsets.UTF_8)
                 + "/institute/"
                 + URLEncoder.encode(String.valueOf(groupId), StandardCharsets.UTF_8);
-        JsonNode jsonNode = objectMapper.readTree(returnHttpResponse(link).toString());
-        jsonNode.forEach(node -> {
-            GroupData groupData = new GroupData(
-                    node.get("name").asText(),
-                    node.get("id").asText()
-            );
-            groupDataList.add(groupData);
+        return fetchJson(link, TltsuGroupDataFetchService::extractGroups);
+    }
+
+    static List<GroupData> extractGroups(JsonParser parser) throws IOException {
+        List<GroupData> groupDataList = new ArrayList<>();
+        forEachObject(parser, GROUP_FIELDS, fields -> {
+            if (fields.containsKey("name") && fields.containsKey("id")) {
+                groupDataList.add(new GroupData(fields.get("name"), fields.get("id")));
+            }
         });
         return groupDataList;
     }
 
-    private List<TltsuApiGroupDataResponse> returnCourseInfo(int idUnversity) throws JsonProcessingException {
-        List<TltsuApiGroupDataResponse> courseInfo = new ArrayList<>();
+    private CompletableFuture<List<TltsuApiGroupDataResponse>> returnCourseInfo(int idUnversity) {
         String link = "https://its.tltsu.ru/api/courses/institute/" + idUnversity;
-        JsonNode jsonNode = objectMapper.readTree(returnHttpResponse(link).toString());
-        List<String> array = StreamSupport
-                .stream(jsonNode.spliterator(), false)
-                .map(JsonNode::asText)
-                .toList();
-        array.forEach(info ->
-                courseInfo.add(new TltsuApiGroupDataResponse(idUnversity, info))
-        );
-        return courseInfo;
+        return fetchJson(link, parser -> {
+            List<TltsuApiGroupDataResponse> courseInfo = new ArrayList<>();
+            forEachValue(parser, info -> courseInfo.add(new TltsuApiGroupDataResponse(idUnversity, info)));
+            return courseInfo;
+        });
+    }
+
+    private List<Integer> extractInstituteIds(JsonParser parser) throws IOException {
+        List<Integer> instituteIds = new ArrayList<>();
+        forEachObject(parser, INSTITUTE_FIELDS, fields -> {
+            if (fields.containsKey("id")) {
+                instituteIds.add(Integer.parseInt(fields.get("id")));
+            }
+        });
+        return instituteIds;
     }
 
-    private StringBuilder returnHttpResponse(String link) {
-        StringBuilder responseBody = new StringBuilder();
-        try (CloseableHttpClient httpClient = createDefault()) {
-            HttpGet httpGet = new HttpGet(link);
-            HttpClientResponseHandler<String> responseHandler = response -> {
-                if (response.getCode() != 200) {
-                    log.error("Error fetching group data from TLTSU{}", response.getCode());
-                    throw new IOException("Unexpected response code " + response.getCode());
-                }
-                log.info("Successful connection to API TLTSU");
-                return EntityUtils.toString(response.getEntity(), StandardCharsets.UTF_8);
-            };
-            return responseBody.append(httpClient.execute(httpGet, responseHandler));
-        } catch (Exception e) {
-            log.error("Error fetching group data from TLTSU", e);
-            throw new RuntimeException(e);
-        }
+    private <T> CompletableFuture<T> fetchJson(String link, FetcherHttpUtils.ThrowingFunction<JsonParser, T> extraction) {
+        return httpEngine.executeJson(SimpleRequestBuilder.get(link).build(), extraction)
+                .whenComplete((result, e) -> {
+                    if (e != null) {
+                        log.error("Error fetching group data from TLTSU", e);
+                    }
+                });
     }
 }
@@ -2,108 +2,141 @@ package com.techstud.schedule_university.fetcher.service.impl;
 
 import com.techstud.schedule_university.fetcher.dto.GroupData;
 import com.techstud.schedule_university.fetcher.service.GroupFetcherService;
+import com.techstud.schedule_university.fetcher.util.FetcherAsyncHttpEngine;
+import com.techstud.schedule_university.fetcher.util.PageStream;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.hc.client5.http.classic.methods.HttpGet;
-import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
-import org.apache.hc.client5.http.impl.classic.HttpClients;
-import org.jsoup.Jsoup;
-import org.jsoup.nodes.Document;
+import org.apache.hc.client5.http.async.methods.SimpleHttpRequest;
+import org.apache.hc.client5.http.async.methods.SimpleRequestBuilder;
 import org.jsoup.nodes.Element;
-import org.jsoup.select.Elements;
+import org.jsoup.select.Evaluator;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
-import static com.techstud.schedule_university.fetcher.util.FetcherHttpUtils.createResponseHandler;
+import static com.techstud.schedule_university.fetcher.util.FetcherHttpUtils.allOfFlattened;
+import static com.techstud.schedule_university.fetcher.util.HtmlStreamExtractor.compile;
 
 @Service("UNECON_GROUP_FETCHER")
 @Slf4j
+@RequiredArgsConstructor
 public class UneconGroupDataFetchService implements GroupFetcherService {
 
-    @Override
-    public List<GroupData> fetchGroupsData() {
-        List<GroupData> groupDataList = new ArrayList<>();
-        String baseUrl = "https://rasp.unecon.ru/raspisanie.php";
-
-        try (CloseableHttpClient httpClient = HttpClients.createDefault()) {
-            HttpGet httpGet = new HttpGet(baseUrl);
-
-            httpGet.addHeader("User-Agent", "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/131.0.0.0 Safari/537.36");
-            httpGet.addHeader("Referer", "https://rasp.unecon.ru/raspisanie.php");
-            httpGet.addHeader("Accept", "text/html,application/xhtml+xml,application/xml;q=0.9,*/*;q=0.8");
+    private static final Evaluator FACULTY_SELECTOR = compile(".fakultets a");
+    private static final Evaluator COURSE_SELECTOR = compile("div.kurses a");
+    static final Evaluator GROUP_SELECTOR = compile("div.grps a");
 
-            String responseBody = httpClient.execute(httpGet, createResponseHandler(String.class, true));
-            Document document = Jsoup.parse(responseBody);
+    private final FetcherAsyncHttpEngine httpEngine;
 
-            Elements facultyElements = document.select(".fakultets a");
-            for (Element facultyElement : facultyElements) {
-                String facultyLink = facultyElement.attr("href");
+    @Override
+    public void warmUp() {
+        httpEngine.warmUp(List.of("https://rasp.unecon.ru/"));
+    }
 
-                parseFacultyGroups(httpClient, facultyLink, groupDataList);
-            }
+    /**
+     * @throws CompletionException Если страница не загрузилась: неполный список групп не возвращается
+     */
+    @Override
+    public List<GroupData> fetchGroupsData() {
+        List<GroupData> groupDataList = new ArrayList<>();
 
-        } catch (Exception e) {
-            log.error("Error while fetching groups: {}", e.getMessage());
-        }
+        fetchGroupsData(groupDataList::add);
 
         return groupDataList.stream()
                 .sorted(Comparator.comparing(GroupData::universityGroupId))
                 .collect(Collectors.toList());
     }
 
-    private void parseFacultyGroups(CloseableHttpClient httpClient, String facultyLink, List<GroupData> groupDataList) {
-        String facultyUrl = "https://rasp.unecon.ru" + (facultyLink.startsWith("/") ? facultyLink : "/" + facultyLink);
-
-        try {
-            HttpGet httpGet = new HttpGet(facultyUrl);
-
-            httpGet.addHeader("User-Agent", "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/131.0.0.0 Safari/537.36");
-            httpGet.addHeader("Referer", "https://rasp.unecon.ru/");
-            httpGet.addHeader("Accept", "text/html,application/xhtml+xml,application/xml;q=0.9,*/*;q=0.8");
-
-            String responseBody = httpClient.execute(httpGet, createResponseHandler(String.class, true));
-            Document document = Jsoup.parse(responseBody);
-
-            Elements courseLinks = document.select("div.kurses a");
-            for (Element courseLink : courseLinks) {
-                String courseHref = courseLink.attr("href");
+    @Override
+    public void fetchGroupsData(Consumer<GroupData> sink) {
+        PageStream<GroupData> pages = new PageStream<>();
 
-                String courseUrl = "https://rasp.unecon.ru/" + courseHref;
+        pages.drain(crawl(pages), sink);
+    }
 
-                parseCourseGroups(httpClient, courseUrl, groupDataList);
-            }
+    /**
+     * Обходит факультеты и курсы
+     *
+     * <p>Группы передаются только через {@code pages}, общий список обхода не собирается.
+     * Список факультета собирается, чтобы запомнить его для неизменённого факультета.
+     * Ошибка курса или факультета завершает обход ошибкой, иначе кэш каталога принял бы
+     * неполный список и пометил бы пропавшие группы удалёнными.</p>
+     *
+     * @param pages Получает группы каждой страницы курса сразу после её разбора
+     */
+    private CompletableFuture<Void> crawl(PageStream<GroupData> pages) {
+        String baseUrl = "https://rasp.unecon.ru/raspisanie.php";
+        SimpleHttpRequest request = getHttpRequest(baseUrl, "https://rasp.unecon.ru/raspisanie.php");
 
-        } catch (Exception e) {
-            log.error("Error while parsing faculty groups: {}", e.getMessage());
-        }
+        return httpEngine.executeHtml(request, FACULTY_SELECTOR,
+                        facultyElement -> facultyElement.attr("href"))
+                .thenCompose(facultyLinks -> CompletableFuture.allOf(facultyLinks.stream()
+                        .map(facultyLink -> parseFacultyGroups(facultyLink, pages))
+                        .toArray(CompletableFuture[]::new)));
     }
 
-    private void parseCourseGroups(CloseableHttpClient httpClient, String courseUrl, List<GroupData> groupDataList) {
-        try {
-            HttpGet httpGet = new HttpGet(courseUrl);
-
-            httpGet.addHeader("User-Agent", "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/131.0.0.0 Safari/537.36");
-            httpGet.addHeader("Referer", "https://rasp.unecon.ru/");
-            httpGet.addHeader("Accept", "text/html,application/xhtml+xml,application/xml;q=0.9,*/*;q=0.8");
+    private CompletableFuture<Void> parseFacultyGroups(String facultyLink, PageStream<GroupData> pages) {
+        String facultyUrl = "https://rasp.unecon.ru" + (facultyLink.startsWith("/") ? facultyLink : "/" + facultyLink);
+        // Неизменённый факультет отдаёт запомненный результат без обхода курсов
+        AtomicBoolean crawled = new AtomicBoolean();
+
+        return pages.track(httpEngine.executeHtmlSubtree(getHttpRequest(facultyUrl, "https://rasp.unecon.ru/"),
+                        COURSE_SELECTOR,
+                        courseLink -> "https://rasp.unecon.ru/" + courseLink.attr("href"),
+                        (courseUrls, context) -> {
+                            crawled.set(true);
+                            return allOfFlattened(courseUrls.stream()
+                                    .map(courseUrl -> parseCourseGroups(courseUrl, context, pages))
+                                    .toList());
+                        }))
+                .thenAccept(groups -> {
+                    if (!crawled.get()) {
+                        pages.emit(groups);
+                    }
+                })
+                .whenComplete((ignored, e) -> {
+                    if (e != null && !pages.isCancelled()) {
+                        log.error("Error while parsing faculty groups: {}", e.getMessage());
+                    }
+                });
+    }
 
-            String responseBody = httpClient.execute(httpGet, createResponseHandler(String.class, true));
-            Document document = Jsoup.parse(responseBody);
+    private CompletableFuture<List<GroupData>> parseCourseGroups(String courseUrl,
+                                                                 FetcherAsyncHttpEngine.SubtreeContext context,
+                                                                 PageStream<GroupData> pages) {
+        return pages.page(() -> httpEngine.executeHtml(getHttpRequest(courseUrl, "https://rasp.unecon.ru/"),
+                        GROUP_SELECTOR, UneconGroupDataFetchService::toGroup))
+                .whenComplete((groups, e) -> {
+                    if (e != null) {
+                        context.markIncomplete();
+                        if (!pages.isCancelled()) {
+                            log.error("Error while parsing course groups: {}", e.getMessage());
+                        }
+                    }
+                });
+    }
 
-            Elements groupLinks = document.select("div.grps a");
-            for (Element groupLink : groupLinks) {
-                String href = groupLink.attr("href");
-                String groupCode = groupLink.text();
-                String universityGroupId = href.replace("raspisanie_grp.php?g=", "");
+    static GroupData toGroup(Element groupLink) {
+        String href = groupLink.attr("href");
+        String groupCode = groupLink.text();
+        String universityGroupId = href.replace("raspisanie_grp.php?g=", "");
 
-                groupDataList.add(new GroupData(groupCode, universityGroupId));
-                log.info("Parsed group: {} (ID: {})", groupCode, universityGroupId);
-            }
+        log.debug("Parsed group: {} (ID: {})", groupCode, universityGroupId);
+        return new GroupData(groupCode, universityGroupId);
+    }
 
-        } catch (Exception e) {
-            log.error("Error while parsing course groups: {}", e.getMessage());
-        }
+    private static SimpleHttpRequest getHttpRequest(String url, String referer) {
+        return SimpleRequestBuilder.get(url)
+                .addHeader("User-Agent", "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/131.0.0.0 Safari/537.36")
+                .addHeader("Referer", referer)
+                .addHeader("Accept", "text/html,application/xhtml+xml,application/xml;q=0.9,*/*;q=0.8")
+                .build();
     }
 }
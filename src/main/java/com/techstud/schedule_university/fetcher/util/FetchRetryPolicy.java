@@ -0,0 +1,59 @@
+package com.techstud.schedule_university.fetcher.util;
+
+import com.techstud.schedule_university.fetcher.config.FetcherResilienceProperties;
+import com.techstud.schedule_university.fetcher.exception.ResponseTooLargeException;
+import lombok.RequiredArgsConstructor;
+import org.apache.hc.core5.http.Method;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Политика повторов запросов к сайтам университетов
+ */
+@Component
+@RequiredArgsConstructor
+public class FetchRetryPolicy {
+
+    private final FetcherResilienceProperties properties;
+
+    /**
+     * @return Запрос можно безопасно повторить
+     */
+    public boolean isIdempotent(String method) {
+        return Method.GET.isSame(method) || Method.HEAD.isSame(method);
+    }
+
+    /**
+     * @return Ответ говорит о временной недоступности сайта
+     */
+    public boolean isRetryableStatus(int statusCode) {
+        return properties.getRetryableStatuses().contains(statusCode);
+    }
+
+    /**
+     * @return Ошибку можно исправить повтором. Слишком большой ответ придёт таким же и во второй раз
+     */
+    public boolean isRetryableFailure(Throwable e) {
+        return !(e instanceof ResponseTooLargeException);
+    }
+
+    /**
+     * @param attempt Номер выполненной попытки, начиная с 1
+     * @return Остались ли попытки
+     */
+    public boolean hasAttemptsLeft(int attempt) {
+        return attempt < properties.getMaxAttempts();
+    }
+
+    /**
+     * @param attempt Номер выполненной попытки, начиная с 1
+     * @return Пауза перед следующей попыткой, случайная доля экспоненциальной паузы
+     */
+    public long backoffNanos(int attempt) {
+        double backoff = properties.getInitialBackoff().toNanos()
+                * Math.pow(properties.getBackoffMultiplier(), attempt - 1);
+        long capped = (long) Math.min(backoff, properties.getMaxBackoff().toNanos());
+        return capped > 0 ? ThreadLocalRandom.current().nextLong(capped) : 0;
+    }
+}
@@ -0,0 +1,745 @@
+package com.techstud.schedule_university.fetcher.util;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.techstud.schedule_university.fetcher.config.FetcherHttpProperties;
+import com.techstud.schedule_university.fetcher.exception.CircuitOpenException;
+import com.techstud.schedule_university.fetcher.exception.ResponseTooLargeException;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.async.methods.SimpleHttpRequest;
+import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
+import org.apache.hc.client5.http.async.methods.SimpleRequestBuilder;
+import org.apache.hc.client5.http.async.methods.SimpleRequestProducer;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.config.TlsConfig;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClients;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManager;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.ssl.ClientTlsStrategyBuilder;
+import org.apache.hc.core5.concurrent.BasicFuture;
+import org.apache.hc.core5.concurrent.FutureCallback;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.HttpHeaders;
+import org.apache.hc.core5.http.HttpStatus;
+import org.apache.hc.core5.http.Method;
+import org.apache.hc.core5.http2.HttpVersionPolicy;
+import org.apache.hc.core5.io.CloseMode;
+import org.apache.hc.core5.reactor.IOReactorConfig;
+import org.apache.hc.core5.ssl.SSLContexts;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.jsoup.nodes.Element;
+import org.jsoup.select.Evaluator;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Асинхронный HTTP/2 движок для многоуровневых обходов
+ *
+ * <p>Работает на фиксированном числе I/O потоков реактора и позволяет фетчеру
+ * отправить сразу все запросы дочерних страниц. По TLS соединения договариваются
+ * о HTTP/2 через ALPN, так что запросы к одному хосту мультиплексируются в одно
+ * соединение. Число одновременных запросов к хосту ограничено, остальные ждут
+ * в очереди без блокировки потоков.</p>
+ *
+ * <p>Разбор ответов и отложенные повторы, копии и ожидания ограничителя частоты
+ * выполняются в виртуальных потоках движка, а не в потоках реактора и не в общем
+ * пуле: медленный разбор не задерживает ввод-вывод остальных запросов.</p>
+ *
+ * <p>Отмена future с результатом разбора отменяет и сам запрос: ждущий очереди хоста
+ * не отправляется, отправленный прерывается.</p>
+ */
+@Component
+@Slf4j
+public class FetcherAsyncHttpEngine implements DisposableBean {
+
+    private final CloseableHttpAsyncClient httpClient;
+    private final int maxInFlightPerHost;
+    private final Map<String, HostGate> hostGates = new ConcurrentHashMap<>();
+    private final HttpPageCache pageCache;
+    private final HostRateLimiter rateLimiter;
+    private final HostCircuitBreaker circuitBreaker;
+    private final FetchRetryPolicy retryPolicy;
+    private final HedgePolicy hedgePolicy;
+    private final FetcherMetrics metrics;
+    private final HttpExchangeArchive archive;
+    private final Map<String, URI> hostOverrides;
+    private final long maxBodySize;
+    private final ExecutorService workExecutor =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("fetch-work-", 0).factory());
+
+    public FetcherAsyncHttpEngine(FetcherHttpProperties properties, HttpPageCache pageCache,
+                                  HostRateLimiter rateLimiter, HostCircuitBreaker circuitBreaker,
+                                  FetchRetryPolicy retryPolicy, HedgePolicy hedgePolicy, FetcherMetrics metrics,
+                                  HttpExchangeArchive archive) {
+        this.pageCache = pageCache;
+        this.rateLimiter = rateLimiter;
+        this.circuitBreaker = circuitBreaker;
+        this.retryPolicy = retryPolicy;
+        this.hedgePolicy = hedgePolicy;
+        this.metrics = metrics;
+        this.archive = archive;
+        this.hostOverrides = properties.getHostOverrides();
+        this.maxBodySize = properties.getMaxBodySize().toBytes();
+        this.maxInFlightPerHost = properties.getMaxInFlightPerHost();
+
+        PoolingAsyncClientConnectionManager connectionManager = PoolingAsyncClientConnectionManagerBuilder.create()
+                .setTlsStrategy(ClientTlsStrategyBuilder.create()
+                        .setSslContext(SSLContexts.createSystemDefault())
+                        .build())
+                .setDefaultTlsConfig(TlsConfig.custom()
+                        .setVersionPolicy(HttpVersionPolicy.NEGOTIATE)
+                        .build())
+                .setMaxConnTotal(properties.getMaxConnTotal())
+                .setMaxConnPerRoute(properties.getMaxConnPerRoute())
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(properties.getConnectTimeout().toMillis()))
+                        .setTimeToLive(TimeValue.ofMilliseconds(properties.getConnectionTimeToLive().toMillis()))
+                        .build())
+                .build();
+        metrics.registerConnectionPool("async", connectionManager);
+
+        this.httpClient = HttpAsyncClients.custom()
+                .setConnectionManager(connectionManager)
+                .setIOReactorConfig(IOReactorConfig.custom()
+                        .setIoThreadCount(properties.getAsyncIoThreads())
+                        .build())
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setResponseTimeout(Timeout.ofMilliseconds(properties.getResponseTimeout().toMillis()))
+                        .setConnectionKeepAlive(TimeValue.ofMilliseconds(properties.getDefaultKeepAlive().toMillis()))
+                        .build())
+                .disableAutomaticRetries()
+                .evictIdleConnections(TimeValue.ofMilliseconds(properties.getIdleEviction().toMillis()))
+                .build();
+        this.httpClient.start();
+    }
+
+    /**
+     * Отправляет запрос, не блокируя вызывающий поток
+     *
+     * <p>Разрешение {@link HostRateLimiter} берётся перед самой отправкой, когда запрос
+     * уже занял место в очереди хоста, и ожидание не блокирует поток. Пауза по Retry-After
+     * и снижение частоты поэтому действуют и на запросы, ждущие отправки. Пока {@link HostCircuitBreaker} считает хост недоступным, future
+     * сразу завершается ошибкой. GET и HEAD повторяются с паузой при сетевой ошибке и
+     * при ответах, означающих временную недоступность.</p>
+     *
+     * <p>Если на GET или HEAD нет ответа дольше {@code percentile} обычной задержки хоста,
+     * по другому соединению отправляется копия, и побеждает первый ответ. Число копий
+     * ограничено бюджетом {@link HedgePolicy}.</p>
+     *
+     * <p>Тело больше {@code fetcher.http.max-body-size} прерывает получение ответа, сжатое
+     * тело распаковывается {@link ResponseBodyDecoder} до записи в архив и разбора.
+     * Ошибка {@link ResponseTooLargeException} не повторяется.</p>
+     *
+     * <p>В режиме воспроизведения {@link HttpExchangeArchive} ответ берётся из архива
+     * и завершает future в виртуальном потоке движка.</p>
+     *
+     * @param request HTTP запрос
+     * @return Future с полностью прочитанным ответом
+     */
+    public CompletableFuture<SimpleHttpResponse> execute(SimpleHttpRequest request) {
+        FetcherHttpUtils.applyHostOverride(request, hostOverrides);
+        ResponseBodyDecoder.applyAcceptEncoding(request);
+        return execute(request, metrics.tagsOf(request));
+    }
+
+    private CompletableFuture<SimpleHttpResponse> execute(SimpleHttpRequest request, FetcherMetrics.RequestTags tags) {
+        String host = request.getAuthority().getHostName();
+        Exchange exchange = new Exchange(request, host,
+                hostGates.computeIfAbsent(host, ignored -> new HostGate(maxInFlightPerHost)), tags,
+                new CompletableFuture<>());
+        attempt(exchange, 1);
+        return exchange.result();
+    }
+
+    private void attempt(Exchange exchange, int attempt) {
+        if (exchange.result().isDone()) {
+            return;
+        }
+        try {
+            circuitBreaker.acquirePermission(exchange.host());
+        } catch (CircuitOpenException e) {
+            exchange.result().completeExceptionally(e);
+            return;
+        }
+
+        Race race = new Race(exchange, attempt);
+        long hedgeDelayNanos = retryPolicy.isIdempotent(exchange.request().getMethod())
+                ? hedgePolicy.onRequest(exchange.host())
+                : -1;
+        send(race, exchange.request(), hedgeDelayNanos, false);
+    }
+
+    /**
+     * Отправляет копию запроса в гонку
+     *
+     * @param hedgeDelayNanos Через сколько без ответа отправить ещё одну копию, -1 - не отправлять
+     * @param reserved Разрешение ограничителя частоты уже взято
+     */
+    private void send(Race race, SimpleHttpRequest request, long hedgeDelayNanos, boolean reserved) {
+        race.pending.incrementAndGet();
+        race.exchange.gate().submit(() -> dispatch(race, request, hedgeDelayNanos, reserved));
+    }
+
+    /**
+     * Отправляет копию запроса, занявшую место в очереди хоста
+     *
+     * <p>Если ограничитель частоты велит подождать, место остаётся за копией, а разрешение
+     * запрашивается снова по истечении ожидания.</p>
+     */
+    private void dispatch(Race race, SimpleHttpRequest request, long hedgeDelayNanos, boolean reserved) {
+        Exchange exchange = race.exchange;
+        if (race.isSettled()) {
+            exchange.gate().release();
+            race.pending.decrementAndGet();
+            return;
+        }
+        if (!reserved) {
+            long waitNanos = rateLimiter.tryReserveNanos(exchange.host());
+            if (waitNanos > 0) {
+                schedule(waitNanos, () -> dispatch(race, request, hedgeDelayNanos, false));
+                return;
+            }
+        }
+        long start = System.nanoTime();
+        if (race.startedAt == 0) {
+            race.startedAt = start;
+        }
+        Future<SimpleHttpResponse> future = exchange(request, exchange.tags(), new FutureCallback<>() {
+            @Override
+            public void completed(SimpleHttpResponse response) {
+                exchange.gate().release();
+                long latencyNanos = System.nanoTime() - start;
+                Header retryAfter = response.getFirstHeader(HttpHeaders.RETRY_AFTER);
+                rateLimiter.onResponse(exchange.host(), response.getCode(),
+                        retryAfter != null ? retryAfter.getValue() : null, latencyNanos);
+                metrics.recordResponse(exchange.tags(), response.getCode(), latencyNanos);
+                if (race.settle()) {
+                    hedgePolicy.recordLatency(exchange.host(), System.nanoTime() - race.startedAt);
+                    onResponse(race, response);
+                }
+            }
+
+            @Override
+            public void failed(Exception e) {
+                exchange.gate().release();
+                if (retryPolicy.isRetryableFailure(e)) {
+                    rateLimiter.onFailure(exchange.host());
+                }
+                metrics.recordFailure(exchange.tags(), e);
+                if (race.lose()) {
+                    onFailure(race, e);
+                }
+            }
+
+            @Override
+            public void cancelled() {
+                exchange.gate().release();
+                if (race.lose()) {
+                    exchange.result().cancel(false);
+                }
+            }
+        });
+        race.add(future);
+        if (hedgeDelayNanos >= 0) {
+            schedule(hedgeDelayNanos, () -> hedge(race));
+        }
+    }
+
+    private Future<SimpleHttpResponse> exchange(SimpleHttpRequest request, FetcherMetrics.RequestTags tags,
+                                                FutureCallback<SimpleHttpResponse> callback) {
+        String key = archive.isRecording() || archive.isReplaying()
+                ? HttpExchangeArchive.keyOf(request, request.getBodyBytes())
+                : null;
+        if (archive.isReplaying()) {
+            return replay(key, tags, callback);
+        }
+
+        long start = System.nanoTime();
+        return httpClient.execute(SimpleRequestProducer.create(request),
+                ResponseBodyDecoder.responseConsumer(maxBodySize), new FutureCallback<>() {
+                    @Override
+                    public void completed(SimpleHttpResponse response) {
+                        long latencyNanos = System.nanoTime() - start;
+                        byte[] raw = response.getBodyBytes();
+                        metrics.recordBytes(tags, raw != null ? raw.length : 0);
+                        try {
+                            ResponseBodyDecoder.decode(response, maxBodySize);
+                        } catch (IOException e) {
+                            callback.failed(e);
+                            return;
+                        }
+                        if (key != null) {
+                            archive.record(key, response.getCode(), response.getHeaders(), response.getContentType(),
+                                    response.getBodyBytes(), latencyNanos);
+                        }
+                        callback.completed(response);
+                    }
+
+                    @Override
+                    public void failed(Exception e) {
+                        callback.failed(e);
+                    }
+
+                    @Override
+                    public void cancelled() {
+                        callback.cancelled();
+                    }
+                });
+    }
+
+    private Future<SimpleHttpResponse> replay(String key, FetcherMetrics.RequestTags tags,
+                                              FutureCallback<SimpleHttpResponse> callback) {
+        BasicFuture<SimpleHttpResponse> future = new BasicFuture<>(callback);
+        HttpExchangeArchive.RecordedResponse recorded;
+        try {
+            recorded = archive.replay(key);
+        } catch (IOException e) {
+            workExecutor.execute(() -> future.failed(e));
+            return future;
+        }
+        // В архиве тела уже распакованы, другого размера нет
+        metrics.recordBytes(tags, recorded.body() != null ? recorded.body().length : 0);
+        schedule(archive.replayDelayNanos(recorded), () -> future.completed(recorded.toSimpleResponse()));
+        return future;
+    }
+
+    /**
+     * Отправляет копию запроса, на который нет ответа дольше обычного
+     *
+     * <p>Копия не отправляется, если исчерпан бюджет хоста или её пришлось бы
+     * задержать из-за ограничения частоты.</p>
+     */
+    private void hedge(Race race) {
+        Exchange exchange = race.exchange;
+        if (race.isSettled() || !hedgePolicy.tryAcquireHedge(exchange.host())
+                || !rateLimiter.tryReserve(exchange.host())) {
+            return;
+        }
+        log.debug("No response from {} in {} ms, sending hedged {}", exchange.host(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - race.startedAt),
+                exchange.request().getRequestUri());
+        metrics.recordHedge(exchange.tags());
+        send(race, SimpleRequestBuilder.copy(exchange.request()).build(), -1, true);
+    }
+
+    private void onResponse(Race race, SimpleHttpResponse response) {
+        Exchange exchange = race.exchange;
+        if (!retryPolicy.isRetryableStatus(response.getCode())) {
+            circuitBreaker.onSuccess(exchange.host());
+            exchange.result().complete(response);
+            return;
+        }
+        circuitBreaker.onFailure(exchange.host());
+        retryOrElse(exchange, race.attempt, "status code " + response.getCode(),
+                () -> exchange.result().complete(response));
+    }
+
+    private void onFailure(Race race, Exception e) {
+        Exchange exchange = race.exchange;
+        if (!retryPolicy.isRetryableFailure(e)) {
+            circuitBreaker.onSuccess(exchange.host());
+            exchange.result().completeExceptionally(e);
+            return;
+        }
+        circuitBreaker.onFailure(exchange.host());
+        retryOrElse(exchange, race.attempt, e.getMessage(), () -> exchange.result().completeExceptionally(e));
+    }
+
+    private void retryOrElse(Exchange exchange, int attempt, String reason, Runnable giveUp) {
+        SimpleHttpRequest request = exchange.request();
+        if (!retryPolicy.isIdempotent(request.getMethod()) || !retryPolicy.hasAttemptsLeft(attempt)) {
+            giveUp.run();
+            return;
+        }
+        log.warn("Attempt {} of {} {} failed: {}, retrying", attempt, request.getMethod(), exchange.host(), reason);
+        metrics.recordRetry(exchange.tags());
+        schedule(retryPolicy.backoffNanos(attempt), () -> attempt(exchange, attempt + 1));
+    }
+
+    /**
+     * Выполняет задачу в виртуальном потоке движка через заданное время
+     */
+    private void schedule(long delayNanos, Runnable task) {
+        CompletableFuture.delayedExecutor(delayNanos, TimeUnit.NANOSECONDS, workExecutor).execute(task);
+    }
+
+    /**
+     * Отправляет запрос и обрабатывает тело успешного ответа
+     *
+     * @param request HTTP запрос
+     * @param bodyProcessor Разбор тела ответа, выполняется в виртуальном потоке движка
+     * @return Future с результатом разбора
+     */
+    public <T> CompletableFuture<T> execute(SimpleHttpRequest request,
+                                            FetcherHttpUtils.ThrowingFunction<String, T> bodyProcessor) {
+        return executeCached(request, response -> FetcherHttpUtils.processResponse(response, bodyProcessor));
+    }
+
+    /**
+     * Отправляет запрос и извлекает данные из JSON тела потоково, без промежуточной строки
+     *
+     * @param request HTTP запрос
+     * @param extraction Извлечение, получает парсер, стоящий на первом токене
+     * @return Future с результатом извлечения
+     */
+    public <T> CompletableFuture<T> executeJson(SimpleHttpRequest request,
+                                                FetcherHttpUtils.ThrowingFunction<JsonParser, T> extraction) {
+        return executeCached(request, response -> JsonStreamExtractor.processResponse(response, extraction));
+    }
+
+    /**
+     * Отправляет запрос и извлекает совпавшие с селектором элементы HTML потоково
+     *
+     * @param request HTTP запрос
+     * @param selector Скомпилированный селектор
+     * @param mapper Преобразование элемента, null пропускается
+     * @return Future со списком результатов
+     */
+    public <T> CompletableFuture<List<T>> executeHtml(SimpleHttpRequest request, Evaluator selector,
+                                                      FetcherHttpUtils.ThrowingFunction<Element, T> mapper) {
+        return executeCached(request, response -> HtmlStreamExtractor.processResponse(response, selector, mapper));
+    }
+
+    /**
+     * Отправляет запрос страницы со ссылками на дочерние страницы и обходит их
+     *
+     * <p>Если включён {@code skipUnchangedSubtrees}, страница не изменилась с прошлого
+     * обхода и результат обхода её дочерних страниц моложе {@code subtreeMaxAge}, он
+     * возвращается без запросов к дочерним страницам. Результат запоминается, только
+     * если обход не был отмечен неполным.</p>
+     *
+     * @param request HTTP запрос
+     * @param selector Скомпилированный селектор ссылок
+     * @param mapper Преобразование элемента, null пропускается
+     * @param subtreeCrawl Обход дочерних страниц
+     * @return Future с результатом обхода
+     */
+    public <P, T> CompletableFuture<T> executeHtmlSubtree(SimpleHttpRequest request, Evaluator selector,
+                                                          FetcherHttpUtils.ThrowingFunction<Element, P> mapper,
+                                                          SubtreeCrawl<P, T> subtreeCrawl) {
+        return executePage(request, response -> HtmlStreamExtractor.processResponse(response, selector, mapper))
+                .thenCompose(result -> {
+                    HttpPageCache.CachedPage page = result.page();
+                    if (page != null) {
+                        T subtree = pageCache.reusableSubtree(page);
+                        if (subtree != null) {
+                            log.debug("Skipping subtree of unchanged page: {}", page.getUrl());
+                            return CompletableFuture.completedFuture(subtree);
+                        }
+                    }
+
+                    SubtreeContext context = new SubtreeContext();
+                    return subtreeCrawl.crawl(result.value(), context).thenApply(subtree -> {
+                        if (page != null && !context.isIncomplete()) {
+                            page.setSubtree(subtree);
+                        }
+                        return subtree;
+                    });
+                });
+    }
+
+    private <T> CompletableFuture<T> executeCached(SimpleHttpRequest request, ResponseProcessor<T> processor) {
+        CompletableFuture<PageResult<T>> page = executePage(request, processor);
+        return cancelling(page.thenApply(PageResult::value), page);
+    }
+
+    /**
+     * Выполняет запрос через кэш страниц, если это GET
+     *
+     * <p>На ответ 304 обработчик получает сохранённое тело. Тело ответа 200 сравнивается
+     * по отпечатку с прошлой версией, и если страница не изменилась и уже разбиралась,
+     * возвращается запомненный результат. Время обработчика учитывается в метрике
+     * {@code fetcher.parse}.</p>
+     */
+    private <T> CompletableFuture<PageResult<T>> executePage(SimpleHttpRequest request,
+                                                             ResponseProcessor<T> untimedProcessor) {
+        FetcherHttpUtils.applyHostOverride(request, hostOverrides);
+        ResponseBodyDecoder.applyAcceptEncoding(request);
+        FetcherMetrics.RequestTags tags = metrics.tagsOf(request);
+        ResponseProcessor<T> processor = response -> {
+            long start = System.nanoTime();
+            try {
+                return untimedProcessor.process(response);
+            } finally {
+                metrics.recordParse(tags, System.nanoTime() - start);
+            }
+        };
+
+        if (!pageCache.isEnabled() || !Method.GET.isSame(request.getMethod())) {
+            CompletableFuture<SimpleHttpResponse> sent = execute(request, tags);
+            return cancelling(sent.thenApplyAsync(
+                    response -> new PageResult<>(process(processor, response), null), workExecutor), sent);
+        }
+
+        String url;
+        try {
+            url = request.getUri().toString();
+        } catch (URISyntaxException e) {
+            return CompletableFuture.failedFuture(new IOException("Invalid request URI", e));
+        }
+        String host = request.getAuthority().getHostName();
+        HttpPageCache.CachedPage cached = pageCache.lookup(url);
+        if (cached != null && !archive.isRecording()) {
+            pageCache.applyValidators(request, cached);
+        }
+
+        CompletableFuture<SimpleHttpResponse> sent = execute(request, tags);
+        return cancelling(sent.thenApplyAsync(response -> {
+            try {
+                if (response.getCode() == HttpStatus.SC_NOT_MODIFIED && cached != null && cached.hasBody()) {
+                    pageCache.recordNotModified(host);
+                    cached.markUnchanged();
+                    log.debug("Not modified: {}", url);
+                    return new PageResult<>(cached.extract(() -> processor.process(
+                            SimpleHttpResponse.create(HttpStatus.SC_OK, cached.getBody(), cached.getContentType()))),
+                            cached);
+                }
+
+                byte[] body = response.getBodyBytes();
+                if (response.getCode() != HttpStatus.SC_OK || body == null) {
+                    return new PageResult<>(processor.process(response), null);
+                }
+
+                HttpPageCache.CachedPage page = pageCache.store(url, response, response.getContentType(), body);
+                return new PageResult<>(page.extract(() -> processor.process(response)), page);
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        }, workExecutor), sent);
+    }
+
+    /**
+     * Отменяет запрос, если отменён зависящий от него результат
+     */
+    private static <T> CompletableFuture<T> cancelling(CompletableFuture<T> result, CompletableFuture<?> request) {
+        result.whenComplete((ignored, e) -> {
+            if (result.isCancelled()) {
+                request.cancel(false);
+            }
+        });
+        return result;
+    }
+
+    private static <T> T process(ResponseProcessor<T> processor, SimpleHttpResponse response) {
+        try {
+            return processor.process(response);
+        } catch (IOException e) {
+            throw new CompletionException(e);
+        }
+    }
+
+    /**
+     * Заранее открывает соединения к хостам перед плановым обходом
+     *
+     * <p>Запросы к хостам отправляются одновременно, метод ждёт их завершения. Ошибки
+     * прогрева не пробрасываются: обход всё равно откроет соединение сам.</p>
+     *
+     * @param urls Адреса, хосты которых нужно прогреть
+     */
+    public void warmUp(Collection<String> urls) {
+        CompletableFuture.allOf(FetcherHttpUtils.originsOf(urls).stream()
+                        .map(origin -> execute(SimpleRequestBuilder.head(origin).build())
+                                .handle((response, e) -> {
+                                    if (e != null) {
+                                        log.warn("Failed to warm up connection to {}: {}", origin, e.getMessage());
+                                    } else {
+                                        log.debug("Warmed up connection to {}, status code: {}", origin,
+                                                response.getCode());
+                                    }
+                                    return null;
+                                }))
+                        .toArray(CompletableFuture[]::new))
+                .join();
+    }
+
+    @Override
+    public void destroy() {
+        httpClient.close(CloseMode.GRACEFUL);
+        workExecutor.shutdownNow();
+    }
+
+    /**
+     * Обход дочерних страниц
+     */
+    @FunctionalInterface
+    public interface SubtreeCrawl<P, T> {
+        /**
+         * @param links Ссылки, извлечённые из родительской страницы
+         * @param context Контекст обхода
+         */
+        CompletableFuture<T> crawl(List<P> links, SubtreeContext context);
+    }
+
+    /**
+     * Контекст обхода дочерних страниц
+     */
+    public static final class SubtreeContext {
+        private volatile boolean incomplete;
+
+        /**
+         * Отмечает, что часть дочерних страниц не удалось получить и результат запоминать нельзя
+         */
+        public void markIncomplete() {
+            incomplete = true;
+        }
+
+        public boolean isIncomplete() {
+            return incomplete;
+        }
+    }
+
+    @FunctionalInterface
+    private interface ResponseProcessor<T> {
+        T process(SimpleHttpResponse response) throws IOException;
+    }
+
+    private record PageResult<T>(T value, HttpPageCache.CachedPage page) {
+    }
+
+    /**
+     * Запрос со всеми его попытками
+     */
+    private record Exchange(SimpleHttpRequest request, String host, HostGate gate, FetcherMetrics.RequestTags tags,
+                            CompletableFuture<SimpleHttpResponse> result) {
+    }
+
+    /**
+     * Попытка запроса и её копии: побеждает первый ответ, остальные копии отменяются
+     */
+    private static final class Race {
+        private final Exchange exchange;
+        private final int attempt;
+        private final AtomicInteger pending = new AtomicInteger();
+        private final AtomicBoolean settled = new AtomicBoolean();
+        private final List<Future<SimpleHttpResponse>> copies = new CopyOnWriteArrayList<>();
+        private volatile long startedAt;
+
+        private Race(Exchange exchange, int attempt) {
+            this.exchange = exchange;
+            this.attempt = attempt;
+            CompletableFuture<SimpleHttpResponse> result = exchange.result();
+            result.whenComplete((response, e) -> {
+                if (result.isCancelled()) {
+                    cancelCopies();
+                }
+            });
+        }
+
+        boolean isSettled() {
+            return settled.get() || exchange.result().isDone();
+        }
+        void add(Future<SimpleHttpResponse> copy) {
+            copies.add(copy);
+            if (isSettled()) {
+                copy.cancel(true);
+            }
+        }
+
+        /**
+         * Завершает гонку ответом
+         *
+         * @return false, если гонку уже выиграла другая копия
+         */
+        boolean settle() {
+            pending.decrementAndGet();
+            if (!settled.compareAndSet(false, true)) {
+                return false;
+            }
+            cancelCopies();
+            return true;
+        }
+
+        /**
+         * Учитывает копию, не получившую ответа
+         *
+         * @return true, если это была последняя копия и гонка проиграна
+         */
+        boolean lose() {
+            return pending.decrementAndGet() == 0 && settled.compareAndSet(false, true);
+        }
+
+        private void cancelCopies() {
+            copies.forEach(copy -> copy.cancel(true));
+        }
+    }
+
+    /**
+     * Очередь копий запросов к хосту, не больше {@code limit} одновременно
+     *
+     * <p>Копии запускаются в вызывающем потоке, часто в потоке реактора. Место, освобождённое
+     * во время запуска, например копией уже решённой гонки, подхватывает тот же цикл, а не
+     * вложенный вызов: иначе длинная очередь отменённых запросов переполнила бы стек.</p>
+     */
+    private static final class HostGate {
+        private final Deque<Runnable> waiting = new ArrayDeque<>();
+        private int permits;
+        private boolean draining;
+
+        private HostGate(int limit) {
+            this.permits = limit;
+        }
+
+        void submit(Runnable task) {
+            synchronized (this) {
+                waiting.add(task);
+            }
+            drain();
+        }
+
+        void release() {
+            synchronized (this) {
+                permits++;
+            }
+            drain();
+        }
+
+        private void drain() {
+            synchronized (this) {
+                if (draining) {
+                    return;
+                }
+                draining = true;
+            }
+            while (true) {
+                Runnable next;
+                synchronized (this) {
+                    if (permits == 0 || waiting.isEmpty()) {
+                        draining = false;
+                        return;
+                    }
+                    permits--;
+                    next = waiting.poll();
+                }
+                try {
+                    next.run();
+                } catch (RuntimeException e) {
+                    synchronized (this) {
+                        draining = false;
+                    }
+                    throw e;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,461 @@
+package com.techstud.schedule_university.fetcher.util;
+
+import com.techstud.schedule_university.fetcher.config.FetcherHttpProperties;
+import com.techstud.schedule_university.fetcher.exception.ResponseTooLargeException;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.ClientProtocolException;
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.classic.methods.HttpGet;
+import org.apache.hc.client5.http.classic.methods.HttpHead;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.ssl.DefaultClientTlsStrategy;
+import org.apache.hc.core5.http.ClassicHttpRequest;
+import org.apache.hc.core5.http.ClassicHttpResponse;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.HttpEntity;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.HttpException;
+import org.apache.hc.core5.http.HttpHeaders;
+import org.apache.hc.core5.http.HttpHost;
+import org.apache.hc.core5.http.HttpStatus;
+import org.apache.hc.core5.http.io.HttpClientResponseHandler;
+import org.apache.hc.core5.http.io.entity.ByteArrayEntity;
+import org.apache.hc.core5.http.io.entity.EntityUtils;
+import org.apache.hc.core5.http.io.entity.HttpEntityWrapper;
+import org.apache.hc.core5.http.message.BasicClassicHttpResponse;
+import org.apache.hc.core5.io.CloseMode;
+import org.apache.hc.core5.pool.PoolConcurrencyPolicy;
+import org.apache.hc.core5.pool.PoolReusePolicy;
+import org.apache.hc.core5.ssl.SSLContexts;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+
+import javax.net.ssl.SSLContext;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Общий HTTP транспорт для всех фетчеров групп
+ *
+ * <p>Держит один пул соединений на всё приложение, поэтому TCP/TLS соединения
+ * переживают отдельные запросы и обходы университетов. TLS сессии кэшируются
+ * общим {@link SSLContext}, так что новые соединения к тому же хосту проходят
+ * сокращённое рукопожатие.</p>
+ */
+@Component
+@Slf4j
+public class FetcherHttpTransport implements DisposableBean {
+
+    private final PoolingHttpClientConnectionManager connectionManager;
+    private final CloseableHttpClient httpClient;
+    private final HttpPageCache pageCache;
+    private final HostRateLimiter rateLimiter;
+    private final HostCircuitBreaker circuitBreaker;
+    private final FetchRetryPolicy retryPolicy;
+    private final FetcherMetrics metrics;
+    private final HttpExchangeArchive archive;
+    private final Map<String, URI> hostOverrides;
+    private final long maxBodySize;
+
+    public FetcherHttpTransport(FetcherHttpProperties properties, HttpPageCache pageCache,
+                                HostRateLimiter rateLimiter, HostCircuitBreaker circuitBreaker,
+                                FetchRetryPolicy retryPolicy, FetcherMetrics metrics,
+                                HttpExchangeArchive archive) {
+        this.pageCache = pageCache;
+        this.rateLimiter = rateLimiter;
+        this.circuitBreaker = circuitBreaker;
+        this.retryPolicy = retryPolicy;
+        this.metrics = metrics;
+        this.archive = archive;
+        this.hostOverrides = properties.getHostOverrides();
+        this.maxBodySize = properties.getMaxBodySize().toBytes();
+
+        SSLContext sslContext = SSLContexts.createSystemDefault();
+        sslContext.getClientSessionContext().setSessionCacheSize(properties.getTlsSessionCacheSize());
+        sslContext.getClientSessionContext().setSessionTimeout((int) properties.getTlsSessionTimeout().toSeconds());
+
+        this.connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setTlsSocketStrategy(new DefaultClientTlsStrategy(sslContext))
+                .setPoolConcurrencyPolicy(PoolConcurrencyPolicy.STRICT)
+                .setConnPoolPolicy(PoolReusePolicy.LIFO)
+                .setMaxConnTotal(properties.getMaxConnTotal())
+                .setMaxConnPerRoute(properties.getMaxConnPerRoute())
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(toTimeout(properties.getConnectTimeout()))
+                        .setSocketTimeout(toTimeout(properties.getResponseTimeout()))
+                        .setTimeToLive(toTimeValue(properties.getConnectionTimeToLive()))
+                        .setValidateAfterInactivity(toTimeValue(properties.getValidateAfterInactivity()))
+                        .build())
+                .build();
+
+        properties.getMaxConnPerHost().forEach((host, max) ->
+                connectionManager.setMaxPerRoute(new HttpRoute(new HttpHost("https", host, 443), null, true), max));
+
+        this.httpClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setResponseTimeout(toTimeout(properties.getResponseTimeout()))
+                        .setConnectionKeepAlive(toTimeValue(properties.getDefaultKeepAlive()))
+                        .build())
+                .disableAutomaticRetries()
+                .disableContentCompression()
+                .evictExpiredConnections()
+                .evictIdleConnections(toTimeValue(properties.getIdleEviction()))
+                .build();
+        metrics.registerConnectionPool("classic", connectionManager);
+    }
+
+    /**
+     * Выполняет запрос через общий пул соединений
+     *
+     * <p>Запрос ждёт своей очереди в {@link HostRateLimiter} и не отправляется, пока
+     * {@link HostCircuitBreaker} считает хост недоступным. GET и HEAD повторяются с
+     * паузой при сетевой ошибке и при ответах, означающих временную недоступность.
+     * Ошибка обработчика ответа не повторяется.</p>
+     *
+     * <p>Тело распаковывается {@link ResponseBodyDecoder} при чтении, обработчик получает
+     * его без {@code Content-Encoding}. Тело больше {@code fetcher.http.max-body-size}
+     * завершает запрос ошибкой {@link ResponseTooLargeException} без повторов.</p>
+     *
+     * <p>В режиме записи {@link HttpExchangeArchive} тело ответа читается целиком до
+     * передачи обработчику, в режиме воспроизведения ответ берётся из архива.</p>
+     *
+     * <p>Обработчик читает тело прямо из соединения, поэтому метрика {@code fetcher.parse}
+     * здесь включает и время получения тела.</p>
+     *
+     * @param request HTTP запрос
+     * @param responseHandler Обработчик ответа, соединение возвращается в пул после его завершения
+     * @return Результат обработчика
+     * @throws IOException При сетевой ошибке или ошибке обработчика
+     */
+    public <T> T execute(ClassicHttpRequest request, HttpClientResponseHandler<? extends T> responseHandler)
+            throws IOException {
+        FetcherHttpUtils.applyHostOverride(request, hostOverrides);
+        ResponseBodyDecoder.applyAcceptEncoding(request);
+        String host = request.getAuthority().getHostName();
+        boolean idempotent = retryPolicy.isIdempotent(request.getMethod());
+        FetcherMetrics.RequestTags tags = metrics.tagsOf(request);
+
+        for (int attempt = 1; ; attempt++) {
+            boolean retriesLeft = idempotent && retryPolicy.hasAttemptsLeft(attempt);
+            try {
+                return executeAttempt(request, host, tags, responseHandler, retriesLeft);
+            } catch (RetryableAttemptException e) {
+                log.warn("Attempt {} of {} {} failed: {}, retrying", attempt, request.getMethod(), host,
+                        e.getMessage());
+                metrics.recordRetry(tags);
+                backoff(host, attempt);
+            }
+        }
+    }
+
+    private <T> T executeAttempt(ClassicHttpRequest request, String host, FetcherMetrics.RequestTags tags,
+                                 HttpClientResponseHandler<? extends T> responseHandler, boolean retriesLeft)
+            throws IOException {
+        circuitBreaker.acquirePermission(host);
+        rateLimiter.acquire(host);
+
+        long start = System.nanoTime();
+        boolean[] responded = new boolean[1];
+        try {
+            return send(request, tags, response -> {
+                responded[0] = true;
+                long latencyNanos = System.nanoTime() - start;
+                Header retryAfter = response.getFirstHeader(HttpHeaders.RETRY_AFTER);
+                rateLimiter.onResponse(host, response.getCode(), retryAfter != null ? retryAfter.getValue() : null,
+                        latencyNanos);
+                metrics.recordResponse(tags, response.getCode(), latencyNanos);
+
+                if (!retryPolicy.isRetryableStatus(response.getCode())) {
+                    circuitBreaker.onSuccess(host);
+                    return handleTimed(responseHandler, response, tags);
+                }
+                circuitBreaker.onFailure(host);
+                if (retriesLeft) {
+                    EntityUtils.consume(response.getEntity());
+                    throw new RetryableAttemptException("status code " + response.getCode());
+                }
+                return handleTimed(responseHandler, response, tags);
+            });
+        } catch (RetryableAttemptException e) {
+            throw e;
+        } catch (IOException e) {
+            if (responded[0]) {
+                throw e;
+            }
+            if (!retryPolicy.isRetryableFailure(e)) {
+                metrics.recordFailure(tags, e);
+                throw e;
+            }
+            rateLimiter.onFailure(host);
+            circuitBreaker.onFailure(host);
+            metrics.recordFailure(tags, e);
+            if (retriesLeft && !Thread.currentThread().isInterrupted()) {
+                throw new RetryableAttemptException(e.getMessage());
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Отправляет запрос и считает байты тела в том виде, в каком они пришли по сети
+     */
+    private <T> T send(ClassicHttpRequest request, FetcherMetrics.RequestTags tags,
+                       HttpClientResponseHandler<T> responseHandler) throws IOException {
+        if (archive.isReplaying()) {
+            HttpExchangeArchive.RecordedResponse recorded = archive.replay(
+                    HttpExchangeArchive.keyOf(request, requestBody(request)));
+            sleep(archive.replayDelayNanos(recorded), request.getAuthority().getHostName());
+            // В архиве тела уже распакованы, другого размера нет
+            metrics.recordBytes(tags, recorded.body() != null ? recorded.body().length : 0);
+            return handle(responseHandler, recorded.toClassicResponse());
+        }
+
+        String key = archive.isRecording() ? HttpExchangeArchive.keyOf(request, requestBody(request)) : null;
+        long start = System.nanoTime();
+        return httpClient.execute(request, response -> {
+            long latencyNanos = System.nanoTime() - start;
+            CountingEntity counted = response.getEntity() != null ? new CountingEntity(response.getEntity()) : null;
+            response.setEntity(counted);
+            try {
+                decodeBody(response);
+                if (key == null) {
+                    return responseHandler.handleResponse(response);
+                }
+
+                HttpEntity entity = response.getEntity();
+                ContentType contentType = entity != null ? ContentType.parseLenient(entity.getContentType()) : null;
+                byte[] body = entity != null ? EntityUtils.toByteArray(entity) : null;
+                archive.record(key, response.getCode(), response.getHeaders(), contentType, body, latencyNanos);
+                response.setEntity(body != null ? new ByteArrayEntity(body, contentType) : null);
+                return responseHandler.handleResponse(response);
+            } finally {
+                // Клиент освобождает соединение через тело ответа, а распаковщик gzip
+                // при открытии читает заголовок уже закрытого потока
+                response.setEntity(counted);
+                metrics.recordBytes(tags, counted != null ? counted.bytesRead : 0);
+            }
+        });
+    }
+
+    private void decodeBody(ClassicHttpResponse response) throws IOException {
+        HttpEntity entity = response.getEntity();
+        if (entity == null) {
+            return;
+        }
+        if (entity.getContentEncoding() != null) {
+            response.removeHeaders(HttpHeaders.CONTENT_ENCODING);
+            response.removeHeaders(HttpHeaders.CONTENT_LENGTH);
+        }
+        response.setEntity(ResponseBodyDecoder.decode(entity, maxBodySize));
+    }
+
+    private static byte[] requestBody(ClassicHttpRequest request) throws IOException {
+        HttpEntity entity = request.getEntity();
+        return entity != null && entity.isRepeatable() ? EntityUtils.toByteArray(entity) : null;
+    }
+
+    private <T> T handleTimed(HttpClientResponseHandler<? extends T> responseHandler, ClassicHttpResponse response,
+                              FetcherMetrics.RequestTags tags) throws HttpException, IOException {
+        long start = System.nanoTime();
+        try {
+            return responseHandler.handleResponse(response);
+        } finally {
+            metrics.recordParse(tags, System.nanoTime() - start);
+        }
+    }
+
+    private void backoff(String host, int attempt) throws InterruptedIOException {
+        try {
+            TimeUnit.NANOSECONDS.sleep(retryPolicy.backoffNanos(attempt));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting to retry " + host);
+        }
+    }
+
+    private static void sleep(long nanos, String host) throws InterruptedIOException {
+        if (nanos <= 0) {
+            return;
+        }
+        try {
+            TimeUnit.NANOSECONDS.sleep(nanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while replaying response of " + host);
+        }
+    }
+
+    /**
+     * Выполняет GET запрос через кэш страниц
+     *
+     * <p>Если страница уже кэшировалась, запрос становится условным. На ответ 304
+     * обработчик получает сохранённое тело. Тело ответа 200 сравнивается по отпечатку
+     * с прошлой версией страницы. Если страница не изменилась и уже разбиралась,
+     * разбор не выполняется вовсе. Адрес должен всегда обрабатываться одним и тем же обработчиком.</p>
+     *
+     * <p>При записи в {@link HttpExchangeArchive} запрос не делается условным, чтобы
+     * в архив попали полные тела страниц.</p>
+     *
+     * @param request GET запрос
+     * @param responseHandler Обработчик ответа
+     * @return Результат обработчика
+     * @throws IOException При сетевой ошибке или ошибке обработчика
+     */
+    public <T> T executeCached(HttpGet request, HttpClientResponseHandler<T> responseHandler) throws IOException {
+        if (!pageCache.isEnabled()) {
+            return execute(request, responseHandler);
+        }
+
+        FetcherHttpUtils.applyHostOverride(request, hostOverrides);
+        String url = requestUrl(request);
+        String host = request.getAuthority().getHostName();
+        HttpPageCache.CachedPage cached = pageCache.lookup(url);
+        if (cached != null && !archive.isRecording()) {
+            pageCache.applyValidators(request, cached);
+        }
+
+        return execute(request, response -> {
+            if (response.getCode() == HttpStatus.SC_NOT_MODIFIED && cached != null && cached.hasBody()) {
+                pageCache.recordNotModified(host);
+                cached.markUnchanged();
+                log.debug("Not modified: {}", url);
+                return cached.extract(() -> handle(responseHandler, bufferedResponse(response, cached.getBody(),
+                        cached.getContentType())));
+            }
+
+            HttpEntity entity = response.getEntity();
+            if (response.getCode() != HttpStatus.SC_OK || entity == null) {
+                return responseHandler.handleResponse(response);
+            }
+
+            ContentType contentType = ContentType.parseLenient(entity.getContentType());
+            byte[] body = EntityUtils.toByteArray(entity);
+            ClassicHttpResponse buffered = bufferedResponse(response, body, contentType);
+            HttpPageCache.CachedPage page = pageCache.store(url, response, contentType, body);
+            return page.extract(() -> handle(responseHandler, buffered));
+        });
+    }
+
+    /**
+     * Заранее открывает соединения к хостам перед плановым обходом
+     *
+     * <p>Ошибки прогрева не пробрасываются: обход всё равно откроет соединение сам</p>
+     *
+     * @param urls Адреса, хосты которых нужно прогреть
+     */
+    public void warmUp(Collection<String> urls) {
+        for (String origin : FetcherHttpUtils.originsOf(urls)) {
+            try {
+                int code = execute(new HttpHead(origin), response -> response.getCode());
+                log.debug("Warmed up connection to {}, status code: {}", origin, code);
+            } catch (IOException e) {
+                log.warn("Failed to warm up connection to {}: {}", origin, e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        httpClient.close(CloseMode.GRACEFUL);
+    }
+
+    private static String requestUrl(HttpGet request) throws IOException {
+        try {
+            return request.getUri().toString();
+        } catch (URISyntaxException e) {
+            throw new IOException("Invalid request URI", e);
+        }
+    }
+
+    private static ClassicHttpResponse bufferedResponse(ClassicHttpResponse original, byte[] body,
+                                                        ContentType contentType) {
+        BasicClassicHttpResponse buffered = new BasicClassicHttpResponse(HttpStatus.SC_OK);
+        buffered.setHeaders(original.getHeaders());
+        buffered.setEntity(new ByteArrayEntity(body, contentType));
+        return buffered;
+    }
+
+    private static <T> T handle(HttpClientResponseHandler<T> responseHandler, ClassicHttpResponse response)
+            throws IOException {
+        try {
+            return responseHandler.handleResponse(response);
+        } catch (HttpException e) {
+            throw new ClientProtocolException(e);
+        }
+    }
+
+    private static Timeout toTimeout(Duration duration) {
+        return Timeout.ofMilliseconds(duration.toMillis());
+    }
+
+    private static TimeValue toTimeValue(Duration duration) {
+        return TimeValue.ofMilliseconds(duration.toMillis());
+    }
+
+    /**
+     * Тело ответа, считающее прочитанные байты
+     */
+    private static final class CountingEntity extends HttpEntityWrapper {
+        private long bytesRead;
+
+        private CountingEntity(HttpEntity entity) {
+            super(entity);
+        }
+
+        @Override
+        public InputStream getContent() throws IOException {
+            return new FilterInputStream(super.getContent()) {
+                @Override
+                public int read() throws IOException {
+                    int value = super.read();
+                    if (value >= 0) {
+                        bytesRead++;
+                    }
+                    return value;
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) throws IOException {
+                    int count = super.read(buffer, offset, length);
+                    if (count > 0) {
+                        bytesRead += count;
+                    }
+                    return count;
+                }
+            };
+        }
+
+        @Override
+        public void writeTo(OutputStream outputStream) throws IOException {
+            try (InputStream content = getContent()) {
+                content.transferTo(outputStream);
+            }
+        }
+    }
+
+    /**
+     * Попытка не удалась, и запрос можно повторить
+     */
+    private static final class RetryableAttemptException extends IOException {
+        private RetryableAttemptException(String message) {
+            super(message);
+        }
+    }
+}
@@ -2,23 +2,59 @@ package com.techstud.schedule_university.fetcher.util;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.techstud.schedule_university.fetcher.exception.ResponseTooLargeException;
+import com.techstud.schedule_university.fetcher.exception.UnexpectedResponseStatusException;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
 import org.apache.hc.core5.http.ClassicHttpResponse;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.HttpEntity;
+import org.apache.hc.core5.http.HttpRequest;
 import org.apache.hc.core5.http.ParseException;
 import org.apache.hc.core5.http.io.HttpClientResponseHandler;
 import org.apache.hc.core5.http.io.entity.EntityUtils;
+import org.apache.hc.core5.net.URIAuthority;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Slf4j
 public class FetcherHttpUtils {
 
     private static final ObjectMapper MAPPER = new ObjectMapper();
 
+    /**
+     * Обработчик JSON ответа, разбирающий тело прямо из потока без промежуточной строки
+     */
     public static <T> HttpClientResponseHandler<T> createResponseHandler(TypeReference<T> typeReference) {
-        return response -> processResponse(response, body -> MAPPER.readValue(body, typeReference));
+        return response -> {
+            checkStatus(response.getCode());
+            HttpEntity entity = response.getEntity();
+            if (entity == null) {
+                log.error("Response body is empty or null");
+                throw new IOException("Empty or null response body");
+            }
+
+            try (InputStream content = entity.getContent()) {
+                return MAPPER.readValue(content, typeReference);
+            } catch (ResponseTooLargeException e) {
+                throw e;
+            } catch (IOException e) {
+                log.error("Error processing response body: {}", e.getMessage());
+                throw new IOException("Failed to process response body", e);
+            }
+        };
     }
 
     public static <T> HttpClientResponseHandler<T> createResponseHandler(Class<T> responseType, boolean isHtml) {
@@ -35,11 +71,7 @@ public class FetcherHttpUtils {
 
     private static <T> T processResponse(ClassicHttpResponse response, BodyProcessor<T> bodyProcessor)
             throws IOException, ParseException {
-        int statusCode = response.getCode();
-        if (statusCode != 200) {
-            log.error("Error while getting response, status code: {}", statusCode);
-            throw new IOException("Unexpected response code: " + statusCode);
-        }
+        checkStatus(response.getCode());
 
         String responseBody = EntityUtils.toString(response.getEntity(), StandardCharsets.UTF_8);
 
@@ -51,11 +83,85 @@ public class FetcherHttpUtils {
         try {
             return bodyProcessor.process(responseBody);
         } catch (Exception e) {
-            log.error("Error processing response body: {}", responseBody, e);
+            log.error("Error processing response body: {}", ResponseBodyDecoder.preview(responseBody), e);
             throw new IOException("Failed to process response body", e);
         }
     }
 
+    public static <T> T processResponse(SimpleHttpResponse response, ThrowingFunction<String, T> bodyProcessor)
+            throws IOException {
+        checkStatus(response.getCode());
+
+        byte[] bodyBytes = response.getBodyBytes();
+        ContentType contentType = response.getContentType();
+        Charset charset = contentType != null && contentType.getCharset() != null
+                ? contentType.getCharset()
+                : StandardCharsets.UTF_8;
+        String responseBody = bodyBytes == null ? "" : new String(bodyBytes, charset);
+
+        if (responseBody.isBlank()) {
+            log.error("Response body is empty or null");
+            throw new IOException("Empty or null response body");
+        }
+
+        try {
+            return bodyProcessor.apply(responseBody);
+        } catch (Exception e) {
+            log.error("Error processing response body: {}", ResponseBodyDecoder.preview(responseBody), e);
+            throw new IOException("Failed to process response body", e);
+        }
+    }
+
+    private static void checkStatus(int statusCode) throws UnexpectedResponseStatusException {
+        if (statusCode != 200) {
+            log.error("Error while getting response, status code: {}", statusCode);
+            throw new UnexpectedResponseStatusException(statusCode);
+        }
+    }
+
+    /**
+     * Отправляет запрос на адрес, заданный для его хоста в {@code hostOverrides}
+     *
+     * @param request HTTP запрос, меняются только схема и authority
+     * @param hostOverrides Адреса по хостам
+     */
+    public static void applyHostOverride(HttpRequest request, Map<String, URI> hostOverrides) {
+        if (hostOverrides.isEmpty() || request.getAuthority() == null) {
+            return;
+        }
+        URI target = hostOverrides.get(request.getAuthority().getHostName());
+        if (target != null) {
+            request.setScheme(target.getScheme());
+            request.setAuthority(new URIAuthority(target.getHost(), target.getPort()));
+        }
+    }
+
+    /**
+     * Корневые адреса хостов, без повторов
+     *
+     * @param urls Адреса страниц
+     * @return Адреса вида {@code https://host/} в порядке первого появления
+     */
+    public static Set<String> originsOf(Collection<String> urls) {
+        return urls.stream()
+                .map(URI::create)
+                .map(uri -> uri.getScheme() + "://" + uri.getAuthority() + "/")
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+
+    /**
+     * Собирает результаты нескольких асинхронных загрузок в один список
+     *
+     * @param futures Загрузки, каждая из которых возвращает часть результата
+     * @return Future, завершающийся после всех загрузок
+     */
+    public static <T> CompletableFuture<List<T>> allOfFlattened(List<CompletableFuture<List<T>>> futures) {
+        return CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new))
+                .thenApply(ignored -> futures.stream()
+                        .flatMap(future -> future.join().stream())
+                        .toList());
+    }
+
     @FunctionalInterface
     private interface BodyProcessor<T> {
         T process(String body) throws Exception;
@@ -0,0 +1,289 @@
+package com.techstud.schedule_university.fetcher.util;
+
+import com.techstud.schedule_university.fetcher.dto.CacheHostStats;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.hc.core5.http.HttpRequest;
+import org.apache.hc.core5.pool.ConnPoolControl;
+import org.apache.hc.core5.pool.PoolStats;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * Метрики обходов и запросов к сайтам университетов
+ *
+ * <p>Метрики обхода помечаются тегом {@code university}, метрики запросов - тегами
+ * {@code university} и {@code page}. Университет запроса берётся из обхода, выполняющегося
+ * в текущем потоке, а для запросов из потоков реактора - по хосту, к которому этот
+ * обход уже обращался.</p>
+ *
+ * <p>Тип страницы - шаблон URL: сегменты пути с цифрами заменяются на {@code {id}},
+ * из запроса остаются только имена параметров. Для каждого хоста учитывается не больше
+ * {@value #MAX_PAGES_PER_HOST} шаблонов, остальные страницы попадают в {@code other}.</p>
+ */
+@Component
+public class FetcherMetrics {
+
+    public static final String UNKNOWN = "unknown";
+
+    private static final int MAX_PAGES_PER_HOST = 20;
+    private static final String OTHER_PAGE = "other";
+    private static final ThreadLocal<String> CURRENT_UNIVERSITY = new ThreadLocal<>();
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, String> hostUniversities = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> hostPages = new ConcurrentHashMap<>();
+
+    public FetcherMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Теги запроса
+     */
+    public record RequestTags(String university, String page) {
+    }
+
+    /**
+     * Выполняет обход университета, замеряя его длительность и число найденных групп
+     *
+     * @param universityName Название университета
+     * @param crawl Блокирующий обход
+     */
+    public <T extends Collection<?>> T recordCrawl(String universityName, Supplier<T> crawl) {
+        return recordCrawl(universityName, crawl, Collection::size);
+    }
+
+    /**
+     * Выполняет обход, передающий группы получателю, замеряя его длительность и число групп
+     *
+     * @param universityName Название университета
+     * @param crawl Блокирующий обход, возвращающий число переданных групп
+     * @return Число переданных групп
+     */
+    public long recordStreamedCrawl(String universityName, LongSupplier crawl) {
+        return recordCrawl(universityName, crawl::getAsLong, Long::longValue);
+    }
+
+    private <T> T recordCrawl(String universityName, Supplier<T> crawl, ToLongFunction<T> groupCount) {
+        String previous = CURRENT_UNIVERSITY.get();
+        CURRENT_UNIVERSITY.set(universityName);
+        long start = System.nanoTime();
+        String outcome = "failure";
+        try {
+            T groups = crawl.get();
+            outcome = "success";
+            DistributionSummary.builder("fetcher.crawl.groups")
+                    .description("Groups extracted by a crawl")
+                    .tag("university", universityName)
+                    .register(meterRegistry)
+                    .record(groupCount.applyAsLong(groups));
+            return groups;
+        } finally {
+            Timer.builder("fetcher.crawl")
+                    .description("Total crawl duration")
+                    .tags("university", universityName, "outcome", outcome)
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            if (previous != null) {
+                CURRENT_UNIVERSITY.set(previous);
+            } else {
+                CURRENT_UNIVERSITY.remove();
+            }
+        }
+    }
+
+    /**
+     * Определяет теги запроса, вызывается при его отправке
+     */
+    public RequestTags tagsOf(HttpRequest request) {
+        URI uri;
+        try {
+            uri = request.getUri();
+        } catch (URISyntaxException e) {
+            return new RequestTags(universityOf(request.getAuthority().getHostName()), OTHER_PAGE);
+        }
+        String host = uri.getHost() != null ? uri.getHost() : UNKNOWN;
+        return new RequestTags(universityOf(host), pageOf(host, uri));
+    }
+
+    private String universityOf(String host) {
+        String university = CURRENT_UNIVERSITY.get();
+        if (university != null) {
+            hostUniversities.put(host, university);
+        } else {
+            university = hostUniversities.getOrDefault(host, UNKNOWN);
+        }
+        return university;
+    }
+
+    /**
+     * Учитывает ответ
+     *
+     * @param latencyNanos Время до получения заголовков ответа
+     */
+    public void recordResponse(RequestTags tags, int statusCode, long latencyNanos) {
+        String status = String.valueOf(statusCode);
+        Timer.builder("fetcher.http.requests")
+                .description("Latency of requests to university sites")
+                .tags("university", tags.university(), "page", tags.page(), "status", status)
+                .register(meterRegistry)
+                .record(latencyNanos, TimeUnit.NANOSECONDS);
+        if (statusCode >= 400) {
+            recordError(tags, status);
+        }
+    }
+
+    /**
+     * Учитывает запрос, не получивший ответа
+     */
+    public void recordFailure(RequestTags tags, Exception e) {
+        recordError(tags, e.getClass().getSimpleName());
+    }
+
+    /**
+     * Публикует загрузку пула соединений транспорта
+     *
+     * @param client Тег транспорта: {@code classic} или {@code async}
+     * @param pool Пул соединений
+     */
+    public void registerConnectionPool(String client, ConnPoolControl<?> pool) {
+        poolGauge("fetcher.http.pool.leased", "Connections in use", client, pool, PoolStats::getLeased);
+        poolGauge("fetcher.http.pool.available", "Idle connections kept alive", client, pool,
+                PoolStats::getAvailable);
+        poolGauge("fetcher.http.pool.pending", "Requests waiting for a connection", client, pool,
+                PoolStats::getPending);
+        poolGauge("fetcher.http.pool.max", "Maximum number of connections", client, pool, PoolStats::getMax);
+    }
+
+    /**
+     * Публикует счётчики кэша страниц хоста
+     *
+     * @param host Хост
+     * @param pageCache Кэш страниц
+     */
+    public void registerPageCache(String host, HttpPageCache pageCache) {
+        cacheCounter("not_modified", host, pageCache, CacheHostStats::notModified);
+        cacheCounter("unchanged", host, pageCache, CacheHostStats::unchanged);
+        cacheCounter("changed", host, pageCache, CacheHostStats::changed);
+        Gauge.builder("fetcher.cache.hit.ratio", pageCache, cache -> cache.getHostStats(host).hitRatio())
+                .description("Share of fetched pages that did not need parsing")
+                .tag("host", host)
+                .register(meterRegistry);
+    }
+
+    private void cacheCounter(String result, String host, HttpPageCache pageCache,
+                              ToLongFunction<CacheHostStats> value) {
+        FunctionCounter.builder("fetcher.cache.pages", pageCache,
+                        cache -> value.applyAsLong(cache.getHostStats(host)))
+                .description("Fetched pages by cache outcome: 304, unchanged fingerprint or changed")
+                .tag("host", host)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private void poolGauge(String name, String description, String client, ConnPoolControl<?> pool,
+                           ToIntFunction<PoolStats> value) {
+        Gauge.builder(name, pool, p -> value.applyAsInt(p.getTotalStats()))
+                .description(description)
+                .tag("client", client)
+                .register(meterRegistry);
+    }
+
+    public void recordBytes(RequestTags tags, long bytes) {
+        DistributionSummary.builder("fetcher.http.response.size")
+                .description("Response body size as transferred, before decoding")
+                .baseUnit("bytes")
+                .tags("university", tags.university(), "page", tags.page())
+                .register(meterRegistry)
+                .record(bytes);
+    }
+
+    public void recordParse(RequestTags tags, long parseNanos) {
+        Timer.builder("fetcher.parse")
+                .description("Time spent extracting data from response bodies")
+                .tags("university", tags.university(), "page", tags.page())
+                .register(meterRegistry)
+                .record(parseNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordRetry(RequestTags tags) {
+        counter("fetcher.http.retries", "Requests retried after a failure", tags).increment();
+    }
+
+    public void recordHedge(RequestTags tags) {
+        counter("fetcher.http.hedges", "Hedged copies of slow requests", tags).increment();
+    }
+
+    private void recordError(RequestTags tags, String status) {
+        Counter.builder("fetcher.http.errors")
+                .description("Failed requests by status code or exception")
+                .tags("university", tags.university(), "page", tags.page(), "status", status)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private Counter counter(String name, String description, RequestTags tags) {
+        return Counter.builder(name)
+                .description(description)
+                .tags("university", tags.university(), "page", tags.page())
+                .register(meterRegistry);
+    }
+
+    private String pageOf(String host, URI uri) {
+        String page = template(uri);
+        Set<String> pages = hostPages.computeIfAbsent(host, ignored -> ConcurrentHashMap.newKeySet());
+        if (pages.contains(page)) {
+            return page;
+        }
+        synchronized (pages) {
+            if (pages.size() >= MAX_PAGES_PER_HOST) {
+                return OTHER_PAGE;
+            }
+            pages.add(page);
+        }
+        return page;
+    }
+
+    private static String template(URI uri) {
+        StringBuilder template = new StringBuilder();
+        String path = uri.getRawPath();
+        if (path != null) {
+            for (String segment : path.split("/")) {
+                if (!segment.isEmpty()) {
+                    template.append('/').append(segment.chars().anyMatch(Character::isDigit) ? "{id}" : segment);
+                }
+            }
+        }
+        if (template.isEmpty()) {
+            template.append('/');
+        }
+
+        String query = uri.getRawQuery();
+        if (query != null && !query.isEmpty()) {
+            Set<String> names = new TreeSet<>();
+            for (String parameter : query.split("&")) {
+                int separator = parameter.indexOf('=');
+                names.add(separator >= 0 ? parameter.substring(0, separator) : parameter);
+            }
+            template.append('?').append(String.join("&", names));
+        }
+        return template.toString();
+    }
+}
@@ -0,0 +1,103 @@
+package com.techstud.schedule_university.fetcher.util;
+
+import com.techstud.schedule_university.fetcher.config.FetcherHedgeProperties;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Политика дублирующих запросов
+ *
+ * <p>Для каждого хоста хранит окно последних задержек и бюджет копий. Задержка
+ * запроса, выигранного копией, учитывается как время до ответа копии, так что медленный
+ * хост не перестаёт выглядеть медленным из-за того, что его ответы дублируются.</p>
+ */
+@Component
+@RequiredArgsConstructor
+public class HedgePolicy {
+
+    private final FetcherHedgeProperties properties;
+    private final Map<String, HostLatencies> hosts = new ConcurrentHashMap<>();
+
+    /**
+     * Учитывает отправку запроса и пополняет бюджет копий
+     *
+     * @return Через сколько наносекунд без ответа отправить копию, или -1, если копия не нужна
+     */
+    public long onRequest(String host) {
+        if (!properties.isEnabled()) {
+            return -1;
+        }
+        return latencies(host).onRequest();
+    }
+
+    /**
+     * Тратит единицу бюджета на копию запроса
+     *
+     * @return false, если бюджет хоста исчерпан
+     */
+    public boolean tryAcquireHedge(String host) {
+        return latencies(host).tryAcquireHedge();
+    }
+
+    public void recordLatency(String host, long latencyNanos) {
+        if (properties.isEnabled()) {
+            latencies(host).record(latencyNanos);
+        }
+    }
+
+    /**
+     * @return Задержка, после которой отправляется копия, или -1, если замеров ещё мало
+     */
+    public long getHedgeDelayNanos(String host) {
+        return latencies(host).hedgeDelay();
+    }
+
+    private HostLatencies latencies(String host) {
+        return hosts.computeIfAbsent(host, ignored -> new HostLatencies(properties.getWindow()));
+    }
+
+    private final class HostLatencies {
+        private final long[] samples;
+        private int next;
+        private int count;
+        private double budget;
+
+        private HostLatencies(int window) {
+            this.samples = new long[window];
+        }
+
+        synchronized long onRequest() {
+            budget = Math.min(properties.getMaxBudget(), budget + properties.getBudgetRatio());
+            return hedgeDelay();
+        }
+
+        synchronized boolean tryAcquireHedge() {
+            if (budget < 1) {
+                return false;
+            }
+            budget--;
+            return true;
+        }
+
+        synchronized void record(long latencyNanos) {
+            samples[next] = latencyNanos;
+            next = (next + 1) % samples.length;
+            count = Math.min(count + 1, samples.length);
+        }
+
+        synchronized long hedgeDelay() {
+            if (count < properties.getMinSamples()) {
+                return -1;
+            }
+            long[] sorted = Arrays.copyOf(samples, count);
+            Arrays.sort(sorted);
+            int index = (int) Math.ceil(properties.getPercentile() * count) - 1;
+            long delay = sorted[Math.max(0, Math.min(index, count - 1))];
+            return Math.max(delay, properties.getMinDelay().toNanos());
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.techstud.schedule_university.fetcher.util;
+
+import com.techstud.schedule_university.fetcher.config.FetcherResilienceProperties;
+import com.techstud.schedule_university.fetcher.exception.CircuitOpenException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Размыкатель цепи для каждого хоста
+ *
+ * <p>После {@code failureThreshold} неудачных запросов подряд хост считается
+ * недоступным, и запросы к нему сразу завершаются {@link CircuitOpenException}.
+ * Через {@code openDuration} пропускается один пробный запрос: если он удался, цепь
+ * замыкается, иначе снова размыкается. Пробный запрос, не давший результата за
+ * {@code openDuration}, например отменённый, считается потерянным, и пропускается новый.
+ * Неудачей считаются сетевые ошибки и ответы из {@code retryableStatuses}.</p>
+ */
+@Component
+@Slf4j
+public class HostCircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final FetcherResilienceProperties properties;
+    private final Clock clock;
+    private final Map<String, HostCircuit> circuits = new ConcurrentHashMap<>();
+
+    @Autowired
+    public HostCircuitBreaker(FetcherResilienceProperties properties) {
+        this(properties, Clock.systemUTC());
+    }
+
+    public HostCircuitBreaker(FetcherResilienceProperties properties, Clock clock) {
+        this.properties = properties;
+        this.clock = clock;
+    }
+
+    /**
+     * Проверяет, можно ли отправить запрос к хосту
+     *
+     * @throws CircuitOpenException Если цепь разомкнута или пробный запрос уже отправлен
+     */
+    public void acquirePermission(String host) throws CircuitOpenException {
+        circuit(host).acquirePermission(host);
+    }
+
+    public void onSuccess(String host) {
+        circuit(host).onSuccess(host);
+    }
+
+    public void onFailure(String host) {
+        circuit(host).onFailure(host);
+    }
+
+    public State getState(String host) {
+        return circuit(host).state;
+    }
+
+    private HostCircuit circuit(String host) {
+        return circuits.computeIfAbsent(host, ignored -> new HostCircuit());
+    }
+
+    private final class HostCircuit {
+        private volatile State state = State.CLOSED;
+        private int consecutiveFailures;
+        private Instant openedAt;
+        private Instant probeStartedAt;
+
+        synchronized void acquirePermission(String host) throws CircuitOpenException {
+            if (state == State.CLOSED) {
+                return;
+            }
+            Instant now = clock.instant();
+            if (state == State.OPEN && now.isAfter(openedAt.plus(properties.getOpenDuration()))) {
+                state = State.HALF_OPEN;
+                probeStartedAt = null;
+                log.info("Circuit for {} is half-open, probing", host);
+            }
+            if (state == State.HALF_OPEN
+                    && (probeStartedAt == null || now.isAfter(probeStartedAt.plus(properties.getOpenDuration())))) {
+                probeStartedAt = now;
+                return;
+            }
+            throw new CircuitOpenException(host);
+        }
+
+        synchronized void onSuccess(String host) {
+            if (state != State.CLOSED) {
+                log.info("Circuit for {} closed, host is available again", host);
+            }
+            state = State.CLOSED;
+            consecutiveFailures = 0;
+            probeStartedAt = null;
+        }
+
+        synchronized void onFailure(String host) {
+            consecutiveFailures++;
+            if (state == State.HALF_OPEN || consecutiveFailures >= properties.getFailureThreshold()) {
+                if (state != State.OPEN) {
+                    log.warn("Circuit for {} opened after {} consecutive failures", host, consecutiveFailures);
+                }
+                state = State.OPEN;
+                openedAt = clock.instant();
+                probeStartedAt = null;
+            }
+        }
+    }
+}
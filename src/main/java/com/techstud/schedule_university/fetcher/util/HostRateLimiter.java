@@ -0,0 +1,264 @@
+package com.techstud.schedule_university.fetcher.util;
+
+import com.techstud.schedule_university.fetcher.config.FetcherRateLimitProperties;
+import com.techstud.schedule_university.fetcher.config.FetcherRateLimitProperties.HostLimit;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.utils.DateUtils;
+import org.apache.hc.core5.http.HttpStatus;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.InterruptedIOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ограничение частоты запросов к каждому хосту
+ *
+ * <p>Для каждого хоста держится token bucket. Частота подстраивается по AIMD: каждый
+ * нормальный ответ прибавляет к ней около {@code increaseStep} за секунду запросов,
+ * а ответ 429/503, сетевая ошибка или всплеск задержки делят её на
+ * {@code 1 / decreaseFactor}, не чаще раза в {@code decreaseCooldown}. Всплеском считается
+ * ответ в {@code latencySpikeFactor} раз медленнее скользящего среднего хоста.</p>
+ *
+ * <p>Retry-After приостанавливает хост целиком до указанного времени.</p>
+ */
+@Component
+@Slf4j
+public class HostRateLimiter {
+
+    private static final int LATENCY_WARM_UP_SAMPLES = 5;
+    private static final double LATENCY_EWMA_WEIGHT = 0.2;
+
+    private final FetcherRateLimitProperties properties;
+    private final Clock clock;
+    private final Map<String, HostBucket> buckets = new ConcurrentHashMap<>();
+
+    @Autowired
+    public HostRateLimiter(FetcherRateLimitProperties properties) {
+        this(properties, Clock.systemUTC());
+    }
+
+    public HostRateLimiter(FetcherRateLimitProperties properties, Clock clock) {
+        this.properties = properties;
+        this.clock = clock;
+    }
+
+    /**
+     * Резервирует запрос к хосту
+     *
+     * @return Сколько наносекунд нужно подождать перед отправкой
+     */
+    public long reserve(String host) {
+        if (!properties.isEnabled()) {
+            return 0;
+        }
+        return bucket(host).reserve(nanoTime());
+    }
+
+    /**
+     * Резервирует запрос к хосту, только если его можно отправить сразу
+     *
+     * @return false, если пришлось бы ждать, резерв при этом не делается
+     */
+    public boolean tryReserve(String host) {
+        return tryReserveNanos(host) == 0;
+    }
+
+    /**
+     * Резервирует запрос к хосту, только если его можно отправить сразу
+     *
+     * <p>Резерв берётся непосредственно перед отправкой, поэтому пауза по Retry-After и
+     * снижение частоты действуют и на запросы, которые уже ждут своей очереди.</p>
+     *
+     * @return 0, если запрос зарезервирован, иначе сколько наносекунд ждать до следующей попытки
+     */
+    public long tryReserveNanos(String host) {
+        if (!properties.isEnabled()) {
+            return 0;
+        }
+        return bucket(host).tryReserve(nanoTime());
+    }
+
+    /**
+     * Блокирует поток до момента, когда запрос к хосту можно отправить
+     */
+    public void acquire(String host) throws InterruptedIOException {
+        for (long waitNanos = tryReserveNanos(host); waitNanos > 0; waitNanos = tryReserveNanos(host)) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(waitNanos);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for rate limit of " + host);
+            }
+        }
+    }
+
+    /**
+     * Учитывает ответ хоста
+     *
+     * @param host Хост
+     * @param statusCode Код ответа
+     * @param retryAfter Значение заголовка Retry-After или null
+     * @param latencyNanos Время до получения заголовков ответа
+     */
+    public void onResponse(String host, int statusCode, String retryAfter, long latencyNanos) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        HostBucket bucket = bucket(host);
+        long now = nanoTime();
+
+        if (statusCode == HttpStatus.SC_TOO_MANY_REQUESTS || statusCode == HttpStatus.SC_SERVICE_UNAVAILABLE) {
+            Duration pause = parseRetryAfter(retryAfter);
+            if (pause != null) {
+                bucket.pause(now, pause.toNanos());
+                log.warn("Host {} asked to retry after {}, pausing requests", host, pause);
+            }
+            bucket.decrease(now, "status " + statusCode);
+            return;
+        }
+
+        if (bucket.isLatencySpike(latencyNanos)) {
+            bucket.decrease(now, "latency " + TimeUnit.NANOSECONDS.toMillis(latencyNanos) + " ms");
+        } else {
+            bucket.increase();
+        }
+        bucket.recordLatency(latencyNanos);
+    }
+
+    /**
+     * Учитывает сетевую ошибку или таймаут
+     */
+    public void onFailure(String host) {
+        if (properties.isEnabled()) {
+            bucket(host).decrease(nanoTime(), "request failure");
+        }
+    }
+
+    /**
+     * @return Текущая частота запросов к хосту, запросов в секунду
+     */
+    public double getRate(String host) {
+        return bucket(host).rate;
+    }
+
+    private HostBucket bucket(String host) {
+        return buckets.computeIfAbsent(host, this::createBucket);
+    }
+
+    private HostBucket createBucket(String host) {
+        HostLimit limit = properties.getHosts().get(host);
+        double maxRate = limit != null && limit.getMaxRate() != null ? limit.getMaxRate() : properties.getDefaultMaxRate();
+        double rate = limit != null && limit.getRate() != null ? limit.getRate() : properties.getDefaultRate();
+        return new HostBucket(host, Math.min(rate, maxRate), maxRate);
+    }
+
+    private Duration parseRetryAfter(String retryAfter) {
+        if (retryAfter == null || retryAfter.isBlank()) {
+            return null;
+        }
+
+        Duration pause;
+        try {
+            pause = Duration.ofSeconds(Long.parseLong(retryAfter.trim()));
+        } catch (NumberFormatException e) {
+            Instant retryAt = DateUtils.parseStandardDate(retryAfter);
+            if (retryAt == null) {
+                return null;
+            }
+            pause = Duration.between(clock.instant(), retryAt);
+        }
+
+        if (pause.isNegative()) {
+            return Duration.ZERO;
+        }
+        return pause.compareTo(properties.getMaxRetryAfter()) > 0 ? properties.getMaxRetryAfter() : pause;
+    }
+
+    private long nanoTime() {
+        Instant now = clock.instant();
+        return now.getEpochSecond() * 1_000_000_000L + now.getNano();
+    }
+
+    private final class HostBucket {
+        private final String host;
+        private final double maxRate;
+        private volatile double rate;
+        private double storedPermits;
+        private long nextFreeNanos;
+        private long lastDecreaseNanos = Long.MIN_VALUE;
+        private double latencyEwmaNanos;
+        private int latencySamples;
+
+        private HostBucket(String host, double rate, double maxRate) {
+            this.host = host;
+            this.rate = rate;
+            this.maxRate = maxRate;
+            this.storedPermits = properties.getBurst();
+        }
+
+        synchronized long reserve(long now) {
+            if (now > nextFreeNanos) {
+                storedPermits = Math.min(properties.getBurst(), storedPermits + (now - nextFreeNanos) * rate / 1e9);
+                nextFreeNanos = now;
+            }
+
+            double fromStored = Math.min(1, storedPermits);
+            storedPermits -= fromStored;
+            long startAt = nextFreeNanos;
+            nextFreeNanos += (long) ((1 - fromStored) * 1e9 / rate);
+            return Math.max(0, startAt - now);
+        }
+
+        synchronized long tryReserve(long now) {
+            if (nextFreeNanos > now) {
+                return nextFreeNanos - now;
+            }
+            reserve(now);
+            return 0;
+        }
+
+        synchronized void pause(long now, long pauseNanos) {
+            storedPermits = 0;
+            nextFreeNanos = Math.max(nextFreeNanos, now + pauseNanos);
+        }
+
+        synchronized void decrease(long now, String reason) {
+            if (lastDecreaseNanos != Long.MIN_VALUE
+                    && now - lastDecreaseNanos < properties.getDecreaseCooldown().toNanos()) {
+                return;
+            }
+            lastDecreaseNanos = now;
+            double decreased = Math.max(properties.getMinRate(), rate * properties.getDecreaseFactor());
+            log.info("Rate limit for {} decreased from {} to {} req/s: {}", host, format(rate), format(decreased),
+                    reason);
+            rate = decreased;
+        }
+
+        synchronized void increase() {
+            rate = Math.min(maxRate, rate + properties.getIncreaseStep() / Math.max(rate, 1));
+        }
+
+        synchronized boolean isLatencySpike(long latencyNanos) {
+            return latencySamples >= LATENCY_WARM_UP_SAMPLES
+                    && latencyNanos >= properties.getMinLatencySpike().toNanos()
+                    && latencyNanos > latencyEwmaNanos * properties.getLatencySpikeFactor();
+        }
+
+        synchronized void recordLatency(long latencyNanos) {
+            latencyEwmaNanos = latencySamples == 0
+                    ? latencyNanos
+                    : latencyEwmaNanos + LATENCY_EWMA_WEIGHT * (latencyNanos - latencyEwmaNanos);
+            latencySamples++;
+        }
+
+        private static String format(double rate) {
+            return String.format("%.2f", rate);
+        }
+    }
+}
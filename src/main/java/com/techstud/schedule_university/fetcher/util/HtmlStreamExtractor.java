@@ -0,0 +1,154 @@
+package com.techstud.schedule_university.fetcher.util;
+
+import com.techstud.schedule_university.fetcher.exception.UnexpectedResponseStatusException;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.HttpEntity;
+import org.apache.hc.core5.http.io.HttpClientResponseHandler;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.jsoup.parser.Parser;
+import org.jsoup.parser.StreamParser;
+import org.jsoup.select.Evaluator;
+import org.jsoup.select.QueryParser;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Потоковое извлечение элементов из HTML ответов
+ *
+ * <p>Страница разбирается {@link StreamParser} прямо из потока тела. Каждый закрытый
+ * элемент проверяется селектором: совпавший отдаётся в обработку, остальные удаляются
+ * из дерева, если ни один из их открытых предков не может совпасть. Так в памяти
+ * остаётся только путь от корня до текущего места разбора.</p>
+ *
+ * <p>Селектор проверяется в момент закрытия элемента, поэтому комбинаторы соседей
+ * ({@code +}, {@code ~}), {@code :has} и позиционные псевдоклассы не поддерживаются.</p>
+ */
+@Slf4j
+public class HtmlStreamExtractor {
+
+    /**
+     * Компилирует CSS селектор, результат стоит хранить в константе
+     */
+    public static Evaluator compile(String cssQuery) {
+        return QueryParser.parse(cssQuery);
+    }
+
+    /**
+     * Создаёт обработчик ответа, извлекающий совпавшие элементы из потока
+     *
+     * @param selector Скомпилированный селектор
+     * @param mapper Преобразование элемента, null пропускается
+     */
+    public static <T> HttpClientResponseHandler<List<T>> createStreamingResponseHandler(
+            Evaluator selector, FetcherHttpUtils.ThrowingFunction<Element, T> mapper) {
+        return response -> {
+            int statusCode = response.getCode();
+            if (statusCode != 200) {
+                log.error("Error while getting response, status code: {}", statusCode);
+                throw new UnexpectedResponseStatusException(statusCode);
+            }
+
+            HttpEntity entity = response.getEntity();
+            if (entity == null) {
+                log.error("Response body is empty or null");
+                throw new IOException("Empty or null response body");
+            }
+
+            try (InputStream body = entity.getContent()) {
+                return extract(new InputStreamReader(body, charsetOf(ContentType.parseLenient(entity.getContentType()))),
+                        selector, mapper);
+            }
+        };
+    }
+
+    /**
+     * Извлекает совпавшие элементы из тела асинхронного ответа без копирования в строку
+     *
+     * @param response Ответ
+     * @param selector Скомпилированный селектор
+     * @param mapper Преобразование элемента, null пропускается
+     */
+    public static <T> List<T> processResponse(SimpleHttpResponse response, Evaluator selector,
+                                              FetcherHttpUtils.ThrowingFunction<Element, T> mapper)
+            throws IOException {
+        int statusCode = response.getCode();
+        if (statusCode != 200) {
+            log.error("Error while getting response, status code: {}", statusCode);
+            throw new UnexpectedResponseStatusException(statusCode);
+        }
+
+        byte[] body = response.getBodyBytes();
+        if (body == null || body.length == 0) {
+            log.error("Response body is empty or null");
+            throw new IOException("Empty or null response body");
+        }
+
+        return extract(new InputStreamReader(new ByteArrayInputStream(body), charsetOf(response.getContentType())),
+                selector, mapper);
+    }
+
+    private static <T> List<T> extract(Reader reader, Evaluator selector,
+                                       FetcherHttpUtils.ThrowingFunction<Element, T> mapper) throws IOException {
+        List<T> results = new ArrayList<>();
+
+        try (StreamParser streamParser = new StreamParser(Parser.htmlParser()).parse(new BufferedReader(reader), "")) {
+            Document document = streamParser.document();
+            Iterator<Element> elements = streamParser.iterator();
+
+            while (elements.hasNext()) {
+                Element element = elements.next();
+                if (element == document) {
+                    continue;
+                }
+
+                if (selector.matches(document, element)) {
+                    T result = mapper.apply(element);
+                    if (result != null) {
+                        results.add(result);
+                    }
+                    element.remove();
+                } else if (!hasMatchingAncestor(document, element, selector)) {
+                    element.remove();
+                }
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } catch (IOException e) {
+            throw e;
+        } catch (Exception e) {
+            log.error("Error processing response body", e);
+            throw new IOException("Failed to process response body", e);
+        }
+
+        return results;
+    }
+
+    private static boolean hasMatchingAncestor(Document document, Element element, Evaluator selector) {
+        for (Element parent = element.parent(); parent != null && parent != document; parent = parent.parent()) {
+            if (selector.matches(document, parent)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Charset charsetOf(ContentType contentType) {
+        return contentType != null && contentType.getCharset() != null
+                ? contentType.getCharset()
+                : StandardCharsets.UTF_8;
+    }
+}
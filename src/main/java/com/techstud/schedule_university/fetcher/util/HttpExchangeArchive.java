@@ -0,0 +1,291 @@
+package com.techstud.schedule_university.fetcher.util;
+
+import com.techstud.schedule_university.fetcher.config.FetcherArchiveProperties;
+import com.techstud.schedule_university.fetcher.config.FetcherArchiveProperties.Mode;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
+import org.apache.hc.core5.http.ClassicHttpResponse;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.HttpHeaders;
+import org.apache.hc.core5.http.HttpRequest;
+import org.apache.hc.core5.http.io.entity.ByteArrayEntity;
+import org.apache.hc.core5.http.message.BasicClassicHttpResponse;
+import org.apache.hc.core5.http.message.BasicHeader;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Архив HTTP обменов для обходов без сети
+ *
+ * <p>Архив - zip, по сжатой записи на каждый полученный ответ: ключ запроса, код,
+ * заголовки, задержка до заголовков и тело. Ключ запроса - метод, адрес и отпечаток
+ * тела запроса, заголовки в него не входят, поэтому cookies и CSRF токены, полученные
+ * при воспроизведении, не мешают найти ответ.</p>
+ *
+ * <p>Ответы на одинаковые запросы воспроизводятся в порядке записи, последний
+ * повторяется, так что повторные попытки после ошибки воспроизводятся как были.
+ * Записанный архив становится читаемым только после остановки приложения.</p>
+ */
+@Component
+@Slf4j
+public class HttpExchangeArchive implements DisposableBean {
+
+    private static final int ENTRY_FORMAT_VERSION = 1;
+    private static final String ENTRY_SUFFIX = ".exchange";
+    private static final Set<String> SKIPPED_HEADERS = Set.of(
+            HttpHeaders.CONTENT_LENGTH.toLowerCase(),
+            HttpHeaders.CONTENT_ENCODING.toLowerCase(),
+            HttpHeaders.TRANSFER_ENCODING.toLowerCase(),
+            HttpHeaders.CONNECTION.toLowerCase());
+
+    private final FetcherArchiveProperties properties;
+    private ZipOutputStream recording;
+    private int recorded;
+    private volatile Map<String, Replay> replays;
+
+    public HttpExchangeArchive(FetcherArchiveProperties properties) {
+        this.properties = properties;
+    }
+
+    public boolean isRecording() {
+        return properties.getMode() == Mode.RECORD;
+    }
+
+    public boolean isReplaying() {
+        return properties.getMode() == Mode.REPLAY;
+    }
+
+    /**
+     * Ключ запроса в архиве
+     *
+     * @param request Запрос
+     * @param body Тело запроса или null
+     */
+    public static String keyOf(HttpRequest request, byte[] body) {
+        String uri;
+        try {
+            uri = request.getUri().toString();
+        } catch (URISyntaxException e) {
+            uri = request.getRequestUri();
+        }
+        String key = request.getMethod() + " " + uri;
+        return body != null && body.length > 0 ? key + " " + sha256(body) : key;
+    }
+
+    /**
+     * Дописывает обмен в архив
+     *
+     * @param key Ключ запроса
+     * @param code Код ответа
+     * @param headers Заголовки ответа
+     * @param contentType Тип тела или null
+     * @param body Тело ответа или null
+     * @param latencyNanos Время до получения заголовков ответа
+     */
+    public synchronized void record(String key, int code, Header[] headers, ContentType contentType, byte[] body,
+                                    long latencyNanos) {
+        if (!isRecording()) {
+            return;
+        }
+        try {
+            if (recording == null) {
+                Path path = properties.getPath().toAbsolutePath();
+                Files.createDirectories(path.getParent());
+                recording = new ZipOutputStream(Files.newOutputStream(path));
+                log.info("Recording HTTP exchanges to {}", path);
+            }
+
+            recording.putNextEntry(new ZipEntry(String.format("%06d%s", ++recorded, ENTRY_SUFFIX)));
+            DataOutputStream out = new DataOutputStream(recording);
+            out.writeInt(ENTRY_FORMAT_VERSION);
+            out.writeUTF(key);
+            out.writeInt(code);
+            out.writeLong(latencyNanos);
+            out.writeUTF(contentType != null ? contentType.toString() : "");
+            List<Header> kept = new ArrayList<>();
+            for (Header header : headers) {
+                if (!SKIPPED_HEADERS.contains(header.getName().toLowerCase())) {
+                    kept.add(header);
+                }
+            }
+            out.writeInt(kept.size());
+            for (Header header : kept) {
+                out.writeUTF(header.getName());
+                out.writeUTF(header.getValue());
+            }
+            out.writeInt(body != null ? body.length : -1);
+            if (body != null) {
+                out.write(body);
+            }
+            out.flush();
+            recording.closeEntry();
+        } catch (IOException e) {
+            log.warn("Failed to record exchange {}: {}", key, e.getMessage());
+        }
+    }
+
+    /**
+     * Находит записанный ответ на запрос
+     *
+     * @param key Ключ запроса
+     * @return Записанный ответ
+     * @throws IOException Если такой запрос не записывался или архив не читается
+     */
+    public RecordedResponse replay(String key) throws IOException {
+        Replay replay = replays().get(key);
+        if (replay == null) {
+            throw new IOException("No recorded response for " + key);
+        }
+        return replay.next();
+    }
+
+    /**
+     * @return Ключи всех записанных запросов
+     * @throws IOException Если архив не читается
+     */
+    public Set<String> recordedKeys() throws IOException {
+        return Collections.unmodifiableSet(replays().keySet());
+    }
+
+    /**
+     * @return Сколько ждать перед выдачей записанного ответа
+     */
+    public long replayDelayNanos(RecordedResponse response) {
+        return properties.isReplayLatency() ? response.latencyNanos() : 0;
+    }
+
+    @Override
+    public synchronized void destroy() throws IOException {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+            log.info("Recorded {} HTTP exchanges to {}", recorded, properties.getPath().toAbsolutePath());
+        }
+    }
+
+    private Map<String, Replay> replays() throws IOException {
+        Map<String, Replay> loaded = replays;
+        if (loaded == null) {
+            synchronized (this) {
+                loaded = replays;
+                if (loaded == null) {
+                    loaded = load(properties.getPath());
+                    replays = loaded;
+                }
+            }
+        }
+        return loaded;
+    }
+
+    private static Map<String, Replay> load(Path path) throws IOException {
+        Map<String, List<RecordedResponse>> responses = new HashMap<>();
+        try (ZipFile zip = new ZipFile(path.toFile())) {
+            Map<String, ZipEntry> entries = new TreeMap<>();
+            for (Enumeration<? extends ZipEntry> e = zip.entries(); e.hasMoreElements(); ) {
+                ZipEntry entry = e.nextElement();
+                if (entry.getName().endsWith(ENTRY_SUFFIX)) {
+                    entries.put(entry.getName(), entry);
+                }
+            }
+
+            for (ZipEntry entry : entries.values()) {
+                try (DataInputStream in = new DataInputStream(zip.getInputStream(entry))) {
+                    if (in.readInt() != ENTRY_FORMAT_VERSION) {
+                        throw new IOException("Unsupported archive entry format: " + entry.getName());
+                    }
+                    String key = in.readUTF();
+                    int code = in.readInt();
+                    long latencyNanos = in.readLong();
+                    String contentType = in.readUTF();
+                    Header[] headers = new Header[in.readInt()];
+                    for (int i = 0; i < headers.length; i++) {
+                        headers[i] = new BasicHeader(in.readUTF(), in.readUTF());
+                    }
+                    int length = in.readInt();
+                    byte[] body = length >= 0 ? in.readNBytes(length) : null;
+                    responses.computeIfAbsent(key, ignored -> new ArrayList<>()).add(new RecordedResponse(code,
+                            headers, contentType.isEmpty() ? null : ContentType.parseLenient(contentType), body,
+                            latencyNanos));
+                }
+            }
+        }
+
+        Map<String, Replay> replays = new HashMap<>();
+        responses.forEach((key, recorded) -> replays.put(key, new Replay(recorded)));
+        log.info("Loaded {} recorded HTTP exchanges for {} requests from {}",
+                responses.values().stream().mapToInt(List::size).sum(), replays.size(), path.toAbsolutePath());
+        return replays;
+    }
+
+    private static String sha256(byte[] body) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(body));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Записанный ответ
+     */
+    public record RecordedResponse(int code, Header[] headers, ContentType contentType, byte[] body,
+                                   long latencyNanos) {
+
+        public SimpleHttpResponse toSimpleResponse() {
+            SimpleHttpResponse response = new SimpleHttpResponse(code);
+            response.setHeaders(headers);
+            if (body != null) {
+                response.setBody(body, contentType);
+            }
+            return response;
+        }
+
+        public ClassicHttpResponse toClassicResponse() {
+            BasicClassicHttpResponse response = new BasicClassicHttpResponse(code);
+            response.setHeaders(headers);
+            if (body != null) {
+                response.setEntity(new ByteArrayEntity(body, contentType));
+            }
+            return response;
+        }
+    }
+
+    /**
+     * Записанные ответы на один запрос
+     */
+    private static final class Replay {
+        private final List<RecordedResponse> responses;
+        private final AtomicInteger position = new AtomicInteger();
+
+        private Replay(List<RecordedResponse> responses) {
+            this.responses = responses;
+        }
+
+        RecordedResponse next() {
+            return responses.get(Math.min(position.getAndIncrement(), responses.size() - 1));
+        }
+    }
+}
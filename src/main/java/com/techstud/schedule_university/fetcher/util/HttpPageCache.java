@@ -0,0 +1,410 @@
+package com.techstud.schedule_university.fetcher.util;
+
+import com.techstud.schedule_university.fetcher.config.FetcherCacheProperties;
+import com.techstud.schedule_university.fetcher.dto.CacheHostStats;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.HttpHeaders;
+import org.apache.hc.core5.http.HttpMessage;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Кэш страниц университетов для условных GET запросов
+ *
+ * <p>Для каждого адреса хранит валидаторы ETag/Last-Modified и сжатое тело ответа.
+ * Страницы лежат на диске, по файлу на адрес, и подгружаются при первом обращении,
+ * так что кэш переживает перезапуск. Ответ 304 подменяется сохранённым телом, а если
+ * страница уже разбиралась в этом процессе, повторно возвращается результат разбора.</p>
+ *
+ * <p>Многие сайты валидаторов не присылают, поэтому для каждого ответа 200 считается
+ * отпечаток тела (SHA-256). Если он совпал с прошлым, страница считается неизменной и
+ * наследует результаты разбора прошлой версии. Для страниц без валидаторов на диск
+ * пишется только отпечаток, без тела, чтобы неизменность узнавалась и после перезапуска.</p>
+ */
+@Component
+@Slf4j
+public class HttpPageCache {
+
+    private static final String PAGE_FILE_SUFFIX = ".page";
+    private static final int PAGE_FORMAT_VERSION = 2;
+
+    private final FetcherCacheProperties properties;
+    private final FetcherMetrics metrics;
+    private final Map<String, CachedPage> pages = new ConcurrentHashMap<>();
+    private final Map<String, HostCounters> hostCounters = new ConcurrentHashMap<>();
+
+    public HttpPageCache(FetcherCacheProperties properties, FetcherMetrics metrics) {
+        this.properties = properties;
+        this.metrics = metrics;
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * Ищет страницу в памяти, затем на диске
+     *
+     * @return Страница или null, если адрес ещё не кэшировался
+     */
+    public CachedPage lookup(String url) {
+        if (!isEnabled()) {
+            return null;
+        }
+        return pages.computeIfAbsent(url, this::load);
+    }
+
+    /**
+     * Добавляет к запросу заголовки If-None-Match/If-Modified-Since
+     */
+    public void applyValidators(HttpMessage request, CachedPage page) {
+        if (page.getEtag() != null) {
+            request.setHeader(HttpHeaders.IF_NONE_MATCH, page.getEtag());
+        }
+        if (page.getLastModified() != null) {
+            request.setHeader(HttpHeaders.IF_MODIFIED_SINCE, page.getLastModified());
+        }
+    }
+
+    /**
+     * Тело ответа стоит хранить, если у него есть хотя бы один валидатор
+     */
+    public static boolean hasValidators(HttpMessage response) {
+        return response.containsHeader(HttpHeaders.ETAG) || response.containsHeader(HttpHeaders.LAST_MODIFIED);
+    }
+
+    /**
+     * Сохраняет полученную страницу
+     *
+     * <p>Тело сохраняется, только если у ответа есть валидаторы и оно не больше
+     * {@code maxBodySize}. Если отпечаток совпал с прошлой версией, новая страница
+     * наследует её результаты разбора.</p>
+     *
+     * @return Новая версия страницы
+     */
+    public CachedPage store(String url, HttpMessage response, ContentType contentType, byte[] body) {
+        String fingerprint = fingerprint(body);
+        CachedPage previous = lookup(url);
+        boolean cacheBody = hasValidators(response) && body.length <= properties.getMaxBodySize().toBytes();
+
+        CachedPage page = new CachedPage(url,
+                cacheBody ? headerValue(response, HttpHeaders.ETAG) : null,
+                cacheBody ? headerValue(response, HttpHeaders.LAST_MODIFIED) : null,
+                contentType != null ? contentType.toString() : null,
+                cacheBody ? gzip(body) : null,
+                fingerprint);
+
+        String host = URI.create(url).getHost();
+        if (previous != null && fingerprint.equals(previous.getFingerprint())) {
+            page.inherit(previous);
+            counters(host).unchanged.incrementAndGet();
+            log.debug("Content unchanged: {}", url);
+        } else {
+            counters(host).changed.incrementAndGet();
+        }
+
+        pages.put(url, page);
+        if (cacheBody || !page.isUnchanged() || previous.hasBody()) {
+            persist(page);
+        }
+        return page;
+    }
+
+    /**
+     * Возвращает результат обхода дочерних страниц, который можно переиспользовать
+     *
+     * @return Результат или null, если пропуск выключен, страница изменилась или результат устарел
+     */
+    public <T> T reusableSubtree(CachedPage page) {
+        if (!properties.isSkipUnchangedSubtrees() || !page.isUnchanged()) {
+            return null;
+        }
+        return page.getSubtree(properties.getSubtreeMaxAge());
+    }
+
+    /**
+     * Учитывает ответ 304
+     */
+    public void recordNotModified(String host) {
+        counters(host).notModified.incrementAndGet();
+    }
+
+    /**
+     * @return Счётчики ответов и доля страниц, не потребовавших разбора, по каждому хосту
+     */
+    public Map<String, CacheHostStats> getHostStats() {
+        Map<String, CacheHostStats> stats = new TreeMap<>();
+        hostCounters.forEach((host, counters) -> stats.put(host, counters.toStats()));
+        return stats;
+    }
+
+    /**
+     * @return Счётчики хоста, нули, если к нему ещё не обращались
+     */
+    public CacheHostStats getHostStats(String host) {
+        HostCounters counters = hostCounters.get(host);
+        return counters != null ? counters.toStats() : new CacheHostStats(0, 0, 0, 0);
+    }
+
+    private HostCounters counters(String host) {
+        return hostCounters.computeIfAbsent(host != null ? host : "unknown", key -> {
+            metrics.registerPageCache(key, this);
+            return new HostCounters();
+        });
+    }
+
+    private CachedPage load(String url) {
+        Path file = pageFile(url);
+        try (DataInputStream in = new DataInputStream(Files.newInputStream(file))) {
+            if (in.readInt() != PAGE_FORMAT_VERSION || !in.readUTF().equals(url)) {
+                return null;
+            }
+            String etag = emptyToNull(in.readUTF());
+            String lastModified = emptyToNull(in.readUTF());
+            String contentType = emptyToNull(in.readUTF());
+            String fingerprint = in.readUTF();
+            int bodyLength = in.readInt();
+            byte[] compressedBody = bodyLength >= 0 ? in.readNBytes(bodyLength) : null;
+            return new CachedPage(url, etag, lastModified, contentType, compressedBody, fingerprint);
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            log.warn("Failed to read cached page for {}: {}", url, e.getMessage());
+            return null;
+        }
+    }
+
+    private void persist(CachedPage page) {
+        Path file = pageFile(page.getUrl());
+        try {
+            Files.createDirectories(file.getParent());
+            Path tmp = Files.createTempFile(file.getParent(), "page", ".tmp");
+            try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(tmp))) {
+                out.writeInt(PAGE_FORMAT_VERSION);
+                out.writeUTF(page.getUrl());
+                out.writeUTF(nullToEmpty(page.getEtag()));
+                out.writeUTF(nullToEmpty(page.getLastModified()));
+                out.writeUTF(nullToEmpty(page.contentTypeValue));
+                out.writeUTF(page.getFingerprint());
+                if (page.hasBody()) {
+                    out.writeInt(page.compressedBody.length);
+                    out.write(page.compressedBody);
+                } else {
+                    out.writeInt(-1);
+                }
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Failed to persist cached page for {}: {}", page.getUrl(), e.getMessage());
+        }
+    }
+
+    private Path pageFile(String url) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(url.getBytes(StandardCharsets.UTF_8));
+            return properties.getDirectory().resolve(HexFormat.of().formatHex(digest) + PAGE_FILE_SUFFIX);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String fingerprint(byte[] body) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(body));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static byte[] gzip(byte[] body) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(body.length / 4 + 64);
+        try (OutputStream out = new GZIPOutputStream(buffer)) {
+            out.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return buffer.toByteArray();
+    }
+
+    private static String headerValue(HttpMessage message, String name) {
+        Header header = message.getFirstHeader(name);
+        return header != null ? header.getValue() : null;
+    }
+
+    private static String emptyToNull(String value) {
+        return value.isEmpty() ? null : value;
+    }
+
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+
+    /**
+     * Закэшированная страница
+     *
+     * <p>Результаты разбора страницы и обхода её дочерних страниц запоминаются в самой
+     * странице, поэтому живут ровно столько, сколько не меняется её содержимое</p>
+     */
+    public static final class CachedPage {
+        private final String url;
+        private final String etag;
+        private final String lastModified;
+        private final String contentTypeValue;
+        private final byte[] compressedBody;
+        private final String fingerprint;
+        private Object extracted;
+        private volatile Subtree subtree;
+        private volatile boolean unchanged;
+
+        private CachedPage(String url, String etag, String lastModified, String contentTypeValue,
+                           byte[] compressedBody, String fingerprint) {
+            this.url = url;
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.contentTypeValue = contentTypeValue;
+            this.compressedBody = compressedBody;
+            this.fingerprint = fingerprint;
+        }
+
+        public String getFingerprint() {
+            return fingerprint;
+        }
+
+        public boolean hasBody() {
+            return compressedBody != null;
+        }
+
+        /**
+         * @return true, если содержимое совпало с прошлой версией или сервер ответил 304
+         */
+        public boolean isUnchanged() {
+            return unchanged;
+        }
+
+        /**
+         * Отмечает, что страница получена повторно без изменений
+         */
+        public void markUnchanged() {
+            unchanged = true;
+        }
+
+        /**
+         * @param maxAge Максимальный возраст результата
+         * @return Результат обхода дочерних страниц или null, если его нет или он устарел
+         */
+        @SuppressWarnings("unchecked")
+        public <T> T getSubtree(Duration maxAge) {
+            Subtree current = subtree;
+            if (current == null || current.storedAt().plus(maxAge).isBefore(Instant.now())) {
+                return null;
+            }
+            return (T) current.value();
+        }
+
+        public void setSubtree(Object value) {
+            this.subtree = new Subtree(value, Instant.now());
+        }
+
+        private synchronized void inherit(CachedPage previous) {
+            synchronized (previous) {
+                this.extracted = previous.extracted;
+            }
+            this.subtree = previous.subtree;
+            this.unchanged = true;
+        }
+
+        public String getUrl() {
+            return url;
+        }
+
+        public String getEtag() {
+            return etag;
+        }
+
+        public String getLastModified() {
+            return lastModified;
+        }
+
+        public ContentType getContentType() {
+            return contentTypeValue != null ? ContentType.parseLenient(contentTypeValue) : null;
+        }
+
+        /**
+         * @return Распакованное тело страницы
+         */
+        public byte[] getBody() throws IOException {
+            if (compressedBody == null) {
+                throw new IOException("Body of " + url + " is not cached");
+            }
+            try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(compressedBody))) {
+                return in.readAllBytes();
+            }
+        }
+
+        /**
+         * Возвращает запомненный результат разбора или выполняет разбор и запоминает его
+         *
+         * <p>Один адрес всегда разбирается одним и тем же способом. Список запоминается
+         * неизменяемой копией: один и тот же результат получают все, кто разбирает страницу.</p>
+         */
+        @SuppressWarnings("unchecked")
+        public synchronized <T> T extract(Extraction<T> extraction) throws IOException {
+            if (extracted == null) {
+                Object value = extraction.extract();
+                extracted = value instanceof List<?> list ? List.copyOf(list) : value;
+            }
+            return (T) extracted;
+        }
+    }
+
+    private record Subtree(Object value, Instant storedAt) {
+    }
+
+    @FunctionalInterface
+    public interface Extraction<T> {
+        T extract() throws IOException;
+    }
+
+    private static final class HostCounters {
+        private final AtomicLong notModified = new AtomicLong();
+        private final AtomicLong unchanged = new AtomicLong();
+        private final AtomicLong changed = new AtomicLong();
+
+        CacheHostStats toStats() {
+            long notModifiedCount = notModified.get();
+            long unchangedCount = unchanged.get();
+            long changedCount = changed.get();
+            long total = notModifiedCount + unchangedCount + changedCount;
+            return new CacheHostStats(notModifiedCount, unchangedCount, changedCount,
+                    total == 0 ? 0 : (double) (notModifiedCount + unchangedCount) / total);
+        }
+    }
+}
@@ -0,0 +1,233 @@
+package com.techstud.schedule_university.fetcher.util;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.techstud.schedule_university.fetcher.exception.UnexpectedResponseStatusException;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
+import org.apache.hc.core5.http.HttpEntity;
+import org.apache.hc.core5.http.io.HttpClientResponseHandler;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Потоковое извлечение данных из JSON ответов
+ *
+ * <p>Читает ответ токенами прямо из потока тела и забирает только нужные поля, не
+ * строя дерево объектов и не копируя тело в строку. Вложенные значения, которые
+ * не запрошены, пропускаются целиком.</p>
+ */
+@Slf4j
+public class JsonStreamExtractor {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    /**
+     * Обработчик узла дерева
+     */
+    @FunctionalInterface
+    public interface NodeVisitor {
+        /**
+         * @param fields Запрошенные скалярные поля узла
+         * @param hasChildren Есть ли у узла непустой список потомков
+         */
+        void visit(Map<String, String> fields, boolean hasChildren);
+    }
+
+    /**
+     * Создаёт обработчик ответа, разбирающий тело из потока
+     *
+     * @param extraction Извлечение, получает парсер, стоящий на первом токене
+     */
+    public static <T> HttpClientResponseHandler<T> createStreamingResponseHandler(
+            FetcherHttpUtils.ThrowingFunction<JsonParser, T> extraction) {
+        return response -> {
+            int statusCode = response.getCode();
+            if (statusCode != 200) {
+                log.error("Error while getting response, status code: {}", statusCode);
+                throw new UnexpectedResponseStatusException(statusCode);
+            }
+
+            HttpEntity entity = response.getEntity();
+            if (entity == null) {
+                log.error("Response body is empty or null");
+                throw new IOException("Empty or null response body");
+            }
+
+            try (InputStream body = entity.getContent(); JsonParser parser = JSON_FACTORY.createParser(body)) {
+                return extract(parser, extraction);
+            }
+        };
+    }
+
+    /**
+     * Разбирает тело асинхронного ответа без копирования в строку
+     *
+     * @param response Ответ
+     * @param extraction Извлечение, получает парсер, стоящий на первом токене
+     */
+    public static <T> T processResponse(SimpleHttpResponse response,
+                                        FetcherHttpUtils.ThrowingFunction<JsonParser, T> extraction) throws IOException {
+        int statusCode = response.getCode();
+        if (statusCode != 200) {
+            log.error("Error while getting response, status code: {}", statusCode);
+            throw new UnexpectedResponseStatusException(statusCode);
+        }
+
+        byte[] body = response.getBodyBytes();
+        if (body == null) {
+            log.error("Response body is empty or null");
+            throw new IOException("Empty or null response body");
+        }
+
+        try (JsonParser parser = JSON_FACTORY.createParser(body)) {
+            return extract(parser, extraction);
+        }
+    }
+
+    /**
+     * Обходит дерево узлов любой глубины
+     *
+     * <p>Парсер должен стоять на START_OBJECT корня. Узел передаётся обработчику после
+     * всех своих потомков.</p>
+     *
+     * @param parser Парсер
+     * @param childrenField Имя поля со списком потомков
+     * @param fields Скалярные поля, которые нужно собрать
+     * @param visitor Обработчик узлов
+     */
+    public static void walkTree(JsonParser parser, String childrenField, Set<String> fields,
+                                NodeVisitor visitor) throws IOException {
+        expect(parser, JsonToken.START_OBJECT);
+        Map<String, String> values = new HashMap<>();
+        boolean hasChildren = false;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String fieldName = parser.currentName();
+            JsonToken value = parser.nextToken();
+
+            if (fieldName.equals(childrenField) && value == JsonToken.START_ARRAY) {
+                JsonToken child;
+                while ((child = parser.nextToken()) != JsonToken.END_ARRAY) {
+                    if (child == JsonToken.START_OBJECT) {
+                        walkTree(parser, childrenField, fields, visitor);
+                        hasChildren = true;
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+            } else if (value.isScalarValue()) {
+                if (fields.contains(fieldName) && value != JsonToken.VALUE_NULL) {
+                    values.put(fieldName, parser.getText());
+                }
+            } else {
+                parser.skipChildren();
+            }
+        }
+
+        visitor.visit(values, hasChildren);
+    }
+
+    /**
+     * Обходит массив объектов
+     *
+     * <p>Парсер должен стоять на START_ARRAY</p>
+     *
+     * @param parser Парсер
+     * @param fields Скалярные поля, которые нужно собрать
+     * @param consumer Получатель полей каждого объекта
+     */
+    public static void forEachObject(JsonParser parser, Set<String> fields,
+                                     Consumer<Map<String, String>> consumer) throws IOException {
+        expect(parser, JsonToken.START_ARRAY);
+
+        JsonToken element;
+        while ((element = parser.nextToken()) != JsonToken.END_ARRAY) {
+            if (element != JsonToken.START_OBJECT) {
+                parser.skipChildren();
+                continue;
+            }
+
+            Map<String, String> values = new HashMap<>();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String fieldName = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if (value.isScalarValue()) {
+                    if (fields.contains(fieldName) && value != JsonToken.VALUE_NULL) {
+                        values.put(fieldName, parser.getText());
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            consumer.accept(values);
+        }
+    }
+
+    /**
+     * Обходит массив скалярных значений
+     *
+     * <p>Парсер должен стоять на START_ARRAY</p>
+     */
+    public static void forEachValue(JsonParser parser, Consumer<String> consumer) throws IOException {
+        expect(parser, JsonToken.START_ARRAY);
+
+        JsonToken element;
+        while ((element = parser.nextToken()) != JsonToken.END_ARRAY) {
+            if (element.isScalarValue()) {
+                consumer.accept(parser.getText());
+            } else {
+                parser.skipChildren();
+            }
+        }
+    }
+
+    /**
+     * Переводит парсер на значение поля объекта верхнего уровня
+     *
+     * <p>Парсер должен стоять на START_OBJECT</p>
+     *
+     * @return true, если поле найдено
+     */
+    public static boolean moveToField(JsonParser parser, String fieldName) throws IOException {
+        expect(parser, JsonToken.START_OBJECT);
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String currentName = parser.currentName();
+            parser.nextToken();
+            if (currentName.equals(fieldName)) {
+                return true;
+            }
+            parser.skipChildren();
+        }
+        return false;
+    }
+
+    private static <T> T extract(JsonParser parser, FetcherHttpUtils.ThrowingFunction<JsonParser, T> extraction)
+            throws IOException {
+        if (parser.nextToken() == null) {
+            log.error("Response body is empty or null");
+            throw new IOException("Empty or null response body");
+        }
+
+        try {
+            return extraction.apply(parser);
+        } catch (Exception e) {
+            log.error("Error processing response body at {}", parser.currentLocation(), e);
+            throw new IOException("Failed to process response body", e);
+        }
+    }
+
+    private static void expect(JsonParser parser, JsonToken token) throws IOException {
+        if (parser.currentToken() != token) {
+            throw new IOException("Expected " + token + " but found " + parser.currentToken()
+                    + " at " + parser.currentLocation());
+        }
+    }
+}
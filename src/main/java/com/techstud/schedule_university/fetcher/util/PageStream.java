@@ -0,0 +1,210 @@
+package com.techstud.schedule_university.fetcher.util;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Передача результатов страниц из асинхронного обхода в поток получателя
+ *
+ * <p>Страницы разбираются в потоках движка, которые нельзя блокировать медленным
+ * получателем, поэтому запросы страниц выдаются по спросу: не больше {@code capacity}
+ * страниц одновременно запрошено или ждёт получателя. Следующий запрос, переданный в
+ * {@link #page}, отправляется только после того, как получатель обработал одну из них.
+ * Медленный получатель так замедляет обход, а в памяти лежит не больше {@code capacity}
+ * запрошенных, но неотданных страниц. Результаты из кэша, переданные в {@link #emit},
+ * запросов не требуют и не ограничиваются.</p>
+ *
+ * <p>Если получатель бросил исключение, обход и его запросы отменяются, а запросы,
+ * ещё ждущие очереди, не отправляются.</p>
+ */
+public final class PageStream<T> {
+
+    /**
+     * Сколько страниц по умолчанию может быть запрошено, но ещё не отдано получателю
+     */
+    public static final int DEFAULT_CAPACITY = 32;
+
+    private final Page<T> end = new Page<>(List.of(), false);
+    private final BlockingQueue<Page<T>> pages = new LinkedBlockingQueue<>();
+    private final Set<CompletableFuture<?>> requests = ConcurrentHashMap.newKeySet();
+    private final Deque<Waiting> waiting = new ArrayDeque<>();
+    private int permits;
+    private boolean dispatching;
+    private volatile boolean cancelled;
+
+    public PageStream() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param capacity Сколько страниц может быть запрошено, но ещё не отдано получателю
+     */
+    public PageStream(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Page stream capacity must be positive");
+        }
+        this.permits = capacity;
+    }
+
+    /**
+     * Запрашивает страницу, когда для неё освободится место, и передаёт её результат получателю
+     *
+     * @param request Отправляет запрос страницы, вызывается не сразу, если место занято
+     * @return Результат страницы, он же передаётся получателю
+     */
+    public CompletableFuture<List<T>> page(Supplier<CompletableFuture<List<T>>> request) {
+        CompletableFuture<List<T>> result = new CompletableFuture<>();
+        Runnable send = () -> {
+            if (cancelled) {
+                release();
+                result.cancel(false);
+                return;
+            }
+            CompletableFuture<List<T>> sent;
+            try {
+                sent = track(request.get());
+            } catch (RuntimeException e) {
+                release();
+                result.completeExceptionally(e);
+                return;
+            }
+            sent.whenComplete((groups, e) -> {
+                if (e != null || cancelled || groups.isEmpty()) {
+                    release();
+                } else {
+                    pages.add(new Page<>(groups, true));
+                }
+                if (e != null) {
+                    result.completeExceptionally(e);
+                } else {
+                    result.complete(groups);
+                }
+            });
+        };
+        synchronized (waiting) {
+            waiting.add(new Waiting(send, result));
+        }
+        dispatch();
+        return result;
+    }
+
+    /**
+     * Передаёт получателю результат, полученный без запроса, например из кэша
+     */
+    public void emit(List<? extends T> page) {
+        if (!cancelled && !page.isEmpty()) {
+            pages.add(new Page<>(page, false));
+        }
+    }
+
+    /**
+     * Запоминает запрос обхода, чтобы отменить его вместе с обходом
+     *
+     * @return Тот же запрос
+     */
+    public <R> CompletableFuture<R> track(CompletableFuture<R> request) {
+        requests.add(request);
+        request.whenComplete((ignored, e) -> requests.remove(request));
+        if (cancelled) {
+            request.cancel(false);
+        }
+        return request;
+    }
+
+    /**
+     * @return true, если получатель перестал принимать группы и обход отменён
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Отдаёт получателю результаты страниц по мере их появления, пока не завершится обход
+     *
+     * @param crawl Обход, запрашивающий страницы через {@link #page}
+     * @param sink Получатель, вызывается в текущем потоке
+     * @throws CompletionException Если обход завершился ошибкой или поток прерван
+     */
+    public void drain(CompletableFuture<?> crawl, Consumer<? super T> sink) {
+        crawl.whenComplete((ignored, e) -> pages.add(end));
+        try {
+            for (Page<T> page = pages.take(); page != end; page = pages.take()) {
+                page.items().forEach(sink);
+                if (page.requested()) {
+                    release();
+                }
+            }
+        } catch (InterruptedException e) {
+            cancel(crawl);
+            Thread.currentThread().interrupt();
+            throw new CompletionException(e);
+        } catch (RuntimeException e) {
+            cancel(crawl);
+            throw e;
+        }
+        crawl.join();
+    }
+
+    private void release() {
+        synchronized (waiting) {
+            permits++;
+        }
+        dispatch();
+    }
+
+    /**
+     * Отправляет ждущие запросы, пока есть место
+     *
+     * <p>Запросы отправляются в вызывающем потоке, отправка не блокирует. Место, освобождённое
+     * во время отправки, например синхронно упавшим запросом, подхватывает тот же цикл, а не
+     * вложенный вызов.</p>
+     */
+    private void dispatch() {
+        synchronized (waiting) {
+            if (dispatching) {
+                return;
+            }
+            dispatching = true;
+        }
+        while (true) {
+            Waiting next;
+            synchronized (waiting) {
+                if (permits == 0 || waiting.isEmpty()) {
+                    dispatching = false;
+                    return;
+                }
+                permits--;
+                next = waiting.poll();
+            }
+            next.send().run();
+        }
+    }
+
+    private void cancel(CompletableFuture<?> crawl) {
+        cancelled = true;
+        crawl.cancel(false);
+        requests.forEach(request -> request.cancel(false));
+        pages.clear();
+        List<Waiting> dropped;
+        synchronized (waiting) {
+            dropped = List.copyOf(waiting);
+            waiting.clear();
+        }
+        dropped.forEach(request -> request.result().cancel(false));
+    }
+
+    private record Page<T>(List<? extends T> items, boolean requested) {
+    }
+
+    private record Waiting(Runnable send, CompletableFuture<?> result) {
+    }
+}
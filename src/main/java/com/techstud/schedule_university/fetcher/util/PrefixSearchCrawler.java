@@ -0,0 +1,209 @@
+package com.techstud.schedule_university.fetcher.util;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.ToIntFunction;
+
+/**
+ * Адаптивный обход поискового API по префиксам
+ *
+ * <p>Для университетов, у которых есть только поиск. Обход идёт волнами в ширину,
+ * запросы одной волны выполняются параллельно. Префикс расширяется символами алфавита
+ * ("1" -> "10".."19") только если ответ упёрся в лимит выдачи, префиксы без результатов
+ * отбрасываются.</p>
+ *
+ * <p>Листья, давшие результаты, запоминаются, и следующий обход начинается с них.
+ * Группы под префиксами, которые в прошлый раз были пустыми, при таком старте не видны,
+ * поэтому каждый {@code rediscoveryInterval}-й обход начинается с корней.</p>
+ *
+ * <p>Префиксы, поиск по которым не удался, повторяются после обхода до {@code retryAttempts}
+ * раз. Если какие-то так и не удалось выполнить, обход завершается ошибкой: группы под ними
+ * не найдены, и неполный результат нельзя выдавать за каталог.</p>
+ */
+@Slf4j
+public class PrefixSearchCrawler {
+
+    private final String name;
+    private final List<String> roots;
+    private final String alphabet;
+    private final int resultCap;
+    private final int maxDepth;
+    private final int concurrency;
+    private final int rediscoveryInterval;
+    private final int retryAttempts;
+
+    private final AtomicInteger crawls = new AtomicInteger();
+    private volatile Set<String> frontier = Set.of();
+
+    /**
+     * @param name Название для логов
+     * @param roots Начальные префиксы
+     * @param alphabet Символы, которыми расширяется префикс
+     * @param resultCap Лимит выдачи поиска, при достижении которого префикс расширяется.
+     *                  Должен совпадать с тем, сколько результатов отдаёт сервер
+     * @param maxDepth Максимальная длина префикса
+     * @param concurrency Число одновременных запросов
+     * @param rediscoveryInterval Каждый какой обход начинать с корней, не меньше 1
+     * @param retryAttempts Сколько раз повторять неудавшиеся префиксы
+     */
+    public PrefixSearchCrawler(String name, List<String> roots, String alphabet, int resultCap,
+                               int maxDepth, int concurrency, int rediscoveryInterval, int retryAttempts) {
+        if (resultCap < 1) {
+            throw new IllegalArgumentException(name + " search result cap is not configured");
+        }
+        if (rediscoveryInterval < 1) {
+            throw new IllegalArgumentException(name + " search rediscovery interval must be positive");
+        }
+        this.name = name;
+        this.roots = List.copyOf(roots);
+        this.alphabet = alphabet;
+        this.resultCap = resultCap;
+        this.maxDepth = maxDepth;
+        this.concurrency = concurrency;
+        this.rediscoveryInterval = rediscoveryInterval;
+        this.retryAttempts = retryAttempts;
+    }
+
+    /**
+     * Поиск по одному префиксу, результаты накапливает вызывающий
+     */
+    @FunctionalInterface
+    public interface PrefixSearch {
+        /**
+         * @return Число результатов в ответе
+         */
+        int search(String prefix) throws IOException;
+    }
+
+    public record CrawlStats(int requests, int expanded, int pruned, int failed, int leaves) {
+    }
+
+    /**
+     * Выполняет обход
+     *
+     * @param search Поиск по префиксу
+     * @return Статистика обхода
+     * @throws IOException Если поиск по части префиксов не удался и после повторов
+     */
+    public CrawlStats crawl(PrefixSearch search) throws IOException, InterruptedException {
+        boolean rediscovery = frontier.isEmpty() || crawls.incrementAndGet() % rediscoveryInterval == 0;
+        List<String> wave = rediscovery ? roots : List.copyOf(frontier);
+        Set<String> leaves = ConcurrentHashMap.newKeySet();
+        AtomicInteger requests = new AtomicInteger();
+        AtomicInteger expanded = new AtomicInteger();
+        AtomicInteger pruned = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        Map<String, Exception> failures = new ConcurrentHashMap<>();
+        long crawlStart = System.nanoTime();
+
+        log.info("{} prefix crawl started from {} {} prefixes", name, wave.size(), rediscovery ? "root" : "remembered");
+
+        for (int attempt = 0; ; attempt++) {
+            crawlWaves(wave, prefix -> {
+                requests.incrementAndGet();
+                try {
+                    return search.search(prefix);
+                } catch (Exception e) {
+                    log.error("{} search for prefix {} failed: {}", name, prefix, e.getMessage());
+                    failed.incrementAndGet();
+                    failures.put(prefix, e);
+                    return -1;
+                }
+            }, leaves, expanded, pruned);
+
+            if (failures.isEmpty()) {
+                break;
+            }
+            if (attempt >= retryAttempts) {
+                IOException error = new IOException(name + " search failed for " + failures.size()
+                        + " prefixes after " + (attempt + 1) + " attempts: " + new TreeSet<>(failures.keySet()));
+                failures.values().forEach(error::addSuppressed);
+                throw error;
+            }
+            wave = List.copyOf(failures.keySet());
+            failures.clear();
+            log.warn("{} retrying {} failed prefixes", name, wave.size());
+        }
+
+        frontier = Set.copyOf(leaves);
+        CrawlStats stats = new CrawlStats(requests.get(), expanded.get(), pruned.get(), failed.get(), leaves.size());
+        log.info("{} prefix crawl finished in {} ms: {}", name,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - crawlStart), stats);
+        return stats;
+    }
+
+    public Set<String> getFrontier() {
+        return frontier;
+    }
+
+    /**
+     * Обходит префиксы волнами, расширяя упёршиеся в лимит выдачи
+     *
+     * @param search Поиск, возвращающий -1 при ошибке
+     */
+    private void crawlWaves(List<String> wave, ToIntFunction<String> search, Set<String> leaves,
+                            AtomicInteger expanded, AtomicInteger pruned) throws InterruptedException {
+        while (!wave.isEmpty()) {
+            List<String> truncated = Collections.synchronizedList(new ArrayList<>());
+            runWave(wave, prefix -> {
+                int results = search.applyAsInt(prefix);
+                if (results < 0) {
+                    return;
+                }
+                if (results > resultCap) {
+                    log.warn("{} prefix {} returned {} results, more than result cap {}",
+                            name, prefix, results, resultCap);
+                }
+
+                if (results == 0) {
+                    pruned.incrementAndGet();
+                } else if (results >= resultCap && prefix.length() < maxDepth) {
+                    expanded.incrementAndGet();
+                    truncated.add(prefix);
+                } else {
+                    if (results >= resultCap) {
+                        log.warn("{} prefix {} hit result cap at max depth, results may be truncated", name, prefix);
+                    }
+                    leaves.add(prefix);
+                }
+            });
+            wave = truncated.stream()
+                    .flatMap(prefix -> alphabet.chars().mapToObj(c -> prefix + (char) c))
+                    .toList();
+        }
+    }
+
+    private void runWave(List<String> wave, PrefixTask task) throws InterruptedException {
+        Semaphore permits = new Semaphore(concurrency);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (String prefix : wave) {
+                permits.acquire();
+                executor.execute(() -> {
+                    try {
+                        task.run(prefix);
+                    } finally {
+                        permits.release();
+                    }
+                });
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface PrefixTask {
+        void run(String prefix);
+    }
+}
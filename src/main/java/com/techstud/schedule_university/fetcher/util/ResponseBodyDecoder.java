@@ -0,0 +1,307 @@
+package com.techstud.schedule_university.fetcher.util;
+
+import com.techstud.schedule_university.fetcher.exception.ResponseTooLargeException;
+import io.airlift.compress.zstd.ZstdInputStream;
+import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
+import org.apache.hc.client5.http.entity.DeflateInputStream;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.HttpEntity;
+import org.apache.hc.core5.http.HttpHeaders;
+import org.apache.hc.core5.http.HttpRequest;
+import org.apache.hc.core5.http.HttpResponse;
+import org.apache.hc.core5.http.io.entity.HttpEntityWrapper;
+import org.apache.hc.core5.http.nio.AsyncResponseConsumer;
+import org.apache.hc.core5.http.nio.entity.AbstractBinAsyncEntityConsumer;
+import org.apache.hc.core5.http.nio.support.AbstractAsyncResponseConsumer;
+import org.apache.hc.core5.http.protocol.HttpContext;
+import org.apache.hc.core5.util.ByteArrayBuffer;
+import org.brotli.dec.BrotliInputStream;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Locale;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Распаковка тел ответов и ограничение их размера
+ *
+ * <p>Оба транспорта отключают собственную распаковку HttpClient и распаковывают тела
+ * здесь. Тело читается из соединения и распаковывается по мере чтения, кодировки из
+ * {@code Content-Encoding} снимаются в обратном порядке. Размер считается после
+ * распаковки, поэтому небольшой сжатый ответ не развернётся в память без ограничений.</p>
+ */
+public final class ResponseBodyDecoder {
+
+    /**
+     * Кодировки, которые умеет распаковывать транспорт
+     */
+    public static final String ACCEPT_ENCODING = "gzip, deflate, br, zstd";
+
+    private static final int PREVIEW_LENGTH = 512;
+
+    private ResponseBodyDecoder() {
+    }
+
+    /**
+     * Оборачивает поток тела в распаковку и ограничение размера
+     *
+     * @param raw Тело в том виде, в каком пришло по сети
+     * @param contentEncoding Значение {@code Content-Encoding} или null
+     * @param maxBytes Допустимый размер тела после распаковки
+     * @return Поток распакованного тела
+     * @throws IOException Если кодировка не поддерживается или заголовок сжатого потока повреждён
+     */
+    public static InputStream decode(InputStream raw, String contentEncoding, long maxBytes) throws IOException {
+        InputStream decoded = raw;
+        if (contentEncoding != null) {
+            String[] encodings = contentEncoding.split(",");
+            for (int i = encodings.length - 1; i >= 0; i--) {
+                decoded = decoder(decoded, encodings[i].trim().toLowerCase(Locale.ROOT));
+            }
+        }
+        return new LimitedInputStream(decoded, maxBytes);
+    }
+
+    /**
+     * Распаковывает полностью полученное тело
+     *
+     * @param raw Тело в том виде, в каком пришло по сети, или null
+     * @param contentEncoding Значение {@code Content-Encoding} или null
+     * @param maxBytes Допустимый размер тела после распаковки
+     * @return Распакованное тело или null
+     */
+    public static byte[] decode(byte[] raw, String contentEncoding, long maxBytes) throws IOException {
+        if (raw == null || raw.length == 0) {
+            return raw;
+        }
+        try (InputStream decoded = decode(new ByteArrayInputStream(raw), contentEncoding, maxBytes)) {
+            return decoded.readAllBytes();
+        }
+    }
+
+    /**
+     * Оборачивает тело ответа в распаковку и ограничение размера
+     *
+     * <p>У обёртки нет {@code Content-Encoding}, а длина известна только для несжатого тела</p>
+     *
+     * @param entity Тело ответа
+     * @param maxBytes Допустимый размер тела после распаковки
+     * @return Распаковывающее тело
+     * @throws ResponseTooLargeException Если {@code Content-Length} несжатого тела больше допустимого
+     */
+    public static HttpEntity decode(HttpEntity entity, long maxBytes) throws ResponseTooLargeException {
+        String contentEncoding = entity.getContentLength() != 0 ? entity.getContentEncoding() : null;
+        if (contentEncoding == null && entity.getContentLength() > maxBytes) {
+            throw new ResponseTooLargeException(maxBytes);
+        }
+        return new DecodingEntity(entity, contentEncoding, maxBytes);
+    }
+
+    /**
+     * Распаковывает тело полученного асинхронного ответа на месте
+     *
+     * @param response Ответ, из которого убираются {@code Content-Encoding} и {@code Content-Length}
+     * @param maxBytes Допустимый размер тела после распаковки
+     */
+    public static void decode(SimpleHttpResponse response, long maxBytes) throws IOException {
+        Header contentEncoding = response.getFirstHeader(HttpHeaders.CONTENT_ENCODING);
+        if (contentEncoding == null) {
+            return;
+        }
+        byte[] body = decode(response.getBodyBytes(), contentEncoding.getValue(), maxBytes);
+        response.removeHeaders(HttpHeaders.CONTENT_ENCODING);
+        response.removeHeaders(HttpHeaders.CONTENT_LENGTH);
+        if (body != null) {
+            response.setBody(body, response.getContentType());
+        }
+    }
+
+    /**
+     * Потребитель асинхронного ответа, прерывающий получение тела больше {@code maxBytes}
+     *
+     * <p>Ограничивает тело в том виде, в каком оно пришло по сети. Распакованное тело
+     * ограничивает {@link #decode(SimpleHttpResponse, long)}.</p>
+     */
+    public static AsyncResponseConsumer<SimpleHttpResponse> responseConsumer(long maxBytes) {
+        return new BoundedResponseConsumer(maxBytes);
+    }
+
+    /**
+     * Объявляет распаковываемые кодировки, если запрос не задал {@code Accept-Encoding} сам
+     */
+    public static void applyAcceptEncoding(HttpRequest request) {
+        if (!request.containsHeader(HttpHeaders.ACCEPT_ENCODING)) {
+            request.setHeader(HttpHeaders.ACCEPT_ENCODING, ACCEPT_ENCODING);
+        }
+    }
+
+    /**
+     * Начало тела для сообщений об ошибках
+     *
+     * @param body Тело ответа
+     * @return Не больше {@value #PREVIEW_LENGTH} символов тела с пометкой об обрезке
+     */
+    public static String preview(String body) {
+        if (body.length() <= PREVIEW_LENGTH) {
+            return body;
+        }
+        return body.substring(0, PREVIEW_LENGTH) + "... (" + body.length() + " chars)";
+    }
+
+    private static InputStream decoder(InputStream in, String encoding) throws IOException {
+        return switch (encoding) {
+            case "gzip", "x-gzip" -> new GZIPInputStream(in);
+            case "deflate" -> new DeflateInputStream(in);
+            case "br" -> new BrotliInputStream(in);
+            case "zstd" -> new ZstdInputStream(in);
+            case "identity", "" -> in;
+            default -> throw new IOException("Unsupported content encoding: " + encoding);
+        };
+    }
+
+    /**
+     * Тело ответа, распаковываемое при чтении
+     */
+    private static final class DecodingEntity extends HttpEntityWrapper {
+        private final String contentEncoding;
+        private final long maxBytes;
+
+        private DecodingEntity(HttpEntity entity, String contentEncoding, long maxBytes) {
+            super(entity);
+            this.contentEncoding = contentEncoding;
+            this.maxBytes = maxBytes;
+        }
+
+        @Override
+        public InputStream getContent() throws IOException {
+            return decode(super.getContent(), contentEncoding, maxBytes);
+        }
+
+        @Override
+        public String getContentEncoding() {
+            return null;
+        }
+
+        @Override
+        public long getContentLength() {
+            return contentEncoding == null ? super.getContentLength() : -1;
+        }
+
+        @Override
+        public void writeTo(OutputStream outputStream) throws IOException {
+            try (InputStream content = getContent()) {
+                content.transferTo(outputStream);
+            }
+        }
+    }
+
+    /**
+     * Ответ целиком в памяти, как у {@code SimpleResponseConsumer}, но с ограничением размера
+     */
+    private static final class BoundedResponseConsumer
+            extends AbstractAsyncResponseConsumer<SimpleHttpResponse, byte[]> {
+
+        private BoundedResponseConsumer(long maxBytes) {
+            super(new BoundedEntityConsumer(maxBytes));
+        }
+
+        @Override
+        public void informationResponse(HttpResponse response, HttpContext context) {
+        }
+
+        @Override
+        protected SimpleHttpResponse buildResult(HttpResponse response, byte[] entity, ContentType contentType) {
+            SimpleHttpResponse result = SimpleHttpResponse.copy(response);
+            if (entity != null) {
+                result.setBody(entity, contentType);
+            }
+            return result;
+        }
+    }
+
+    private static final class BoundedEntityConsumer extends AbstractBinAsyncEntityConsumer<byte[]> {
+        private final long maxBytes;
+        private final ByteArrayBuffer buffer = new ByteArrayBuffer(1024);
+
+        private BoundedEntityConsumer(long maxBytes) {
+            this.maxBytes = maxBytes;
+        }
+
+        @Override
+        protected void streamStart(ContentType contentType) {
+        }
+
+        @Override
+        protected int capacityIncrement() {
+            return Integer.MAX_VALUE;
+        }
+
+        @Override
+        protected void data(ByteBuffer src, boolean endOfStream) throws IOException {
+            if ((long) buffer.length() + src.remaining() > maxBytes) {
+                throw new ResponseTooLargeException(maxBytes);
+            }
+            buffer.append(src);
+        }
+
+        @Override
+        protected byte[] generateContent() {
+            return buffer.toByteArray();
+        }
+
+        @Override
+        public void releaseResources() {
+            buffer.clear();
+        }
+    }
+
+    /**
+     * Поток, завершающийся ошибкой после {@code maxBytes} байт
+     */
+    private static final class LimitedInputStream extends FilterInputStream {
+        private final long maxBytes;
+        private long bytesRead;
+
+        private LimitedInputStream(InputStream in, long maxBytes) {
+            super(in);
+            this.maxBytes = maxBytes;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int value = super.read();
+            if (value >= 0) {
+                count(1);
+            }
+            return value;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int count = super.read(buffer, offset, length);
+            if (count > 0) {
+                count(count);
+            }
+            return count;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count(skipped);
+            return skipped;
+        }
+
+        private void count(long bytes) throws ResponseTooLargeException {
+            bytesRead += bytes;
+            if (bytesRead > maxBytes) {
+                throw new ResponseTooLargeException(maxBytes);
+            }
+        }
+    }
+}
@@ -5,12 +5,14 @@ import com.techstud.schedule_university.fetcher.dto.GroupData;
 import com.techstud.schedule_university.fetcher.service.GroupFetcherService;
 import com.techstud.schedule_university.fetcher.service.impl.BmstuGroupDataFetchService;
 import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
 import org.springframework.test.context.ActiveProfiles;
 
+import java.io.IOException;
 import java.util.List;
 
 @Slf4j
@@ -18,11 +20,18 @@ import java.util.List;
 @Disabled
 public class BmstuGroupDataFetchServiceTest {
 
+    private TestFetchClients clients;
     private GroupFetcherService bmstuGroupDataFetchService;
 
     @BeforeEach
     public void setUp() {
-        bmstuGroupDataFetchService = new BmstuGroupDataFetchService();
+        clients = new TestFetchClients();
+        bmstuGroupDataFetchService = new BmstuGroupDataFetchService(clients.getTransport());
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        clients.close();
     }
 
     @Test
@@ -0,0 +1,195 @@
+package com.techstud.schedule_university.fetcher;
+
+import com.sun.net.httpserver.HttpServer;
+import com.techstud.schedule_university.fetcher.util.FetcherAsyncHttpEngine;
+import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
+import org.apache.hc.client5.http.async.methods.SimpleRequestBuilder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FetcherAsyncHttpEngineTest {
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private String url;
+    private TestFetchClients clients;
+    private final Queue<Long> arrivals = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger stalledRequests = new AtomicInteger();
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/groups", exchange -> {
+            byte[] body = "<a class=\"group\">ИВТ-101</a>".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "text/html; charset=UTF-8");
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.createContext("/page", exchange -> {
+            arrivals.add(System.nanoTime());
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        server.createContext("/stalled", exchange -> {
+            if (stalledRequests.getAndIncrement() == 0) {
+                awaitQuietly(release);
+            }
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        serverExecutor = Executors.newCachedThreadPool();
+        server.setExecutor(serverExecutor);
+        server.start();
+        url = "http://127.0.0.1:" + server.getAddress().getPort();
+        clients = TestFetchClients.withoutCache();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        release.countDown();
+        clients.close();
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @Test
+    void execute_ShouldProcessBodyOnVirtualThread() throws Exception {
+        // Act
+        Thread parser = clients.getEngine()
+                .execute(SimpleRequestBuilder.get(url + "/groups").build(), body -> Thread.currentThread())
+                .get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertTrue(parser.isVirtual());
+        assertTrue(parser.getName().startsWith("fetch-work-"));
+    }
+
+    @Test
+    void execute_ShouldProcessCachedPageOnVirtualThread() throws Exception {
+        // Arrange
+        clients.getCacheProperties().setEnabled(true);
+
+        // Act
+        Thread parser = clients.getEngine()
+                .execute(SimpleRequestBuilder.get(url + "/groups").build(), body -> Thread.currentThread())
+                .get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertTrue(parser.isVirtual());
+    }
+
+    @Test
+    void execute_WhenHostIsPausedWhileRequestsWait_ShouldNotSendThemBeforePauseEnds() throws Exception {
+        // Arrange
+        clients.getRateLimitProperties().setDefaultRate(10);
+        clients.getRateLimitProperties().setBurst(0);
+        FetcherAsyncHttpEngine engine = clients.getEngine();
+        List<CompletableFuture<SimpleHttpResponse>> responses = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            responses.add(engine.execute(SimpleRequestBuilder.get(url + "/page").build()));
+        }
+
+        // Act
+        long pausedAt = System.nanoTime();
+        clients.getRateLimiter().onResponse("127.0.0.1", 503, "1", 0);
+        CompletableFuture.allOf(responses.toArray(CompletableFuture[]::new)).get(10, TimeUnit.SECONDS);
+
+        // Assert
+        long pauseEnd = pausedAt + TimeUnit.SECONDS.toNanos(1);
+        assertEquals(5, arrivals.size());
+        assertEquals(4, arrivals.stream().filter(arrival -> arrival >= pauseEnd - TimeUnit.MILLISECONDS.toNanos(50))
+                .count());
+    }
+
+    @Test
+    void execute_WhenResponseIsSlowerThanUsual_ShouldAnswerFromHedgedCopy() throws Exception {
+        // Arrange
+        clients.getHedgeProperties().setMinSamples(1);
+        clients.getHedgeProperties().setBudgetRatio(1);
+        clients.getHedgeProperties().setMinDelay(Duration.ofMillis(20));
+        clients.getRateLimitProperties().setEnabled(false);
+        clients.getHedgePolicy().recordLatency("127.0.0.1", TimeUnit.MILLISECONDS.toNanos(1));
+
+        // Act
+        SimpleHttpResponse response = clients.getEngine()
+                .execute(SimpleRequestBuilder.get(url + "/stalled").build())
+                .get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertEquals(200, response.getCode());
+        assertEquals(2, stalledRequests.get());
+        assertEquals(1, clients.getMeterRegistry().get("fetcher.http.hedges").counter().count());
+    }
+
+    @Test
+    void execute_WhenResultIsCancelledWhileQueued_ShouldNotSendRequest() throws Exception {
+        // Arrange
+        clients.getHttpProperties().setMaxInFlightPerHost(1);
+        clients.getRateLimitProperties().setEnabled(false);
+        clients.getHedgeProperties().setEnabled(false);
+        FetcherAsyncHttpEngine engine = clients.getEngine();
+        CompletableFuture<SimpleHttpResponse> stalled = engine.execute(SimpleRequestBuilder.get(url + "/stalled").build());
+        CompletableFuture<String> queued = engine.execute(SimpleRequestBuilder.get(url + "/page").build(), body -> body);
+
+        // Act
+        queued.cancel(false);
+        release.countDown();
+        stalled.get(5, TimeUnit.SECONDS);
+        engine.execute(SimpleRequestBuilder.get(url + "/groups").build(), body -> body).get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertTrue(queued.isCancelled());
+        assertTrue(arrivals.isEmpty());
+    }
+
+    @Test
+    void execute_WhenManyQueuedRequestsAreCancelled_ShouldSkipThemWithoutRecursion() throws Exception {
+        // Arrange
+        clients.getHttpProperties().setMaxInFlightPerHost(1);
+        clients.getRateLimitProperties().setEnabled(false);
+        clients.getHedgeProperties().setEnabled(false);
+        FetcherAsyncHttpEngine engine = clients.getEngine();
+        CompletableFuture<SimpleHttpResponse> stalled = engine.execute(SimpleRequestBuilder.get(url + "/stalled").build());
+        for (int i = 0; i < 50_000; i++) {
+            engine.execute(SimpleRequestBuilder.get(url + "/page").build()).cancel(false);
+        }
+
+        // Act
+        release.countDown();
+        stalled.get(5, TimeUnit.SECONDS);
+        String page = engine.execute(SimpleRequestBuilder.get(url + "/groups").build(), body -> body)
+                .get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertTrue(page.contains("ИВТ-101"));
+        assertTrue(arrivals.isEmpty());
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
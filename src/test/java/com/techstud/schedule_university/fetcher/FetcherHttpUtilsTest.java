@@ -0,0 +1,44 @@
+package com.techstud.schedule_university.fetcher;
+
+import com.techstud.schedule_university.fetcher.util.FetcherHttpUtils;
+import org.apache.hc.client5.http.async.methods.SimpleHttpRequest;
+import org.apache.hc.client5.http.async.methods.SimpleRequestBuilder;
+import org.apache.hc.client5.http.classic.methods.HttpGet;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FetcherHttpUtilsTest {
+
+    private static final Map<String, URI> OVERRIDES = Map.of("rasp.unecon.ru", URI.create("http://127.0.0.1:8089"));
+
+    @Test
+    void applyHostOverride_ShouldKeepPathAndQuery() throws Exception {
+        // Arrange
+        HttpGet classic = new HttpGet("https://rasp.unecon.ru/raspisanie.php?fakultet=1&kurs=2");
+        SimpleHttpRequest async = SimpleRequestBuilder.get("https://rasp.unecon.ru/raspisanie.php").build();
+
+        // Act
+        FetcherHttpUtils.applyHostOverride(classic, OVERRIDES);
+        FetcherHttpUtils.applyHostOverride(async, OVERRIDES);
+
+        // Assert
+        assertEquals("http://127.0.0.1:8089/raspisanie.php?fakultet=1&kurs=2", classic.getUri().toString());
+        assertEquals("http://127.0.0.1:8089/raspisanie.php", async.getUri().toString());
+    }
+
+    @Test
+    void applyHostOverride_ShouldIgnoreOtherHosts() throws Exception {
+        // Arrange
+        HttpGet request = new HttpGet("https://table.nsu.ru/faculties");
+
+        // Act
+        FetcherHttpUtils.applyHostOverride(request, OVERRIDES);
+
+        // Assert
+        assertEquals("https://table.nsu.ru/faculties", request.getUri().toString());
+    }
+}
@@ -0,0 +1,108 @@
+package com.techstud.schedule_university.fetcher;
+
+import com.techstud.schedule_university.fetcher.util.FetcherMetrics;
+import com.techstud.schedule_university.fetcher.util.FetcherMetrics.RequestTags;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.hc.client5.http.classic.methods.HttpGet;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FetcherMetricsTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private FetcherMetrics metrics;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        metrics = new FetcherMetrics(meterRegistry);
+    }
+
+    @Test
+    void tagsOf_ShouldUsePageTemplateWithoutIdsAndParameterValues() {
+        // Act
+        RequestTags tags = metrics.tagsOf(new HttpGet("https://its.tltsu.ru/api/courses/institute/42?b=2&a=1"));
+
+        // Assert
+        assertEquals("/api/courses/institute/{id}?a&b", tags.page());
+        assertEquals(FetcherMetrics.UNKNOWN, tags.university());
+    }
+
+    @Test
+    void tagsOf_OutsideCrawl_ShouldUseUniversityLearnedForHost() {
+        // Arrange
+        metrics.recordCrawl("UNECON", () -> {
+            metrics.tagsOf(new HttpGet("https://rasp.unecon.ru/raspisanie.php"));
+            return List.of();
+        });
+
+        // Act
+        RequestTags tags = metrics.tagsOf(new HttpGet("https://rasp.unecon.ru/raspisanie.php?fakultet=3"));
+
+        // Assert
+        assertEquals("UNECON", tags.university());
+        assertEquals("/raspisanie.php?fakultet", tags.page());
+    }
+
+    @Test
+    void tagsOf_WhenTooManyPageTemplates_ShouldGroupRestAsOther() {
+        // Arrange
+        for (int i = 0; i < 20; i++) {
+            metrics.tagsOf(new HttpGet("https://table.nsu.ru/faculty/f" + (char) ('a' + i)));
+        }
+
+        // Act
+        RequestTags tags = metrics.tagsOf(new HttpGet("https://table.nsu.ru/faculty/zz"));
+
+        // Assert
+        assertEquals("other", tags.page());
+    }
+
+    @Test
+    void recordCrawl_ShouldRecordDurationAndGroups() {
+        // Act
+        metrics.recordCrawl("MEPHI", () -> List.of("a", "b", "c"));
+
+        // Assert
+        assertEquals(1, meterRegistry.get("fetcher.crawl").tag("university", "MEPHI")
+                .tag("outcome", "success").timer().count());
+        assertEquals(3, meterRegistry.get("fetcher.crawl.groups").tag("university", "MEPHI")
+                .summary().totalAmount());
+    }
+
+    @Test
+    void recordResponse_WhenErrorStatus_ShouldCountErrorByStatus() {
+        // Arrange
+        RequestTags tags = new RequestTags("SSAU", "/rasp");
+
+        // Act
+        metrics.recordResponse(tags, 200, TimeUnit.MILLISECONDS.toNanos(10));
+        metrics.recordResponse(tags, 503, TimeUnit.MILLISECONDS.toNanos(10));
+
+        // Assert
+        assertEquals(2, meterRegistry.get("fetcher.http.requests").tag("university", "SSAU").timers().stream()
+                .mapToLong(timer -> timer.count()).sum());
+        assertEquals(1, meterRegistry.get("fetcher.http.errors").tag("status", "503").counter().count());
+    }
+
+    @Test
+    void registerConnectionPool_ShouldPublishCurrentPoolStats() {
+        // Arrange
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(12);
+
+        // Act
+        metrics.registerConnectionPool("classic", connectionManager);
+
+        // Assert
+        assertEquals(12, meterRegistry.get("fetcher.http.pool.max").tag("client", "classic").gauge().value());
+        assertEquals(0, meterRegistry.get("fetcher.http.pool.leased").tag("client", "classic").gauge().value());
+        connectionManager.close();
+    }
+}
@@ -0,0 +1,115 @@
+package com.techstud.schedule_university.fetcher;
+
+import com.techstud.schedule_university.fetcher.config.GroupCatalogProperties;
+import com.techstud.schedule_university.fetcher.dto.BatchCrawlResult;
+import com.techstud.schedule_university.fetcher.dto.GroupData;
+import com.techstud.schedule_university.fetcher.dto.UniversityCrawlResult;
+import com.techstud.schedule_university.fetcher.dto.UniversityCrawlResult.Status;
+import com.techstud.schedule_university.fetcher.exception.GroupCatalogUnavailableException;
+import com.techstud.schedule_university.fetcher.service.GroupBatchCrawlService;
+import com.techstud.schedule_university.fetcher.service.GroupCatalogCache;
+import com.techstud.schedule_university.fetcher.service.GroupFetchServiceFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class GroupBatchCrawlServiceTest {
+
+    private static final Instant NOW = Instant.parse("2026-10-18T10:00:00Z");
+    private static final List<GroupData> CATALOG = List.of(new GroupData("ИВТ-101", "1"), new GroupData("ИВТ-102", "2"));
+
+    @Mock
+    private GroupCatalogCache groupCatalogCache;
+
+    @Mock
+    private GroupFetchServiceFactory groupFetchServiceFactory;
+
+    private GroupBatchCrawlService batchCrawlService;
+
+    @BeforeEach
+    void setUp() {
+        batchCrawlService = new GroupBatchCrawlService(groupCatalogCache, groupFetchServiceFactory,
+                new GroupCatalogProperties(), Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    @Test
+    void crawl_ShouldReportEachUniversityWithoutWaitingForSlowOnes() throws Exception {
+        // Arrange
+        when(groupFetchServiceFactory.getUniversityNames()).thenReturn(List.of("BMSTU", "MIIT", "NSU", "SSAU"));
+        when(groupCatalogCache.refresh("BMSTU")).thenReturn(CompletableFuture.completedFuture(CATALOG));
+        when(groupCatalogCache.getCatalog("BMSTU"))
+                .thenReturn(Optional.of(new GroupCatalogCache.CatalogEntry(CATALOG, NOW)));
+        when(groupCatalogCache.refresh("MIIT")).thenReturn(CompletableFuture.completedFuture(CATALOG));
+        when(groupCatalogCache.getCatalog("MIIT"))
+                .thenReturn(Optional.of(new GroupCatalogCache.CatalogEntry(CATALOG, NOW.minus(Duration.ofHours(8)))));
+        when(groupCatalogCache.refresh("NSU")).thenReturn(CompletableFuture.failedFuture(
+                new GroupCatalogUnavailableException("NSU", new IOException("Connection reset"))));
+        when(groupCatalogCache.refresh("SSAU")).thenReturn(new CompletableFuture<>());
+        when(groupCatalogCache.getCatalog("SSAU")).thenReturn(Optional.empty());
+
+        // Act
+        BatchCrawlResult result = batchCrawlService.crawl(List.of(GroupBatchCrawlService.ALL_UNIVERSITIES),
+                Duration.ofMillis(200)).get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertEquals(NOW, result.startedAt());
+        assertEquals(200, result.deadlineMillis());
+        assertEquals(List.of("BMSTU", "MIIT", "NSU", "SSAU"), List.copyOf(result.universities().keySet()));
+        assertEquals(new UniversityCrawlResult(Status.OK, 2, result.universities().get("BMSTU").durationMillis(),
+                null), result.universities().get("BMSTU"));
+        assertEquals(Status.STALE, result.universities().get("MIIT").status());
+        assertEquals(2, result.universities().get("MIIT").groups());
+        UniversityCrawlResult failed = result.universities().get("NSU");
+        assertEquals(Status.FAILED, failed.status());
+        assertNull(failed.groups());
+        assertTrue(failed.error().contains("NSU"));
+        UniversityCrawlResult timedOut = result.universities().get("SSAU");
+        assertEquals(Status.TIMED_OUT, timedOut.status());
+        assertTrue(timedOut.durationMillis() >= 200);
+    }
+
+    @Test
+    void crawl_ShouldNormalizeNamesAndCrawlEachUniversityOnce() {
+        // Arrange
+        when(groupCatalogCache.refresh("MIIT")).thenReturn(CompletableFuture.completedFuture(CATALOG));
+        when(groupCatalogCache.getCatalog("MIIT"))
+                .thenReturn(Optional.of(new GroupCatalogCache.CatalogEntry(CATALOG, NOW)));
+
+        // Act
+        BatchCrawlResult result = batchCrawlService.crawl(List.of("miit", " MIIT"), null).join();
+
+        // Assert
+        assertEquals(List.of("MIIT"), List.copyOf(result.universities().keySet()));
+        assertEquals(Duration.ofMinutes(2).toMillis(), result.deadlineMillis());
+        verify(groupCatalogCache, times(1)).refresh("MIIT");
+        verify(groupFetchServiceFactory, never()).getUniversityNames();
+    }
+
+    @Test
+    void crawl_WithUnknownUniversity_ShouldFailBeforeCrawling() {
+        // Arrange
+        when(groupFetchServiceFactory.getGroupFetcherService("MGU"))
+                .thenThrow(new IllegalArgumentException("GroupFetcherService for university MGU not found"));
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class,
+                () -> batchCrawlService.crawl(List.of("MGU", "MIIT"), Duration.ofSeconds(1)));
+        verifyNoInteractions(groupCatalogCache);
+    }
+}
@@ -0,0 +1,300 @@
+package com.techstud.schedule_university.fetcher;
+
+import com.techstud.schedule_university.fetcher.config.GroupCatalogProperties;
+import com.techstud.schedule_university.fetcher.dto.GroupCatalogDiff;
+import com.techstud.schedule_university.fetcher.dto.GroupData;
+import com.techstud.schedule_university.fetcher.entity.CatalogGroup;
+import com.techstud.schedule_university.fetcher.exception.GroupCatalogUnavailableException;
+import com.techstud.schedule_university.fetcher.service.GroupCatalogCache;
+import com.techstud.schedule_university.fetcher.service.GroupCatalogChangeSink;
+import com.techstud.schedule_university.fetcher.service.GroupCatalogStore;
+import com.techstud.schedule_university.fetcher.service.GroupFetchServiceFacade;
+import com.techstud.schedule_university.fetcher.service.GroupFetchServiceFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class GroupCatalogCacheTest {
+
+    private static final Instant NOW = Instant.parse("2026-10-18T10:00:00Z");
+    private static final String UNIVERSITY = "MIIT";
+    private static final List<GroupData> CATALOG = groups(10);
+
+    @Mock
+    private GroupFetchServiceFacade groupFetchServiceFacade;
+
+    @Mock
+    private GroupFetchServiceFactory groupFetchServiceFactory;
+
+    @Mock
+    private GroupCatalogStore catalogStore;
+
+    @Mock
+    private GroupCatalogChangeSink changeSink;
+
+    private MutableClock clock;
+    private GroupCatalogCache catalogCache;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(NOW);
+        catalogCache = new GroupCatalogCache(groupFetchServiceFacade, groupFetchServiceFactory, catalogStore,
+                List.of(changeSink), new GroupCatalogProperties(), clock);
+    }
+
+    @Test
+    void getGroups_WhenCatalogIsFresh_ShouldNotCrawl() {
+        // Arrange
+        when(groupFetchServiceFacade.asyncParseGroups(UNIVERSITY)).thenReturn(CompletableFuture.completedFuture(CATALOG));
+        catalogCache.getGroups(UNIVERSITY).join();
+        clock.advance(Duration.ofHours(1));
+
+        // Act
+        List<GroupData> result = catalogCache.getGroups(UNIVERSITY).join();
+
+        // Assert
+        assertEquals(CATALOG, result);
+        verify(groupFetchServiceFacade, times(1)).asyncParseGroups(UNIVERSITY);
+    }
+
+    @Test
+    void getGroups_WhenRefreshIsDue_ShouldServeCurrentCatalogAndRefreshInBackground() {
+        // Arrange
+        CompletableFuture<List<GroupData>> backgroundCrawl = new CompletableFuture<>();
+        when(groupFetchServiceFacade.asyncParseGroups(UNIVERSITY))
+                .thenReturn(CompletableFuture.completedFuture(CATALOG), backgroundCrawl);
+        catalogCache.getGroups(UNIVERSITY).join();
+        clock.advance(Duration.ofHours(5));
+
+        // Act
+        CompletableFuture<List<GroupData>> result = catalogCache.getGroups(UNIVERSITY);
+        backgroundCrawl.complete(groups(12));
+
+        // Assert
+        assertTrue(result.isDone());
+        assertEquals(CATALOG, result.join());
+        assertEquals(12, catalogCache.getCatalog(UNIVERSITY).orElseThrow().groups().size());
+    }
+
+    @Test
+    void refresh_WhenCrawlFails_ShouldKeepLastKnownGood() {
+        // Arrange
+        when(groupFetchServiceFacade.asyncParseGroups(UNIVERSITY))
+                .thenReturn(CompletableFuture.completedFuture(CATALOG),
+                        CompletableFuture.failedFuture(new IOException("Connection refused")));
+        catalogCache.getGroups(UNIVERSITY).join();
+
+        // Act
+        List<GroupData> result = catalogCache.refresh(UNIVERSITY).join();
+
+        // Assert
+        assertEquals(CATALOG, result);
+        assertEquals(NOW, catalogCache.getCatalog(UNIVERSITY).orElseThrow().fetchedAt());
+    }
+
+    @Test
+    void refresh_WhenCrawlReturnsSuspiciouslyFewGroups_ShouldKeepLastKnownGood() {
+        // Arrange
+        when(groupFetchServiceFacade.asyncParseGroups(UNIVERSITY))
+                .thenReturn(CompletableFuture.completedFuture(CATALOG), CompletableFuture.completedFuture(groups(3)));
+        catalogCache.getGroups(UNIVERSITY).join();
+
+        // Act
+        List<GroupData> result = catalogCache.refresh(UNIVERSITY).join();
+
+        // Assert
+        assertEquals(CATALOG, result);
+    }
+
+    @Test
+    void refresh_WhenSameSmallerCatalogIsConfirmed_ShouldAcceptIt() {
+        // Arrange
+        when(groupFetchServiceFacade.asyncParseGroups(UNIVERSITY))
+                .thenReturn(CompletableFuture.completedFuture(CATALOG), CompletableFuture.completedFuture(groups(3)));
+        catalogCache.refresh(UNIVERSITY).join();
+        catalogCache.refresh(UNIVERSITY).join();
+        catalogCache.refresh(UNIVERSITY).join();
+
+        // Act
+        List<GroupData> result = catalogCache.refresh(UNIVERSITY).join();
+
+        // Assert
+        assertEquals(groups(3), result);
+        verify(catalogStore).applyCrawl(UNIVERSITY, groups(3), NOW);
+    }
+
+    @Test
+    void refresh_WhenSmallerCatalogsDiffer_ShouldKeepLastKnownGood() {
+        // Arrange
+        when(groupFetchServiceFacade.asyncParseGroups(UNIVERSITY))
+                .thenReturn(CompletableFuture.completedFuture(CATALOG), CompletableFuture.completedFuture(groups(3)),
+                        CompletableFuture.completedFuture(groups(3)), CompletableFuture.completedFuture(groups(4)));
+        catalogCache.refresh(UNIVERSITY).join();
+        catalogCache.refresh(UNIVERSITY).join();
+        catalogCache.refresh(UNIVERSITY).join();
+
+        // Act
+        List<GroupData> result = catalogCache.refresh(UNIVERSITY).join();
+
+        // Assert
+        assertEquals(CATALOG, result);
+    }
+
+    @Test
+    void getGroups_WhenUniversityIsUnknown_ShouldFailWithoutCrawl() {
+        // Arrange
+        when(groupFetchServiceFactory.getGroupFetcherService("UNKNOWN"))
+                .thenThrow(new IllegalArgumentException("GroupFetcherService for university UNKNOWN not found"));
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> catalogCache.getGroups("UNKNOWN"));
+        verifyNoInteractions(groupFetchServiceFacade, catalogStore);
+    }
+
+    @Test
+    void getGroups_WhenFirstCrawlFails_ShouldFail() {
+        // Arrange
+        when(groupFetchServiceFacade.asyncParseGroups(UNIVERSITY))
+                .thenReturn(CompletableFuture.completedFuture(List.of()));
+
+        // Act
+        CompletionException exception = assertThrows(CompletionException.class,
+                () -> catalogCache.getGroups(UNIVERSITY).join());
+
+        // Assert
+        assertInstanceOf(GroupCatalogUnavailableException.class, exception.getCause());
+        assertTrue(catalogCache.getCatalog(UNIVERSITY).isEmpty());
+    }
+
+    @Test
+    void getGroups_AfterFailedRefresh_ShouldBackOff() {
+        // Arrange
+        when(groupFetchServiceFacade.asyncParseGroups(UNIVERSITY))
+                .thenReturn(CompletableFuture.completedFuture(CATALOG),
+                        CompletableFuture.failedFuture(new IOException("Connection refused")));
+        catalogCache.getGroups(UNIVERSITY).join();
+        clock.advance(Duration.ofHours(6));
+        catalogCache.getGroups(UNIVERSITY).join();
+
+        // Act
+        clock.advance(Duration.ofMinutes(1));
+        List<GroupData> result = catalogCache.getGroups(UNIVERSITY).join();
+
+        // Assert
+        assertEquals(CATALOG, result);
+        verify(groupFetchServiceFacade, times(2)).asyncParseGroups(UNIVERSITY);
+    }
+
+    @Test
+    void getGroups_AfterRestart_ShouldServeStoredCatalog() {
+        // Arrange
+        when(catalogStore.loadCatalog(UNIVERSITY)).thenReturn(List.of(CatalogGroup.builder()
+                .university(UNIVERSITY)
+                .groupCode("ГР-1")
+                .universityGroupId("1")
+                .firstSeen(NOW.minus(Duration.ofDays(3)))
+                .lastSeen(NOW.minus(Duration.ofHours(1)))
+                .build()));
+
+        // Act
+        List<GroupData> result = catalogCache.getGroups(UNIVERSITY).join();
+
+        // Assert
+        assertEquals(List.of(new GroupData("ГР-1", "1")), result);
+        verifyNoInteractions(groupFetchServiceFacade);
+    }
+
+    @Test
+    void refresh_WhenCatalogIsAccepted_ShouldSaveIt() {
+        // Arrange
+        when(groupFetchServiceFacade.asyncParseGroups(UNIVERSITY)).thenReturn(CompletableFuture.completedFuture(CATALOG));
+
+        // Act
+        catalogCache.refresh(UNIVERSITY).join();
+
+        // Assert
+        verify(catalogStore).applyCrawl(UNIVERSITY, CATALOG, NOW);
+    }
+
+    @Test
+    void refresh_WhenCatalogChanged_ShouldPublishDiff() {
+        // Arrange
+        List<GroupData> changed = List.of(
+                new GroupData("ГР-0", "0"),
+                new GroupData("ГР-1м", "1"),
+                new GroupData("ГР-2", "2"),
+                new GroupData("ГР-3", "3"),
+                new GroupData("ГР-4", "4"),
+                new GroupData("ГР-5", "5"),
+                new GroupData("ГР-6", "6"),
+                new GroupData("ГР-7", "7"),
+                new GroupData("ГР-8", "8"),
+                new GroupData("ГР-10", "10"));
+        when(groupFetchServiceFacade.asyncParseGroups(UNIVERSITY))
+                .thenReturn(CompletableFuture.completedFuture(CATALOG), CompletableFuture.completedFuture(changed),
+                        CompletableFuture.completedFuture(changed));
+        catalogCache.refresh(UNIVERSITY).join();
+
+        // Act
+        catalogCache.refresh(UNIVERSITY).join();
+        catalogCache.refresh(UNIVERSITY).join();
+
+        // Assert
+        verify(changeSink).onCatalogChanged(new GroupCatalogDiff(UNIVERSITY,
+                List.of(new GroupData("ГР-10", "10")),
+                List.of(new GroupData("ГР-9", "9")),
+                List.of(new GroupCatalogDiff.GroupRename("1", "ГР-1", "ГР-1м"))));
+        verify(changeSink, times(2)).onCatalogChanged(any());
+    }
+
+    private static List<GroupData> groups(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> new GroupData("ГР-" + i, String.valueOf(i)))
+                .toList();
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant instant;
+
+        private MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        private void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
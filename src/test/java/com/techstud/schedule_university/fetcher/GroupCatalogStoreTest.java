@@ -0,0 +1,95 @@
+package com.techstud.schedule_university.fetcher;
+
+import com.techstud.schedule_university.fetcher.dto.CatalogWriteStats;
+import com.techstud.schedule_university.fetcher.dto.GroupData;
+import com.techstud.schedule_university.fetcher.entity.CatalogGroup;
+import com.techstud.schedule_university.fetcher.repository.CatalogGroupRepository;
+import com.techstud.schedule_university.fetcher.service.GroupCatalogStore;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class GroupCatalogStoreTest {
+
+    private static final Instant NOW = Instant.parse("2026-10-18T10:00:00Z");
+    private static final String UNIVERSITY = "UNECON";
+
+    @Mock
+    private CatalogGroupRepository catalogGroupRepository;
+
+    @InjectMocks
+    private GroupCatalogStore catalogStore;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void applyCrawl_ShouldWriteOnlyDelta() {
+        // Arrange
+        CatalogGroup kept = stored(1L, "ЭК-101", "101", null);
+        CatalogGroup renamed = stored(2L, "ЭК-102", "102", null);
+        CatalogGroup missing = stored(3L, "ЭК-103", "103", null);
+        CatalogGroup returned = stored(4L, "ЭК-104", "104", NOW.minus(Duration.ofDays(1)));
+        when(catalogGroupRepository.findByUniversity(UNIVERSITY)).thenReturn(List.of(kept, renamed, missing, returned));
+        when(catalogGroupRepository.touchActive(UNIVERSITY, NOW)).thenReturn(3);
+        List<GroupData> crawled = List.of(
+                new GroupData("ЭК-101", "101"),
+                new GroupData("ЭК-102м", "102"),
+                new GroupData("ЭК-104", "104"),
+                new GroupData("ЭК-105", "105"));
+
+        // Act
+        CatalogWriteStats stats = catalogStore.applyCrawl(UNIVERSITY, crawled, NOW);
+
+        // Assert
+        assertEquals(new CatalogWriteStats(1, 3, 1, 1, 1), stats);
+        assertEquals("ЭК-102м", renamed.getGroupCode());
+        verify(catalogGroupRepository).softDelete(List.of(3L), NOW);
+        verify(catalogGroupRepository).restore(List.of(4L));
+
+        ArgumentCaptor<List<CatalogGroup>> inserted = ArgumentCaptor.forClass(List.class);
+        verify(catalogGroupRepository).saveAll(inserted.capture());
+        assertEquals(1, inserted.getValue().size());
+        assertEquals("105", inserted.getValue().get(0).getUniversityGroupId());
+        assertEquals(NOW, inserted.getValue().get(0).getFirstSeen());
+    }
+
+    @Test
+    void applyCrawl_WhenNothingChanged_ShouldOnlyTouch() {
+        // Arrange
+        when(catalogGroupRepository.findByUniversity(UNIVERSITY))
+                .thenReturn(List.of(stored(1L, "ЭК-101", "101", null)));
+        when(catalogGroupRepository.touchActive(UNIVERSITY, NOW)).thenReturn(1);
+
+        // Act
+        CatalogWriteStats stats = catalogStore.applyCrawl(UNIVERSITY, List.of(new GroupData("ЭК-101", "101")), NOW);
+
+        // Assert
+        assertEquals(new CatalogWriteStats(0, 1, 0, 0, 0), stats);
+        verify(catalogGroupRepository, never()).softDelete(any(), any());
+        verify(catalogGroupRepository, never()).restore(any());
+        verify(catalogGroupRepository).saveAll(List.of());
+    }
+
+    private static CatalogGroup stored(Long id, String groupCode, String universityGroupId, Instant deletedAt) {
+        return CatalogGroup.builder()
+                .id(id)
+                .university(UNIVERSITY)
+                .groupCode(groupCode)
+                .universityGroupId(universityGroupId)
+                .firstSeen(NOW.minus(Duration.ofDays(30)))
+                .lastSeen(NOW.minus(Duration.ofDays(1)))
+                .deletedAt(deletedAt)
+                .build();
+    }
+}
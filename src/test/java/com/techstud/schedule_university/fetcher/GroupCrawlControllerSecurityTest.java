@@ -0,0 +1,75 @@
+package com.techstud.schedule_university.fetcher;
+
+import com.techstud.schedule_university.auth.config.SecurityConfig;
+import com.techstud.schedule_university.fetcher.config.FetcherExecutionProperties;
+import com.techstud.schedule_university.fetcher.config.GroupCatalogProperties;
+import com.techstud.schedule_university.fetcher.controller.GroupCrawlController;
+import com.techstud.schedule_university.fetcher.service.GroupBatchCrawlService;
+import com.techstud.schedule_university.fetcher.service.GroupCatalogCache;
+import com.techstud.schedule_university.fetcher.service.GroupFetchServiceFacade;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(GroupCrawlController.class)
+@Import({SecurityConfig.class, GroupCatalogProperties.class, FetcherExecutionProperties.class})
+class GroupCrawlControllerSecurityTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private GroupBatchCrawlService groupBatchCrawlService;
+
+    @MockitoBean
+    private GroupFetchServiceFacade groupFetchServiceFacade;
+
+    @MockitoBean
+    private GroupCatalogCache groupCatalogCache;
+
+    @Test
+    void crawl_ShouldRequireAuthentication() throws Exception {
+        // Act
+        mockMvc.perform(post("/api/fetcher/crawl").param("universities", "all"))
+                .andExpect(status().isUnauthorized());
+
+        // Assert
+        verifyNoInteractions(groupBatchCrawlService);
+    }
+
+    @Test
+    void getGroups_ShouldRequireAuthentication() throws Exception {
+        // Act
+        mockMvc.perform(get("/api/fetcher/groups/bmstu"))
+                .andExpect(status().isUnauthorized());
+
+        // Assert
+        verifyNoInteractions(groupCatalogCache);
+    }
+
+    @Test
+    void streamGroups_ShouldRequireAuthentication() throws Exception {
+        // Act
+        mockMvc.perform(get("/api/fetcher/groups/bmstu/stream").accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(status().isUnauthorized());
+
+        // Assert
+        verifyNoInteractions(groupFetchServiceFacade);
+    }
+
+    @Test
+    void otherEndpoints_ShouldStillRequireAuthentication() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/api/schedule"))
+                .andExpect(status().isUnauthorized());
+    }
+}
@@ -0,0 +1,173 @@
+package com.techstud.schedule_university.fetcher;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.techstud.schedule_university.fetcher.config.FetcherExecutionProperties;
+import com.techstud.schedule_university.fetcher.config.GroupCatalogProperties;
+import com.techstud.schedule_university.fetcher.controller.GroupCrawlController;
+import com.techstud.schedule_university.fetcher.dto.BatchCrawlResult;
+import com.techstud.schedule_university.fetcher.dto.GroupData;
+import com.techstud.schedule_university.fetcher.exception.GroupCatalogUnavailableException;
+import com.techstud.schedule_university.fetcher.service.GroupBatchCrawlService;
+import com.techstud.schedule_university.fetcher.service.GroupCatalogCache;
+import com.techstud.schedule_university.fetcher.service.GroupFetchServiceFacade;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(MockitoExtension.class)
+class GroupCrawlControllerTest {
+
+    @Mock
+    private GroupBatchCrawlService groupBatchCrawlService;
+
+    @Mock
+    private GroupFetchServiceFacade groupFetchServiceFacade;
+
+    @Mock
+    private GroupCatalogCache groupCatalogCache;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(new GroupCrawlController(groupBatchCrawlService,
+                        new GroupCatalogProperties(), groupFetchServiceFacade, groupCatalogCache,
+                        new FetcherExecutionProperties(), new ObjectMapper()))
+                .setConversionService(new ApplicationConversionService())
+                .build();
+    }
+
+    @Test
+    void crawl_ShouldUseRequestedDeadline() throws Exception {
+        // Arrange
+        when(groupBatchCrawlService.crawl(List.of("BMSTU"), Duration.ofSeconds(90)))
+                .thenReturn(CompletableFuture.completedFuture(
+                        new BatchCrawlResult(Instant.parse("2026-10-18T10:00:00Z"), 90_000, Map.of())));
+
+        // Act
+        MvcResult result = mockMvc.perform(post("/api/fetcher/crawl")
+                        .param("universities", "BMSTU")
+                        .param("deadline", "90s"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.deadlineMillis").value(90_000));
+    }
+
+    @Test
+    void crawl_WhenDeadlineExceedsMaximum_ShouldReturnBadRequest() throws Exception {
+        // Act
+        mockMvc.perform(post("/api/fetcher/crawl").param("deadline", "1h"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value(containsString("PT10M")));
+
+        // Assert
+        verifyNoInteractions(groupBatchCrawlService);
+    }
+
+    @Test
+    void getGroups_ShouldServeCatalogFromCache() throws Exception {
+        // Arrange
+        when(groupCatalogCache.getGroups("BMSTU"))
+                .thenReturn(CompletableFuture.completedFuture(List.of(new GroupData("IU7-11B", "42"))));
+
+        // Act
+        MvcResult result = mockMvc.perform(get("/api/fetcher/groups/bmstu"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].universityGroupId").value("42"));
+    }
+
+    @Test
+    void getGroups_WhenCatalogIsUnavailable_ShouldReturnServiceUnavailable() throws Exception {
+        // Arrange
+        when(groupCatalogCache.getGroups("BMSTU")).thenReturn(CompletableFuture.failedFuture(
+                new GroupCatalogUnavailableException("BMSTU", new IOException("Connection refused"))));
+
+        // Act
+        MvcResult result = mockMvc.perform(get("/api/fetcher/groups/bmstu"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isServiceUnavailable());
+    }
+
+    @Test
+    void streamGroups_ShouldWriteGroupPerLine() throws Exception {
+        // Arrange
+        stubStream();
+
+        // Act
+        MvcResult result = mockMvc.perform(get("/api/fetcher/groups/bmstu/stream")
+                        .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().string("{\"groupCode\":\"IU7-11B\",\"universityGroupId\":\"42\"}\n"));
+    }
+
+    @Test
+    void streamGroupEvents_ShouldSendGroupEvents() throws Exception {
+        // Arrange
+        stubStream();
+
+        // Act
+        MvcResult result = mockMvc.perform(get("/api/fetcher/groups/bmstu/stream")
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("event:group")));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void stubStream() {
+        when(groupFetchServiceFacade.streamGroups(eq("BMSTU"), any())).thenAnswer(invocation -> {
+            invocation.getArgument(1, Consumer.class).accept(new GroupData("IU7-11B", "42"));
+            return CompletableFuture.completedFuture(1L);
+        });
+    }
+}
@@ -0,0 +1,152 @@
+package com.techstud.schedule_university.fetcher;
+
+import com.techstud.schedule_university.fetcher.config.CrawlScheduleProperties;
+import com.techstud.schedule_university.fetcher.config.CrawlScheduleProperties.UniversitySchedule;
+import com.techstud.schedule_university.fetcher.dto.CrawlScheduleStatus;
+import com.techstud.schedule_university.fetcher.dto.GroupData;
+import com.techstud.schedule_university.fetcher.service.GroupCatalogCache;
+import com.techstud.schedule_university.fetcher.service.GroupCrawlScheduler;
+import com.techstud.schedule_university.fetcher.service.GroupFetchServiceFactory;
+import com.techstud.schedule_university.fetcher.service.GroupFetcherService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class GroupCrawlSchedulerTest {
+
+    private static final Instant NOW = Instant.parse("2026-10-18T10:00:00Z");
+
+    @Mock
+    private GroupFetchServiceFactory groupFetchServiceFactory;
+
+    @Mock
+    private GroupCatalogCache groupCatalogCache;
+
+    @Mock
+    private TaskScheduler taskScheduler;
+
+    private CrawlScheduleProperties properties;
+    private GroupCrawlScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        properties = new CrawlScheduleProperties();
+        properties.setDefaultJitter(Duration.ZERO);
+        properties.setWarmUpLead(Duration.ZERO);
+        UniversitySchedule nsu = new UniversitySchedule();
+        nsu.setZone(ZoneId.of("Asia/Novosibirsk"));
+        properties.getUniversities().put("NSU", nsu);
+        scheduler = new GroupCrawlScheduler(groupFetchServiceFactory, groupCatalogCache, taskScheduler, properties,
+                Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    @Test
+    void start_ShouldScheduleEachUniversityInItsZoneWithStagger() {
+        // Arrange
+        when(groupFetchServiceFactory.getUniversityNames()).thenReturn(List.of("MIIT", "NSU"));
+
+        // Act
+        scheduler.start();
+
+        // Assert
+        verify(taskScheduler).schedule(any(Runnable.class), eq(Instant.parse("2026-10-19T00:00:00Z")));
+        verify(taskScheduler).schedule(any(Runnable.class), eq(Instant.parse("2026-10-18T20:05:00Z")));
+        assertEquals(Instant.parse("2026-10-18T20:05:00Z"), scheduler.getStatuses().get("NSU").nextRun());
+    }
+
+    @Test
+    void start_ShouldAddJitterWithinBound() {
+        // Arrange
+        properties.setDefaultJitter(Duration.ofMinutes(20));
+        when(groupFetchServiceFactory.getUniversityNames()).thenReturn(List.of("MIIT"));
+        ArgumentCaptor<Instant> runAt = ArgumentCaptor.forClass(Instant.class);
+
+        // Act
+        scheduler.start();
+
+        // Assert
+        verify(taskScheduler).schedule(any(Runnable.class), runAt.capture());
+        Instant base = Instant.parse("2026-10-19T00:00:00Z");
+        assertFalse(runAt.getValue().isBefore(base));
+        assertTrue(runAt.getValue().isBefore(base.plus(Duration.ofMinutes(20))));
+    }
+
+    @Test
+    void start_ShouldSkipDisabledUniversity() {
+        // Arrange
+        properties.getUniversities().get("NSU").setEnabled(false);
+        when(groupFetchServiceFactory.getUniversityNames()).thenReturn(List.of("NSU"));
+
+        // Act
+        scheduler.start();
+
+        // Assert
+        verifyNoInteractions(taskScheduler);
+        assertTrue(scheduler.getStatuses().isEmpty());
+    }
+
+    @Test
+    void start_ShouldWarmUpConnectionsBeforeRun() throws Exception {
+        // Arrange
+        properties.setWarmUpLead(Duration.ofSeconds(30));
+        GroupFetcherService fetcher = mock(GroupFetcherService.class);
+        CountDownLatch warmedUp = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            warmedUp.countDown();
+            return null;
+        }).when(fetcher).warmUp();
+        when(groupFetchServiceFactory.getUniversityNames()).thenReturn(List.of("MIIT"));
+        when(groupFetchServiceFactory.getGroupFetcherService("MIIT")).thenReturn(fetcher);
+        ArgumentCaptor<Runnable> warmUp = ArgumentCaptor.forClass(Runnable.class);
+        scheduler.start();
+        verify(taskScheduler).schedule(any(Runnable.class), eq(Instant.parse("2026-10-19T00:00:00Z")));
+        verify(taskScheduler).schedule(warmUp.capture(), eq(Instant.parse("2026-10-18T23:59:30Z")));
+
+        // Act
+        warmUp.getValue().run();
+
+        // Assert
+        assertTrue(warmedUp.await(5, TimeUnit.SECONDS));
+        verifyNoInteractions(groupCatalogCache);
+    }
+
+    @Test
+    void run_ShouldRecordLastRunAndScheduleNext() {
+        // Arrange
+        when(groupFetchServiceFactory.getUniversityNames()).thenReturn(List.of("MIIT"));
+        when(groupCatalogCache.refresh("MIIT"))
+                .thenReturn(CompletableFuture.completedFuture(List.of(new GroupData("ИК-101", "101"))));
+        ArgumentCaptor<Runnable> task = ArgumentCaptor.forClass(Runnable.class);
+        scheduler.start();
+        verify(taskScheduler).schedule(task.capture(), any(Instant.class));
+
+        // Act
+        task.getValue().run();
+
+        // Assert
+        CrawlScheduleStatus status = scheduler.getStatuses().get("MIIT");
+        assertEquals("OK", status.lastRunOutcome());
+        assertEquals(1, status.lastRunGroups());
+        assertEquals(NOW, status.lastRunFinished());
+        verify(taskScheduler, times(2)).schedule(any(Runnable.class), any(Instant.class));
+    }
+}
@@ -1,13 +1,21 @@
 package com.techstud.schedule_university.fetcher;
 
+import com.techstud.schedule_university.fetcher.config.FetcherExecutionProperties;
+import com.techstud.schedule_university.fetcher.config.SsauFetcherProperties;
 import com.techstud.schedule_university.fetcher.dto.GroupData;
 import com.techstud.schedule_university.fetcher.service.GroupFetchServiceFacade;
 import com.techstud.schedule_university.fetcher.service.GroupFetchServiceFactory;
 import com.techstud.schedule_university.fetcher.service.GroupFetcherService;
+import com.techstud.schedule_university.fetcher.service.InFlightCrawlRegistry;
+import com.techstud.schedule_university.fetcher.service.UniversityCrawlExecutor;
 import com.techstud.schedule_university.fetcher.service.impl.BmstuGroupDataFetchService;
 import com.techstud.schedule_university.fetcher.service.impl.SsauGroupDataFetchService;
+import com.techstud.schedule_university.fetcher.service.impl.SsauSessionManager;
 import com.techstud.schedule_university.fetcher.service.impl.SseuGroupDataFetchService;
+import com.techstud.schedule_university.fetcher.util.FetcherHttpTransport;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import lombok.SneakyThrows;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Disabled;
@@ -15,6 +23,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.context.annotation.Description;
 import org.springframework.test.context.ActiveProfiles;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.Future;
@@ -23,17 +32,33 @@ import java.util.concurrent.Future;
 @Disabled
 public class GroupFetServiceFacadeTest {
 
+    private TestFetchClients clients;
+    private UniversityCrawlExecutor crawlExecutor;
     private GroupFetchServiceFacade groupFetchServiceFacade;
 
     @BeforeEach
     public void setUp() {
+        clients = new TestFetchClients();
+        FetcherHttpTransport httpTransport = clients.getTransport();
+        SsauFetcherProperties ssauFetcherProperties = new SsauFetcherProperties();
+        ssauFetcherProperties.setSearchResultCap(10);
         Map<String, GroupFetcherService> groupFetcherServiceMap = Map.of(
-                "BMSTU_GROUP_FETCHER", new BmstuGroupDataFetchService(),
-                "SSAU_GROUP_FETCHER", new SsauGroupDataFetchService(),
-                "SSEU_GROUP_FETCHER", new SseuGroupDataFetchService()
+                "BMSTU_GROUP_FETCHER", new BmstuGroupDataFetchService(httpTransport),
+                "SSAU_GROUP_FETCHER", new SsauGroupDataFetchService(httpTransport,
+                        new SsauSessionManager(httpTransport, ssauFetcherProperties), ssauFetcherProperties),
+                "SSEU_GROUP_FETCHER", new SseuGroupDataFetchService(httpTransport)
         );
         GroupFetchServiceFactory groupFetchServiceFactory = new GroupFetchServiceFactory(groupFetcherServiceMap);
-        groupFetchServiceFacade = new GroupFetchServiceFacade(groupFetchServiceFactory);
+        crawlExecutor = new UniversityCrawlExecutor(new FetcherExecutionProperties(), groupFetchServiceFactory,
+                new SimpleMeterRegistry());
+        groupFetchServiceFacade = new GroupFetchServiceFacade(groupFetchServiceFactory, crawlExecutor,
+                new InFlightCrawlRegistry(), clients.getMetrics());
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        crawlExecutor.destroy();
+        clients.close();
     }
 
     @Test
@@ -0,0 +1,91 @@
+package com.techstud.schedule_university.fetcher;
+
+import com.techstud.schedule_university.fetcher.config.FetcherHedgeProperties;
+import com.techstud.schedule_university.fetcher.util.HedgePolicy;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HedgePolicyTest {
+
+    private static final String HOST = "rasp.unecon.ru";
+
+    private HedgePolicy hedgePolicy;
+
+    @BeforeEach
+    void setUp() {
+        FetcherHedgeProperties properties = new FetcherHedgeProperties();
+        properties.setWindow(20);
+        properties.setMinSamples(10);
+        properties.setMinDelay(Duration.ofMillis(10));
+        properties.setBudgetRatio(0.5);
+        properties.setMaxBudget(2);
+        hedgePolicy = new HedgePolicy(properties);
+    }
+
+    @Test
+    void onRequest_WhenFewSamples_ShouldNotHedge() {
+        // Arrange
+        record(5, 100);
+
+        // Act
+        long delay = hedgePolicy.onRequest(HOST);
+
+        // Assert
+        assertEquals(-1, delay);
+    }
+
+    @Test
+    void onRequest_ShouldHedgeAtPercentileOfRecentLatencies() {
+        // Arrange
+        for (int i = 1; i <= 20; i++) {
+            hedgePolicy.recordLatency(HOST, TimeUnit.MILLISECONDS.toNanos(i * 10));
+        }
+
+        // Act
+        long delay = hedgePolicy.onRequest(HOST);
+
+        // Assert
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(190), delay);
+    }
+
+    @Test
+    void onRequest_ShouldNotHedgeBelowMinDelay() {
+        // Arrange
+        record(10, 1);
+
+        // Act
+        long delay = hedgePolicy.onRequest(HOST);
+
+        // Assert
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(10), delay);
+    }
+
+    @Test
+    void tryAcquireHedge_ShouldBeBoundedByBudget() {
+        // Arrange
+        for (int i = 0; i < 10; i++) {
+            hedgePolicy.onRequest(HOST);
+        }
+
+        // Act
+        boolean first = hedgePolicy.tryAcquireHedge(HOST);
+        boolean second = hedgePolicy.tryAcquireHedge(HOST);
+        boolean third = hedgePolicy.tryAcquireHedge(HOST);
+
+        // Assert
+        assertTrue(first);
+        assertTrue(second);
+        assertFalse(third);
+    }
+
+    private void record(int count, long latencyMillis) {
+        for (int i = 0; i < count; i++) {
+            hedgePolicy.recordLatency(HOST, TimeUnit.MILLISECONDS.toNanos(latencyMillis));
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.techstud.schedule_university.fetcher;
+
+import com.techstud.schedule_university.fetcher.config.FetcherResilienceProperties;
+import com.techstud.schedule_university.fetcher.exception.CircuitOpenException;
+import com.techstud.schedule_university.fetcher.util.HostCircuitBreaker;
+import com.techstud.schedule_university.fetcher.util.HostCircuitBreaker.State;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HostCircuitBreakerTest {
+
+    private static final String HOST = "rasp.unecon.ru";
+
+    private MutableClock clock;
+    private HostCircuitBreaker circuitBreaker;
+
+    @BeforeEach
+    void setUp() {
+        FetcherResilienceProperties properties = new FetcherResilienceProperties();
+        properties.setFailureThreshold(3);
+        properties.setOpenDuration(Duration.ofSeconds(30));
+        clock = new MutableClock(Instant.parse("2026-10-18T10:00:00Z"));
+        circuitBreaker = new HostCircuitBreaker(properties, clock);
+    }
+
+    @Test
+    void onFailure_WhenThresholdReached_ShouldFailFast() {
+        // Act
+        fail(3);
+
+        // Assert
+        assertEquals(State.OPEN, circuitBreaker.getState(HOST));
+        assertThrows(CircuitOpenException.class, () -> circuitBreaker.acquirePermission(HOST));
+        assertDoesNotThrow(() -> circuitBreaker.acquirePermission("ssau.ru"));
+    }
+
+    @Test
+    void onSuccess_ShouldResetConsecutiveFailures() {
+        // Act
+        fail(2);
+        circuitBreaker.onSuccess(HOST);
+        fail(2);
+
+        // Assert
+        assertEquals(State.CLOSED, circuitBreaker.getState(HOST));
+    }
+
+    @Test
+    void acquirePermission_AfterOpenDuration_ShouldAllowSingleProbe() throws CircuitOpenException {
+        // Arrange
+        fail(3);
+        clock.advance(Duration.ofSeconds(31));
+
+        // Act
+        circuitBreaker.acquirePermission(HOST);
+
+        // Assert
+        assertEquals(State.HALF_OPEN, circuitBreaker.getState(HOST));
+        assertThrows(CircuitOpenException.class, () -> circuitBreaker.acquirePermission(HOST));
+    }
+
+    @Test
+    void probe_WhenSucceeded_ShouldCloseCircuit() throws CircuitOpenException {
+        // Arrange
+        fail(3);
+        clock.advance(Duration.ofSeconds(31));
+        circuitBreaker.acquirePermission(HOST);
+
+        // Act
+        circuitBreaker.onSuccess(HOST);
+
+        // Assert
+        assertEquals(State.CLOSED, circuitBreaker.getState(HOST));
+        assertDoesNotThrow(() -> circuitBreaker.acquirePermission(HOST));
+    }
+
+    @Test
+    void probe_WhenFailed_ShouldReopenCircuit() throws CircuitOpenException {
+        // Arrange
+        fail(3);
+        clock.advance(Duration.ofSeconds(31));
+        circuitBreaker.acquirePermission(HOST);
+
+        // Act
+        circuitBreaker.onFailure(HOST);
+
+        // Assert
+        assertEquals(State.OPEN, circuitBreaker.getState(HOST));
+        assertThrows(CircuitOpenException.class, () -> circuitBreaker.acquirePermission(HOST));
+    }
+
+    @Test
+    void probe_WhenLost_ShouldAllowAnotherProbeAfterOpenDuration() throws CircuitOpenException {
+        // Arrange
+        fail(3);
+        clock.advance(Duration.ofSeconds(31));
+        circuitBreaker.acquirePermission(HOST);
+
+        // Act
+        clock.advance(Duration.ofSeconds(31));
+
+        // Assert
+        assertDoesNotThrow(() -> circuitBreaker.acquirePermission(HOST));
+    }
+
+    private void fail(int times) {
+        for (int i = 0; i < times; i++) {
+            circuitBreaker.onFailure(HOST);
+        }
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.techstud.schedule_university.fetcher;
+
+import com.techstud.schedule_university.fetcher.config.FetcherRateLimitProperties;
+import com.techstud.schedule_university.fetcher.config.FetcherRateLimitProperties.HostLimit;
+import com.techstud.schedule_university.fetcher.util.HostRateLimiter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HostRateLimiterTest {
+
+    private static final String HOST = "rasp.unecon.ru";
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private FetcherRateLimitProperties properties;
+    private HostRateLimiter rateLimiter;
+
+    @BeforeEach
+    void setUp() {
+        properties = new FetcherRateLimitProperties();
+        properties.setBurst(2);
+        HostLimit limit = new HostLimit();
+        limit.setRate(2.0);
+        limit.setMaxRate(4.0);
+        properties.getHosts().put(HOST, limit);
+        rateLimiter = new HostRateLimiter(properties,
+                Clock.fixed(Instant.parse("2026-10-18T10:00:00Z"), ZoneOffset.UTC));
+    }
+
+    @Test
+    void reserve_ShouldAllowBurstThenSpaceRequestsByRate() {
+        // Act
+        long first = rateLimiter.reserve(HOST);
+        long second = rateLimiter.reserve(HOST);
+        long third = rateLimiter.reserve(HOST);
+        long fourth = rateLimiter.reserve(HOST);
+
+        // Assert
+        assertEquals(0, first);
+        assertEquals(0, second);
+        assertEquals(0, third);
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(500), fourth);
+    }
+
+    @Test
+    void tryReserveNanos_ShouldNotReserveWhilePausedAndReportRemainingWait() {
+        // Arrange
+        rateLimiter.onResponse(HOST, 503, "10", FAST);
+
+        // Act
+        long first = rateLimiter.tryReserveNanos(HOST);
+        long second = rateLimiter.tryReserveNanos(HOST);
+
+        // Assert
+        assertEquals(TimeUnit.SECONDS.toNanos(10), first);
+        assertEquals(first, second);
+    }
+
+    @Test
+    void onResponse_WhenThrottled_ShouldHalveRateOncePerCooldown() {
+        // Act
+        rateLimiter.onResponse(HOST, 429, null, FAST);
+        rateLimiter.onResponse(HOST, 503, null, FAST);
+
+        // Assert
+        assertEquals(1.0, rateLimiter.getRate(HOST));
+    }
+
+    @Test
+    void onResponse_WhenRetryAfterIsSent_ShouldPauseHost() {
+        // Arrange
+        rateLimiter.reserve(HOST);
+
+        // Act
+        rateLimiter.onResponse(HOST, 429, "30", FAST);
+        long wait = rateLimiter.reserve(HOST);
+
+        // Assert
+        assertEquals(TimeUnit.SECONDS.toNanos(30), wait);
+    }
+
+    @Test
+    void onResponse_WhenHostIsHealthy_ShouldRampUpToMaxRate() {
+        // Arrange
+        rateLimiter.onResponse(HOST, 503, null, FAST);
+
+        // Act
+        for (int i = 0; i < 100; i++) {
+            rateLimiter.onResponse(HOST, 200, null, FAST);
+        }
+
+        // Assert
+        assertEquals(4.0, rateLimiter.getRate(HOST));
+    }
+
+    @Test
+    void onResponse_WhenLatencySpikes_ShouldDecreaseRate() {
+        // Arrange
+        for (int i = 0; i < 5; i++) {
+            rateLimiter.onResponse(HOST, 200, null, FAST);
+        }
+        double before = rateLimiter.getRate(HOST);
+
+        // Act
+        rateLimiter.onResponse(HOST, 200, null, TimeUnit.SECONDS.toNanos(2));
+
+        // Assert
+        assertEquals(before / 2, rateLimiter.getRate(HOST), 1e-9);
+    }
+}
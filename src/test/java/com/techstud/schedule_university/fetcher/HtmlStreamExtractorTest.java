@@ -0,0 +1,83 @@
+package com.techstud.schedule_university.fetcher;
+
+import com.techstud.schedule_university.fetcher.dto.GroupData;
+import com.techstud.schedule_university.fetcher.exception.UnexpectedResponseStatusException;
+import com.techstud.schedule_university.fetcher.util.HtmlStreamExtractor;
+import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.io.HttpClientResponseHandler;
+import org.apache.hc.core5.http.io.entity.StringEntity;
+import org.apache.hc.core5.http.message.BasicClassicHttpResponse;
+import org.jsoup.select.Evaluator;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.Charset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HtmlStreamExtractorTest {
+
+    private static final String PAGE = """
+            <html><body>
+              <ul class="faculty-list">
+                <li class="faculty-list__item"><a class="faculty-list__link" href="/faculty/1">ИКНТ</a></li>
+                <li class="faculty-list__item"><a class="faculty-list__link" href="/faculty/2"><span>ИММиТ</span></a></li>
+                <li class="other"><a class="faculty-list__link" href="/faculty/3">Лишняя</a></li>
+              </ul>
+              <div class="grps"><a href="raspisanie_grp.php?g=101">ЭК-101</a><a href="raspisanie_grp.php?g=102">ЭК-102</a></div>
+            </body></html>
+            """;
+
+    @Test
+    void createStreamingResponseHandler_ShouldEmitOnlyMatchingElements() throws Exception {
+        // Arrange
+        Evaluator selector = HtmlStreamExtractor.compile("li.faculty-list__item > a.faculty-list__link");
+        HttpClientResponseHandler<List<String>> handler =
+                HtmlStreamExtractor.createStreamingResponseHandler(selector, element -> element.text() + element.attr("href"));
+
+        // Act
+        List<String> faculties = handler.handleResponse(response(200, PAGE));
+
+        // Assert
+        assertEquals(List.of("ИКНТ/faculty/1", "ИММиТ/faculty/2"), faculties);
+    }
+
+    @Test
+    void processResponse_ShouldSkipNullResultsAndRespectCharset() throws Exception {
+        // Arrange
+        Evaluator selector = HtmlStreamExtractor.compile("div.grps a");
+        Charset windows1251 = Charset.forName("windows-1251");
+        SimpleHttpResponse response = SimpleHttpResponse.create(200, PAGE.getBytes(windows1251),
+                ContentType.TEXT_HTML.withCharset(windows1251));
+
+        // Act
+        List<GroupData> groups = HtmlStreamExtractor.processResponse(response, selector, link -> {
+            String id = link.attr("href").replace("raspisanie_grp.php?g=", "");
+            return id.equals("102") ? null : new GroupData(link.text(), id);
+        });
+
+        // Assert
+        assertEquals(List.of(new GroupData("ЭК-101", "101")), groups);
+    }
+
+    @Test
+    void createStreamingResponseHandler_WhenStatusIsNotOk_ShouldThrowWithStatusCode() {
+        // Arrange
+        HttpClientResponseHandler<List<Object>> handler =
+                HtmlStreamExtractor.createStreamingResponseHandler(HtmlStreamExtractor.compile("a"), element -> element);
+
+        // Act
+        UnexpectedResponseStatusException e = assertThrows(UnexpectedResponseStatusException.class,
+                () -> handler.handleResponse(response(404, "")));
+
+        // Assert
+        assertEquals(404, e.getStatusCode());
+    }
+
+    private static BasicClassicHttpResponse response(int code, String body) {
+        BasicClassicHttpResponse response = new BasicClassicHttpResponse(code);
+        response.setEntity(new StringEntity(body, ContentType.TEXT_HTML));
+        return response;
+    }
+}
@@ -0,0 +1,165 @@
+package com.techstud.schedule_university.fetcher;
+
+import com.sun.net.httpserver.HttpServer;
+import com.techstud.schedule_university.fetcher.config.FetcherArchiveProperties;
+import com.techstud.schedule_university.fetcher.util.HttpExchangeArchive;
+import org.apache.hc.client5.http.async.methods.SimpleRequestBuilder;
+import org.apache.hc.client5.http.classic.methods.HttpGet;
+import org.apache.hc.client5.http.classic.methods.HttpPost;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.io.entity.EntityUtils;
+import org.apache.hc.core5.http.message.BasicHeader;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HttpExchangeArchiveTest {
+
+    private static final String KEY = "GET https://rasp.pgups.ru/schedule/group";
+
+    @TempDir
+    Path directory;
+
+    private FetcherArchiveProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        properties = new FetcherArchiveProperties();
+        properties.setPath(directory.resolve("archive.zip"));
+    }
+
+    @Test
+    void replay_ShouldReturnResponsesInRecordedOrderAndRepeatLast() throws Exception {
+        // Arrange
+        properties.setMode(FetcherArchiveProperties.Mode.RECORD);
+        HttpExchangeArchive recorder = new HttpExchangeArchive(properties);
+        recorder.record(KEY, 503, new Header[]{new BasicHeader("Retry-After", "1")}, null, null, 1_000);
+        recorder.record(KEY, 200, new Header[]{new BasicHeader("ETag", "\"v1\"")}, ContentType.TEXT_HTML,
+                "<html>ПС-101</html>".getBytes(StandardCharsets.UTF_8), 2_000);
+        recorder.destroy();
+        properties.setMode(FetcherArchiveProperties.Mode.REPLAY);
+        HttpExchangeArchive archive = new HttpExchangeArchive(properties);
+
+        // Act
+        HttpExchangeArchive.RecordedResponse first = archive.replay(KEY);
+        HttpExchangeArchive.RecordedResponse second = archive.replay(KEY);
+        HttpExchangeArchive.RecordedResponse third = archive.replay(KEY);
+
+        // Assert
+        assertEquals(503, first.code());
+        assertEquals("1", first.toClassicResponse().getFirstHeader("Retry-After").getValue());
+        assertNull(first.body());
+        assertEquals(200, second.code());
+        assertEquals("<html>ПС-101</html>", second.toSimpleResponse().getBodyText());
+        assertEquals(2_000, second.latencyNanos());
+        assertSame(second, third);
+        assertEquals(0, archive.replayDelayNanos(second));
+    }
+
+    @Test
+    void recordedKeys_ShouldListEveryRecordedRequestOnce() throws Exception {
+        // Arrange
+        properties.setMode(FetcherArchiveProperties.Mode.RECORD);
+        HttpExchangeArchive recorder = new HttpExchangeArchive(properties);
+        recorder.record(KEY, 503, new Header[0], null, null, 0);
+        recorder.record(KEY, 200, new Header[0], null, null, 0);
+        recorder.record("GET https://rasp.pgups.ru/", 200, new Header[0], null, null, 0);
+        recorder.destroy();
+        properties.setMode(FetcherArchiveProperties.Mode.REPLAY);
+
+        // Act
+        Set<String> keys = new HttpExchangeArchive(properties).recordedKeys();
+
+        // Assert
+        assertEquals(Set.of(KEY, "GET https://rasp.pgups.ru/"), keys);
+    }
+
+    @Test
+    void replay_ShouldFailForUnrecordedRequest() throws Exception {
+        // Arrange
+        properties.setMode(FetcherArchiveProperties.Mode.RECORD);
+        HttpExchangeArchive recorder = new HttpExchangeArchive(properties);
+        recorder.record(KEY, 200, new Header[0], null, null, 0);
+        recorder.destroy();
+        properties.setMode(FetcherArchiveProperties.Mode.REPLAY);
+
+        // Act & Assert
+        IOException e = assertThrows(IOException.class,
+                () -> new HttpExchangeArchive(properties).replay("GET https://rasp.pgups.ru/"));
+        assertTrue(e.getMessage().contains("No recorded response"));
+    }
+
+    @Test
+    void keyOf_ShouldDistinguishRequestBodiesButNotHeaders() throws Exception {
+        // Arrange
+        HttpPost first = new HttpPost("https://ssau.ru/rasp/search");
+        first.setHeader("X-Csrf-Token", "a");
+        HttpPost second = new HttpPost("https://ssau.ru/rasp/search");
+        second.setHeader("X-Csrf-Token", "b");
+
+        // Act
+        String firstKey = HttpExchangeArchive.keyOf(first, "text=1".getBytes(StandardCharsets.UTF_8));
+        String sameKey = HttpExchangeArchive.keyOf(second, "text=1".getBytes(StandardCharsets.UTF_8));
+        String otherKey = HttpExchangeArchive.keyOf(second, "text=2".getBytes(StandardCharsets.UTF_8));
+
+        // Assert
+        assertEquals(firstKey, sameKey);
+        assertNotEquals(firstKey, otherKey);
+        assertTrue(firstKey.startsWith("POST https://ssau.ru/rasp/search "));
+    }
+
+    @Test
+    void transports_ShouldReplayRecordedCrawlWithoutNetwork() throws Exception {
+        // Arrange
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/groups", exchange -> {
+            byte[] body = "<a class=\"group\">ИВТ-101</a>".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "text/html; charset=UTF-8");
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+        String url = "http://127.0.0.1:" + server.getAddress().getPort() + "/groups";
+
+        TestFetchClients recording = TestFetchClients.withoutCache();
+        recording.getArchiveProperties().setMode(FetcherArchiveProperties.Mode.RECORD);
+        recording.getArchiveProperties().setPath(properties.getPath());
+        String live;
+        try {
+            live = recording.getTransport().execute(new HttpGet(url),
+                    response -> EntityUtils.toString(response.getEntity()));
+        } finally {
+            recording.close();
+            server.stop(0);
+        }
+
+        TestFetchClients replaying = TestFetchClients.withoutCache();
+        replaying.getArchiveProperties().setMode(FetcherArchiveProperties.Mode.REPLAY);
+        replaying.getArchiveProperties().setPath(properties.getPath());
+
+        // Act
+        String replayed;
+        try {
+            replayed = replaying.getEngine().execute(SimpleRequestBuilder.get(url).build(), body -> body)
+                    .get(5, TimeUnit.SECONDS);
+        } finally {
+            replaying.close();
+        }
+
+        // Assert
+        assertEquals("<a class=\"group\">ИВТ-101</a>", live);
+        assertEquals(live, replayed);
+    }
+
+}
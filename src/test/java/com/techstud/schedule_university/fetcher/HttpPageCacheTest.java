@@ -0,0 +1,237 @@
+package com.techstud.schedule_university.fetcher;
+
+import com.techstud.schedule_university.fetcher.config.FetcherCacheProperties;
+import com.techstud.schedule_university.fetcher.dto.CacheHostStats;
+import com.techstud.schedule_university.fetcher.util.FetcherMetrics;
+import com.techstud.schedule_university.fetcher.util.HttpPageCache;
+import com.techstud.schedule_university.fetcher.util.HttpPageCache.CachedPage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.message.BasicClassicHttpResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HttpPageCacheTest {
+
+    private static final String URL = "https://rasp.pgups.ru/schedule/group";
+    private static final byte[] BODY = "<html><a class=\"btn btn-sm btn\">ПС-101</a></html>".getBytes(StandardCharsets.UTF_8);
+
+    @TempDir
+    Path cacheDirectory;
+
+    private FetcherCacheProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private FetcherMetrics metrics;
+    private HttpPageCache pageCache;
+
+    @BeforeEach
+    void setUp() {
+        properties = new FetcherCacheProperties();
+        properties.setDirectory(cacheDirectory);
+        meterRegistry = new SimpleMeterRegistry();
+        metrics = new FetcherMetrics(meterRegistry);
+        pageCache = new HttpPageCache(properties, metrics);
+    }
+
+    @Test
+    void store_ShouldPersistPageAcrossInstances() throws Exception {
+        // Arrange
+        pageCache.store(URL, responseWithValidators(), ContentType.TEXT_HTML, BODY);
+
+        // Act
+        CachedPage reloaded = new HttpPageCache(properties, metrics).lookup(URL);
+
+        // Assert
+        assertNotNull(reloaded);
+        assertEquals("\"v1\"", reloaded.getEtag());
+        assertEquals("Sat, 17 Oct 2026 10:00:00 GMT", reloaded.getLastModified());
+        assertEquals(ContentType.TEXT_HTML.getMimeType(), reloaded.getContentType().getMimeType());
+        assertArrayEquals(BODY, reloaded.getBody());
+    }
+
+    @Test
+    void applyValidators_ShouldSetConditionalHeaders() {
+        // Arrange
+        CachedPage page = pageCache.store(URL, responseWithValidators(), ContentType.TEXT_HTML, BODY);
+        BasicClassicHttpResponse request = new BasicClassicHttpResponse(200);
+
+        // Act
+        pageCache.applyValidators(request, page);
+
+        // Assert
+        assertEquals("\"v1\"", request.getFirstHeader("If-None-Match").getValue());
+        assertEquals("Sat, 17 Oct 2026 10:00:00 GMT", request.getFirstHeader("If-Modified-Since").getValue());
+    }
+
+    @Test
+    void extract_ShouldRunExtractionOncePerPage() throws Exception {
+        // Arrange
+        CachedPage page = pageCache.store(URL, responseWithValidators(), ContentType.TEXT_HTML, BODY);
+        AtomicInteger extractions = new AtomicInteger();
+
+        // Act
+        String first = page.extract(() -> "groups-" + extractions.incrementAndGet());
+        String second = page.extract(() -> "groups-" + extractions.incrementAndGet());
+
+        // Assert
+        assertEquals("groups-1", first);
+        assertEquals("groups-1", second);
+        assertEquals(1, extractions.get());
+    }
+
+    @Test
+    void store_WhenBodyIsTooLarge_ShouldKeepOnlyFingerprint() {
+        // Arrange
+        properties.setMaxBodySize(DataSize.ofBytes(8));
+
+        // Act
+        CachedPage page = pageCache.store(URL, responseWithValidators(), ContentType.TEXT_HTML, BODY);
+
+        // Assert
+        assertFalse(page.hasBody());
+        assertNull(page.getEtag());
+        CachedPage reloaded = new HttpPageCache(properties, metrics).lookup(URL);
+        assertNotNull(reloaded);
+        assertFalse(reloaded.hasBody());
+        assertEquals(page.getFingerprint(), reloaded.getFingerprint());
+    }
+
+    @Test
+    void store_WhenPageHasNoValidators_ShouldRecognizeUnchangedContentAfterRestart() {
+        // Arrange
+        pageCache.store(URL, new BasicClassicHttpResponse(200), ContentType.TEXT_HTML, BODY);
+        HttpPageCache restarted = new HttpPageCache(properties, metrics);
+
+        // Act
+        CachedPage page = restarted.store(URL, new BasicClassicHttpResponse(200), ContentType.TEXT_HTML, BODY.clone());
+
+        // Assert
+        assertTrue(page.isUnchanged());
+        assertFalse(page.hasBody());
+    }
+
+    @Test
+    void extract_ShouldRememberImmutableCopyOfList() throws Exception {
+        // Arrange
+        CachedPage page = pageCache.store(URL, responseWithValidators(), ContentType.TEXT_HTML, BODY);
+        List<String> parsed = new ArrayList<>(List.of("ПС-101"));
+
+        // Act
+        List<String> first = page.extract(() -> parsed);
+        parsed.add("ПС-102");
+        List<String> second = page.extract(() -> fail("Page must be parsed once"));
+
+        // Assert
+        assertEquals(List.of("ПС-101"), second);
+        assertSame(first, second);
+        assertThrows(UnsupportedOperationException.class, () -> second.add("ПС-103"));
+    }
+
+    @Test
+    void store_WhenFingerprintMatches_ShouldReuseExtraction() throws Exception {
+        // Arrange
+        CachedPage previous = pageCache.store(URL, new BasicClassicHttpResponse(200), ContentType.TEXT_HTML, BODY);
+        previous.extract(() -> "groups");
+
+        // Act
+        CachedPage page = pageCache.store(URL, new BasicClassicHttpResponse(200), ContentType.TEXT_HTML, BODY.clone());
+        String extracted = page.extract(() -> fail("Unchanged page must not be parsed"));
+
+        // Assert
+        assertEquals("groups", extracted);
+        assertTrue(page.isUnchanged());
+        assertFalse(page.hasBody());
+    }
+
+    @Test
+    void store_WhenFingerprintDiffers_ShouldExtractAgain() throws Exception {
+        // Arrange
+        CachedPage previous = pageCache.store(URL, new BasicClassicHttpResponse(200), ContentType.TEXT_HTML, BODY);
+        previous.extract(() -> "groups-1");
+        previous.setSubtree("subtree-1");
+
+        // Act
+        CachedPage page = pageCache.store(URL, new BasicClassicHttpResponse(200), ContentType.TEXT_HTML,
+                "<html></html>".getBytes(StandardCharsets.UTF_8));
+        String extracted = page.extract(() -> "groups-2");
+
+        // Assert
+        assertEquals("groups-2", extracted);
+        assertFalse(page.isUnchanged());
+        assertNull(page.getSubtree(Duration.ofHours(1)));
+    }
+
+    @Test
+    void reusableSubtree_ShouldRequireOptInAndUnchangedPage() {
+        // Arrange
+        CachedPage previous = pageCache.store(URL, new BasicClassicHttpResponse(200), ContentType.TEXT_HTML, BODY);
+        previous.setSubtree("subtree");
+        CachedPage page = pageCache.store(URL, new BasicClassicHttpResponse(200), ContentType.TEXT_HTML, BODY);
+
+        // Act
+        String disabled = pageCache.reusableSubtree(page);
+        properties.setSkipUnchangedSubtrees(true);
+        String enabled = pageCache.reusableSubtree(page);
+        String changedPage = pageCache.reusableSubtree(previous);
+
+        // Assert
+        assertNull(disabled);
+        assertEquals("subtree", enabled);
+        assertNull(changedPage);
+    }
+
+    @Test
+    void getHostStats_ShouldReportHitRatioPerHost() {
+        // Arrange
+        pageCache.store(URL, responseWithValidators(), ContentType.TEXT_HTML, BODY);
+        pageCache.store(URL, new BasicClassicHttpResponse(200), ContentType.TEXT_HTML, BODY);
+        pageCache.recordNotModified("rasp.pgups.ru");
+        pageCache.recordNotModified("rasp.pgups.ru");
+        pageCache.store("https://www.miit.ru/timetable", new BasicClassicHttpResponse(200), ContentType.TEXT_HTML, BODY);
+
+        // Act
+        var stats = pageCache.getHostStats();
+
+        // Assert
+        assertEquals(new CacheHostStats(2, 1, 1, 0.75), stats.get("rasp.pgups.ru"));
+        assertEquals(new CacheHostStats(0, 0, 1, 0.0), stats.get("www.miit.ru"));
+    }
+
+    @Test
+    void getHostStats_ShouldBePublishedAsMetrics() {
+        // Arrange
+        pageCache.store(URL, responseWithValidators(), ContentType.TEXT_HTML, BODY);
+        pageCache.store(URL, responseWithValidators(), ContentType.TEXT_HTML, BODY);
+
+        // Act
+        pageCache.recordNotModified("rasp.pgups.ru");
+
+        // Assert
+        assertEquals(1, meterRegistry.get("fetcher.cache.pages")
+                .tags("host", "rasp.pgups.ru", "result", "not_modified").functionCounter().count());
+        assertEquals(1, meterRegistry.get("fetcher.cache.pages")
+                .tags("host", "rasp.pgups.ru", "result", "unchanged").functionCounter().count());
+        assertEquals(1, meterRegistry.get("fetcher.cache.pages")
+                .tags("host", "rasp.pgups.ru", "result", "changed").functionCounter().count());
+        assertEquals(2.0 / 3, meterRegistry.get("fetcher.cache.hit.ratio")
+                .tag("host", "rasp.pgups.ru").gauge().value(), 1e-9);
+    }
+
+    private static BasicClassicHttpResponse responseWithValidators() {
+        BasicClassicHttpResponse response = new BasicClassicHttpResponse(200);
+        response.addHeader("ETag", "\"v1\"");
+        response.addHeader("Last-Modified", "Sat, 17 Oct 2026 10:00:00 GMT");
+        return response;
+    }
+}
@@ -0,0 +1,104 @@
+package com.techstud.schedule_university.fetcher;
+
+import com.techstud.schedule_university.fetcher.dto.GroupData;
+import com.techstud.schedule_university.fetcher.service.InFlightCrawlRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class InFlightCrawlRegistryTest {
+
+    private static final List<GroupData> GROUPS = List.of(new GroupData("ИУ7-11Б", "1"));
+
+    private InFlightCrawlRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new InFlightCrawlRegistry();
+    }
+
+    @Test
+    void join_WhenCrawlIsRunning_ShouldAttachToIt() {
+        // Arrange
+        AtomicInteger starts = new AtomicInteger();
+        CompletableFuture<List<GroupData>> crawl = new CompletableFuture<>();
+
+        // Act
+        CompletableFuture<List<GroupData>> first = registry.join("BMSTU", () -> {
+            starts.incrementAndGet();
+            return crawl;
+        });
+        CompletableFuture<List<GroupData>> second = registry.join("BMSTU", () -> {
+            starts.incrementAndGet();
+            return new CompletableFuture<>();
+        });
+        crawl.complete(GROUPS);
+
+        // Assert
+        assertEquals(1, starts.get());
+        assertEquals(GROUPS, first.join());
+        assertEquals(GROUPS, second.join());
+        assertFalse(registry.isInFlight("BMSTU"));
+    }
+
+    @Test
+    void join_WhenCallerCancels_ShouldNotCancelSharedCrawl() {
+        // Arrange
+        CompletableFuture<List<GroupData>> crawl = new CompletableFuture<>();
+        CompletableFuture<List<GroupData>> first = registry.join("BMSTU", () -> crawl);
+        CompletableFuture<List<GroupData>> second = registry.join("BMSTU", CompletableFuture::new);
+
+        // Act
+        first.cancel(true);
+        crawl.complete(GROUPS);
+
+        // Assert
+        assertTrue(first.isCancelled());
+        assertFalse(crawl.isCancelled());
+        assertEquals(GROUPS, second.join());
+    }
+
+    @Test
+    void join_WhenCrawlFails_ShouldPropagateErrorToAllCallers() {
+        // Arrange
+        CompletableFuture<List<GroupData>> crawl = new CompletableFuture<>();
+        CompletableFuture<List<GroupData>> first = registry.join("SSAU", () -> crawl);
+        CompletableFuture<List<GroupData>> second = registry.join("SSAU", CompletableFuture::new);
+
+        // Act
+        crawl.completeExceptionally(new IOException("Unexpected response code: 503"));
+
+        // Assert
+        CompletionException firstError = assertThrows(CompletionException.class, first::join);
+        CompletionException secondError = assertThrows(CompletionException.class, second::join);
+        assertInstanceOf(IOException.class, firstError.getCause());
+        assertInstanceOf(IOException.class, secondError.getCause());
+        assertFalse(registry.isInFlight("SSAU"));
+    }
+
+    @Test
+    void join_AfterCrawlCompleted_ShouldStartNewCrawl() {
+        // Arrange
+        AtomicInteger starts = new AtomicInteger();
+
+        // Act
+        registry.join("SSEU", () -> {
+            starts.incrementAndGet();
+            return CompletableFuture.completedFuture(GROUPS);
+        }).join();
+        registry.join("SSEU", () -> {
+            starts.incrementAndGet();
+            return CompletableFuture.completedFuture(GROUPS);
+        }).join();
+
+        // Assert
+        assertEquals(2, starts.get());
+    }
+}
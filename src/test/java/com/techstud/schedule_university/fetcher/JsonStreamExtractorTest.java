@@ -0,0 +1,110 @@
+package com.techstud.schedule_university.fetcher;
+
+import com.techstud.schedule_university.fetcher.dto.GroupData;
+import com.techstud.schedule_university.fetcher.exception.UnexpectedResponseStatusException;
+import com.techstud.schedule_university.fetcher.util.JsonStreamExtractor;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.io.HttpClientResponseHandler;
+import org.apache.hc.core5.http.io.entity.StringEntity;
+import org.apache.hc.core5.http.message.BasicClassicHttpResponse;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JsonStreamExtractorTest {
+
+    private static final String STRUCTURE = """
+            {
+              "data": {
+                "abbr": "МГТУ", "uuid": "root", "nodeType": "university",
+                "children": [
+                  {"abbr": "ИУ", "uuid": "f1", "nodeType": "faculty", "children": [
+                    {"abbr": "ИУ7", "uuid": "d1", "nodeType": "department", "children": [
+                      {"abbr": "1", "uuid": "c1", "nodeType": "course", "children": [
+                        {"abbr": "ИУ7-11Б", "uuid": "g1", "nodeType": "group", "semester": 1, "children": []},
+                        {"abbr": "ИУ7-12Б", "uuid": "g2", "nodeType": "group", "meta": {"a": [1, 2]}}
+                      ]}
+                    ]}
+                  ]},
+                  {"abbr": "СМ", "uuid": "f2", "nodeType": "faculty", "children": [
+                    {"abbr": "СМ1-11", "uuid": "g3", "nodeType": "group"}
+                  ]}
+                ]
+              },
+              "date": "2026-10-18T10:00:00Z"
+            }
+            """;
+
+    @Test
+    void walkTree_ShouldVisitNodesOfAnyDepth() throws Exception {
+        // Arrange
+        HttpClientResponseHandler<List<GroupData>> handler = JsonStreamExtractor.createStreamingResponseHandler(parser -> {
+            List<GroupData> groups = new ArrayList<>();
+            assertTrue(JsonStreamExtractor.moveToField(parser, "data"));
+            JsonStreamExtractor.walkTree(parser, "children", Set.of("abbr", "uuid", "nodeType"), (fields, hasChildren) -> {
+                if ("group".equals(fields.get("nodeType"))) {
+                    groups.add(new GroupData(fields.get("abbr"), fields.get("uuid")));
+                }
+            });
+            return groups;
+        });
+
+        // Act
+        List<GroupData> groups = handler.handleResponse(response(200, STRUCTURE));
+
+        // Assert
+        assertEquals(List.of(
+                new GroupData("ИУ7-11Б", "g1"),
+                new GroupData("ИУ7-12Б", "g2"),
+                new GroupData("СМ1-11", "g3")), groups);
+    }
+
+    @Test
+    void forEachObject_ShouldCollectOnlyRequestedScalarFields() throws Exception {
+        // Arrange
+        String body = """
+                [
+                  {"id": 101, "status": "active", "name": "ЭК-101", "faculty": {"id": 5}},
+                  {"id": 102, "name": "ЭК-102", "groupCode": null},
+                  null
+                ]
+                """;
+        List<Map<String, String>> rows = new ArrayList<>();
+        HttpClientResponseHandler<List<Map<String, String>>> handler = JsonStreamExtractor.createStreamingResponseHandler(parser -> {
+            JsonStreamExtractor.forEachObject(parser, Set.of("id", "name"), rows::add);
+            return rows;
+        });
+
+        // Act
+        handler.handleResponse(response(200, body));
+
+        // Assert
+        assertEquals(List.of(
+                Map.of("id", "101", "name", "ЭК-101"),
+                Map.of("id", "102", "name", "ЭК-102")), rows);
+    }
+
+    @Test
+    void createStreamingResponseHandler_WhenStatusIsNotOk_ShouldThrowWithStatusCode() {
+        // Arrange
+        HttpClientResponseHandler<Object> handler = JsonStreamExtractor.createStreamingResponseHandler(parser -> null);
+
+        // Act
+        UnexpectedResponseStatusException e = assertThrows(UnexpectedResponseStatusException.class,
+                () -> handler.handleResponse(response(502, "")));
+
+        // Assert
+        assertEquals(502, e.getStatusCode());
+    }
+
+    private static BasicClassicHttpResponse response(int code, String body) {
+        BasicClassicHttpResponse response = new BasicClassicHttpResponse(code);
+        response.setEntity(new StringEntity(body, ContentType.APPLICATION_JSON));
+        return response;
+    }
+}
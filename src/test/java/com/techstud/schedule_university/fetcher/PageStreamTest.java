@@ -0,0 +1,153 @@
+package com.techstud.schedule_university.fetcher;
+
+import com.techstud.schedule_university.fetcher.dto.GroupData;
+import com.techstud.schedule_university.fetcher.util.PageStream;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PageStreamTest {
+
+    private static final GroupData FIRST = new GroupData("ИВТ-101", "1");
+    private static final GroupData SECOND = new GroupData("ИВТ-102", "2");
+    private static final GroupData THIRD = new GroupData("ИВТ-201", "3");
+
+    @Test
+    void drain_ShouldPassPagesBeforeCrawlCompletes() throws Exception {
+        // Arrange
+        PageStream<GroupData> pages = new PageStream<>();
+        CompletableFuture<Void> crawl = new CompletableFuture<>();
+        List<GroupData> received = new CopyOnWriteArrayList<>();
+        CountDownLatch firstPage = new CountDownLatch(2);
+
+        // Act
+        CompletableFuture<Void> drain = CompletableFuture.runAsync(() -> pages.drain(crawl, groupData -> {
+            received.add(groupData);
+            firstPage.countDown();
+        }));
+        pages.emit(List.of(FIRST, SECOND));
+        boolean firstPageReceived = firstPage.await(5, TimeUnit.SECONDS);
+        boolean drainedEarly = drain.isDone();
+        pages.emit(List.of());
+        pages.emit(List.of(THIRD));
+        crawl.complete(null);
+        drain.get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertTrue(firstPageReceived);
+        assertFalse(drainedEarly);
+        assertEquals(List.of(FIRST, SECOND, THIRD), received);
+    }
+
+    @Test
+    void drain_WhenCrawlFails_ShouldPassEmittedPagesAndRethrow() {
+        // Arrange
+        PageStream<GroupData> pages = new PageStream<>();
+        List<GroupData> received = new CopyOnWriteArrayList<>();
+        pages.emit(List.of(FIRST));
+
+        // Act
+        CompletionException e = assertThrows(CompletionException.class, () -> pages.drain(
+                CompletableFuture.failedFuture(new IOException("Connection reset")), received::add));
+
+        // Assert
+        assertEquals(List.of(FIRST), received);
+        assertInstanceOf(IOException.class, e.getCause());
+    }
+
+    @Test
+    void drain_WhenSinkFails_ShouldCancelCrawlAndTrackedRequests() {
+        // Arrange
+        PageStream<GroupData> pages = new PageStream<>();
+        CompletableFuture<Void> crawl = new CompletableFuture<>();
+        CompletableFuture<List<GroupData>> request = pages.track(new CompletableFuture<>());
+        pages.emit(List.of(FIRST));
+
+        // Act
+        assertThrows(UncheckedIOException.class, () -> pages.drain(crawl, groupData -> {
+            throw new UncheckedIOException(new IOException("Broken pipe"));
+        }));
+        CompletableFuture<List<GroupData>> lateRequest = pages.track(new CompletableFuture<>());
+
+        // Assert
+        assertTrue(pages.isCancelled());
+        assertTrue(crawl.isCancelled());
+        assertTrue(request.isCancelled());
+        assertTrue(lateRequest.isCancelled());
+    }
+
+    @Test
+    void page_ShouldSendNoMoreRequestsThanCapacityUntilSinkTakesPages() {
+        // Arrange
+        PageStream<GroupData> pages = new PageStream<>(2);
+        AtomicInteger sent = new AtomicInteger();
+        List<CompletableFuture<List<GroupData>>> results = IntStream.range(0, 5)
+                .mapToObj(i -> pages.page(() -> {
+                    sent.incrementAndGet();
+                    return CompletableFuture.completedFuture(List.of(new GroupData("ИВТ-" + i, String.valueOf(i))));
+                }))
+                .toList();
+        int sentBeforeDrain = sent.get();
+        List<GroupData> received = new CopyOnWriteArrayList<>();
+
+        // Act
+        pages.drain(CompletableFuture.allOf(results.toArray(CompletableFuture[]::new)), received::add);
+
+        // Assert
+        assertEquals(2, sentBeforeDrain);
+        assertEquals(5, sent.get());
+        assertEquals(5, received.size());
+    }
+
+    @Test
+    void drain_WhenSinkFails_ShouldNotSendWaitingRequests() {
+        // Arrange
+        PageStream<GroupData> pages = new PageStream<>(1);
+        AtomicInteger sent = new AtomicInteger();
+        List<CompletableFuture<List<GroupData>>> results = IntStream.range(0, 3)
+                .mapToObj(i -> pages.page(() -> {
+                    sent.incrementAndGet();
+                    return CompletableFuture.completedFuture(List.of(FIRST));
+                }))
+                .toList();
+
+        // Act
+        assertThrows(UncheckedIOException.class, () -> pages.drain(
+                CompletableFuture.allOf(results.toArray(CompletableFuture[]::new)), groupData -> {
+                    throw new UncheckedIOException(new IOException("Broken pipe"));
+                }));
+
+        // Assert
+        assertEquals(1, sent.get());
+        assertTrue(results.get(1).isCancelled());
+        assertTrue(results.get(2).isCancelled());
+    }
+
+    @Test
+    void page_WhenManyRequestsFailImmediately_ShouldSendThemWithoutNesting() {
+        // Arrange
+        PageStream<GroupData> pages = new PageStream<>(1);
+        CompletableFuture<List<GroupData>> blocker = new CompletableFuture<>();
+        pages.page(() -> blocker);
+        List<CompletableFuture<List<GroupData>>> results = IntStream.range(0, 100_000)
+                .mapToObj(i -> pages.page(() -> CompletableFuture.failedFuture(new IOException("Circuit open"))))
+                .toList();
+
+        // Act
+        blocker.completeExceptionally(new IOException("Connection reset"));
+
+        // Assert
+        assertTrue(results.stream().allMatch(CompletableFuture::isCompletedExceptionally));
+    }
+}
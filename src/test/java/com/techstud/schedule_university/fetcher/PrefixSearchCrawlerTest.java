@@ -0,0 +1,134 @@
+package com.techstud.schedule_university.fetcher;
+
+import com.techstud.schedule_university.fetcher.util.PrefixSearchCrawler;
+import com.techstud.schedule_university.fetcher.util.PrefixSearchCrawler.CrawlStats;
+import com.techstud.schedule_university.fetcher.util.PrefixSearchCrawler.PrefixSearch;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PrefixSearchCrawlerTest {
+
+    private static final int RESULT_CAP = 10;
+
+    private Set<String> catalog;
+    private Set<String> found;
+    private PrefixSearchCrawler crawler;
+
+    @BeforeEach
+    void setUp() {
+        catalog = ConcurrentHashMap.newKeySet();
+        catalog.addAll(Stream.concat(
+                        IntStream.rangeClosed(1101, 1125).mapToObj(String::valueOf),
+                        Stream.of("5501", "5502", "5503"))
+                .collect(Collectors.toSet()));
+        found = ConcurrentHashMap.newKeySet();
+        crawler = new PrefixSearchCrawler("TEST", List.of("1", "2", "3", "4", "5", "6", "7", "8", "9"),
+                "0123456789", RESULT_CAP, 4, 4, 10, 1);
+    }
+
+    @Test
+    void crawl_ShouldExpandOnlyTruncatedPrefixesAndFindAllGroups() throws Exception {
+        // Act
+        CrawlStats stats = crawler.crawl(this::search);
+
+        // Assert
+        assertEquals(catalog, found);
+        assertEquals(39, stats.requests());
+        assertEquals(3, stats.expanded());
+        assertEquals(0, stats.failed());
+        assertEquals(Set.of("5", "110", "112", "1110", "1111", "1112", "1113", "1114", "1115", "1116",
+                "1117", "1118", "1119"), crawler.getFrontier());
+    }
+
+    @Test
+    void crawl_WhenFrontierIsRemembered_ShouldStartFromProductivePrefixes() throws Exception {
+        // Arrange
+        crawler.crawl(this::search);
+        catalog.add("1126");
+        found.clear();
+
+        // Act
+        CrawlStats stats = crawler.crawl(this::search);
+
+        // Assert
+        assertEquals(13, stats.requests());
+        assertEquals(0, stats.pruned());
+        assertEquals(catalog, found);
+    }
+
+    @Test
+    void crawl_WhenSearchFailsOnce_ShouldRetryPrefixAndFindAllGroups() throws Exception {
+        // Arrange
+        AtomicInteger attempts = new AtomicInteger();
+        PrefixSearch failingOnFiveOnce = prefix -> {
+            if (prefix.equals("5") && attempts.getAndIncrement() == 0) {
+                throw new IOException("Unexpected response code: 503");
+            }
+            return search(prefix);
+        };
+
+        // Act
+        CrawlStats stats = crawler.crawl(failingOnFiveOnce);
+
+        // Assert
+        assertEquals(1, stats.failed());
+        assertEquals(catalog, found);
+        assertTrue(crawler.getFrontier().contains("5"));
+    }
+
+    @Test
+    void crawl_WhenSearchKeepsFailing_ShouldFailAndKeepPreviousFrontier() throws Exception {
+        // Arrange
+        crawler.crawl(this::search);
+        Set<String> frontier = crawler.getFrontier();
+        PrefixSearch failingOnFive = prefix -> {
+            if (prefix.equals("5")) {
+                throw new IOException("Unexpected response code: 503");
+            }
+            return search(prefix);
+        };
+
+        // Act
+        IOException error = assertThrows(IOException.class, () -> crawler.crawl(failingOnFive));
+
+        // Assert
+        assertTrue(error.getMessage().contains("[5]"));
+        assertEquals(1, error.getSuppressed().length);
+        assertEquals(frontier, crawler.getFrontier());
+    }
+
+    @Test
+    void constructor_WhenResultCapIsNotConfigured_ShouldFail() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> new PrefixSearchCrawler("TEST", List.of("1"),
+                "0123456789", 0, 4, 4, 10, 1));
+    }
+
+    @Test
+    void constructor_WhenRediscoveryIntervalIsNotPositive_ShouldFail() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> new PrefixSearchCrawler("TEST", List.of("1"),
+                "0123456789", RESULT_CAP, 4, 4, 0, 1));
+    }
+
+    private int search(String prefix) {
+        List<String> results = catalog.stream()
+                .filter(group -> group.startsWith(prefix))
+                .sorted()
+                .limit(RESULT_CAP)
+                .toList();
+        found.addAll(results);
+        return results.size();
+    }
+}
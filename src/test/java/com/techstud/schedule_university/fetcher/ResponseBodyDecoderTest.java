@@ -0,0 +1,211 @@
+package com.techstud.schedule_university.fetcher;
+
+import com.sun.net.httpserver.HttpServer;
+import com.techstud.schedule_university.fetcher.exception.ResponseTooLargeException;
+import com.techstud.schedule_university.fetcher.util.FetcherAsyncHttpEngine;
+import com.techstud.schedule_university.fetcher.util.FetcherHttpTransport;
+import com.techstud.schedule_university.fetcher.util.ResponseBodyDecoder;
+import io.airlift.compress.zstd.ZstdOutputStream;
+import io.micrometer.core.instrument.DistributionSummary;
+import org.apache.hc.client5.http.async.methods.SimpleRequestBuilder;
+import org.apache.hc.client5.http.classic.methods.HttpGet;
+import org.apache.hc.core5.http.io.entity.EntityUtils;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ResponseBodyDecoderTest {
+
+    private static final byte[] BODY = "<a class=\"group\">ИВТ-101</a>".getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    void decode_ShouldRemoveEncodingsInReverseOrder() throws Exception {
+        // Arrange
+        byte[] encoded = zstd(gzip(BODY));
+
+        // Act
+        byte[] decoded = ResponseBodyDecoder.decode(encoded, "gzip, zstd", 1024);
+
+        // Assert
+        assertArrayEquals(BODY, decoded);
+    }
+
+    @Test
+    void decode_ShouldDecodeBrotli() throws Exception {
+        // Act
+        byte[] decoded = ResponseBodyDecoder.decode(brotliStored(BODY), "br", 1024);
+
+        // Assert
+        assertArrayEquals(BODY, decoded);
+    }
+
+    @Test
+    void decode_ShouldFailWhenDecodedBodyExceedsLimit() throws Exception {
+        // Arrange
+        byte[] bomb = gzip(new byte[1024 * 1024]);
+
+        // Act & Assert
+        assertTrue(bomb.length < 64 * 1024);
+        assertThrows(ResponseTooLargeException.class, () -> ResponseBodyDecoder.decode(bomb, "gzip", 64 * 1024));
+    }
+
+    @Test
+    void decode_ShouldRejectUnsupportedEncoding() {
+        // Act & Assert
+        IOException e = assertThrows(IOException.class, () -> ResponseBodyDecoder.decode(BODY, "compress", 1024));
+        assertTrue(e.getMessage().contains("compress"));
+    }
+
+    @Test
+    void preview_ShouldTruncateLongBody() {
+        // Arrange
+        String body = "x".repeat(10_000);
+
+        // Act
+        String preview = ResponseBodyDecoder.preview(body);
+
+        // Assert
+        assertTrue(preview.length() < 600);
+        assertTrue(preview.endsWith("(10000 chars)"));
+    }
+
+    @Test
+    void transports_ShouldDecodeBodiesAndNotRetryOversizedResponses() throws Exception {
+        // Arrange
+        AtomicReference<String> acceptEncoding = new AtomicReference<>();
+        AtomicInteger largeRequests = new AtomicInteger();
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/groups", exchange -> {
+            acceptEncoding.set(exchange.getRequestHeaders().getFirst("Accept-Encoding"));
+            byte[] body = zstd(BODY);
+            exchange.getResponseHeaders().add("Content-Type", "text/html; charset=UTF-8");
+            exchange.getResponseHeaders().add("Content-Encoding", "zstd");
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.createContext("/large", exchange -> {
+            largeRequests.incrementAndGet();
+            exchange.getResponseHeaders().add("Content-Type", "text/html; charset=UTF-8");
+            exchange.sendResponseHeaders(200, 0);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(new byte[256 * 1024]);
+            }
+        });
+        server.start();
+        String url = "http://127.0.0.1:" + server.getAddress().getPort();
+
+        TestFetchClients clients = TestFetchClients.withoutCache();
+        clients.getHttpProperties().setMaxBodySize(DataSize.ofKilobytes(64));
+        clients.getResilienceProperties().setInitialBackoff(Duration.ofMillis(1));
+        FetcherHttpTransport transport = clients.getTransport();
+        FetcherAsyncHttpEngine engine = clients.getEngine();
+
+        // Act
+        String classic;
+        String async;
+        IOException classicLarge;
+        ExecutionException asyncLarge;
+        try {
+            classic = transport.execute(new HttpGet(url + "/groups"),
+                    response -> EntityUtils.toString(response.getEntity()));
+            async = engine.execute(SimpleRequestBuilder.get(url + "/groups").build(), body -> body)
+                    .get(5, TimeUnit.SECONDS);
+            classicLarge = assertThrows(IOException.class, () -> transport.execute(new HttpGet(url + "/large"),
+                    response -> EntityUtils.toString(response.getEntity())));
+            asyncLarge = assertThrows(ExecutionException.class, () -> engine.execute(
+                    SimpleRequestBuilder.get(url + "/large").build(), body -> body).get(5, TimeUnit.SECONDS));
+        } finally {
+            clients.close();
+            server.stop(0);
+        }
+
+        // Assert
+        assertEquals(ResponseBodyDecoder.ACCEPT_ENCODING, acceptEncoding.get());
+        assertEquals("<a class=\"group\">ИВТ-101</a>", classic);
+        assertEquals(classic, async);
+        assertInstanceOf(ResponseTooLargeException.class, classicLarge);
+        assertInstanceOf(ResponseTooLargeException.class, asyncLarge.getCause());
+        assertEquals(2, largeRequests.get());
+    }
+
+    @Test
+    void transports_ShouldRecordBodySizeBeforeDecoding() throws Exception {
+        // Arrange
+        byte[] body = gzip("<a class=\"group\">ИВТ-101</a>".repeat(1000).getBytes(StandardCharsets.UTF_8));
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/groups", exchange -> {
+            exchange.getResponseHeaders().add("Content-Type", "text/html; charset=UTF-8");
+            exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+        String url = "http://127.0.0.1:" + server.getAddress().getPort();
+        TestFetchClients clients = TestFetchClients.withoutCache();
+
+        // Act
+        try {
+            clients.getTransport().execute(new HttpGet(url + "/groups"),
+                    response -> EntityUtils.toString(response.getEntity()));
+            clients.getEngine().execute(SimpleRequestBuilder.get(url + "/groups").build(), text -> text)
+                    .get(5, TimeUnit.SECONDS);
+        } finally {
+            clients.close();
+            server.stop(0);
+        }
+
+        // Assert
+        Collection<DistributionSummary> sizes = clients.getMeterRegistry().get("fetcher.http.response.size")
+                .summaries();
+        assertEquals(2, sizes.stream().mapToLong(DistributionSummary::count).sum());
+        assertEquals(2.0 * body.length, sizes.stream().mapToDouble(DistributionSummary::totalAmount).sum());
+    }
+
+    private static byte[] gzip(byte[] body) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(body);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] zstd(byte[] body) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ZstdOutputStream zstd = new ZstdOutputStream(out)) {
+            zstd.write(body);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Brotli поток из одного несжатого блока: кодировщика brotli в зависимостях нет
+     */
+    private static byte[] brotliStored(byte[] body) {
+        // WBITS=16, ISLAST=0, MNIBBLES=4, MLEN-1 в 16 битах, ISUNCOMPRESSED=1
+        int header = (body.length - 1) << 4 | 1 << 20;
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(header);
+        out.write(header >> 8);
+        out.write(header >> 16);
+        out.writeBytes(body);
+        // ISLAST=1, ISLASTEMPTY=1
+        out.write(0b11);
+        return out.toByteArray();
+    }
+}
@@ -5,12 +5,14 @@ import com.techstud.schedule_university.fetcher.dto.GroupData;
 import com.techstud.schedule_university.fetcher.service.GroupFetcherService;
 import com.techstud.schedule_university.fetcher.service.impl.SpbstuGroupDataFetchService;
 import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
 import org.springframework.test.context.ActiveProfiles;
 
+import java.io.IOException;
 import java.util.List;
 
 @ActiveProfiles("dev")
@@ -18,11 +20,18 @@ import java.util.List;
 @Disabled
 public class SpbstuGroupDataFetchServiceTest {
 
+    private TestFetchClients clients;
     private GroupFetcherService spbstuGroupDataFetchService;
 
     @BeforeEach
     public void setUp() {
-        spbstuGroupDataFetchService = new SpbstuGroupDataFetchService();
+        clients = new TestFetchClients();
+        spbstuGroupDataFetchService = new SpbstuGroupDataFetchService(clients.getEngine());
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        clients.close();
     }
 
     @Test
@@ -1,10 +1,13 @@
 package com.techstud.schedule_university.fetcher;
 
 import com.google.gson.Gson;
+import com.techstud.schedule_university.fetcher.config.SsauFetcherProperties;
 import com.techstud.schedule_university.fetcher.dto.GroupData;
 import com.techstud.schedule_university.fetcher.service.GroupFetcherService;
 import com.techstud.schedule_university.fetcher.service.impl.SsauGroupDataFetchService;
+import com.techstud.schedule_university.fetcher.service.impl.SsauSessionManager;
 import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Disabled;
@@ -13,6 +16,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.test.context.ActiveProfiles;
 
+import java.io.IOException;
 import java.util.List;
 
 @ActiveProfiles("dev")
@@ -21,11 +25,21 @@ import java.util.List;
 @Disabled
 public class SsauGroupDataFetchServiceTest {
 
+    private TestFetchClients clients;
     private GroupFetcherService ssauGroupDataFetchService;
 
     @BeforeEach
     public void setUp() {
-        ssauGroupDataFetchService = new SsauGroupDataFetchService();
+        clients = new TestFetchClients();
+        SsauFetcherProperties ssauFetcherProperties = new SsauFetcherProperties();
+        ssauFetcherProperties.setSearchResultCap(10);
+        ssauGroupDataFetchService = new SsauGroupDataFetchService(clients.getTransport(),
+                new SsauSessionManager(clients.getTransport(), ssauFetcherProperties), ssauFetcherProperties);
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        clients.close();
     }
 
     @Test
@@ -0,0 +1,151 @@
+package com.techstud.schedule_university.fetcher;
+
+import com.techstud.schedule_university.fetcher.config.SsauFetcherProperties;
+import com.techstud.schedule_university.fetcher.exception.UnexpectedResponseStatusException;
+import com.techstud.schedule_university.fetcher.service.impl.SsauSessionManager;
+import com.techstud.schedule_university.fetcher.service.impl.SsauSessionManager.SsauSession;
+import com.techstud.schedule_university.fetcher.util.FetcherHttpTransport;
+import org.apache.hc.core5.http.ClassicHttpRequest;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.io.HttpClientResponseHandler;
+import org.apache.hc.core5.http.io.entity.StringEntity;
+import org.apache.hc.core5.http.message.BasicClassicHttpResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SsauSessionManagerTest {
+
+    private static final Instant NOW = Instant.parse("2026-10-18T10:00:00Z");
+
+    @Mock
+    private FetcherHttpTransport httpTransport;
+
+    private MutableClock clock;
+    private SsauSessionManager sessionManager;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        clock = new MutableClock(NOW);
+        sessionManager = new SsauSessionManager(httpTransport, new SsauFetcherProperties(), clock);
+        lenient().when(httpTransport.execute(any(ClassicHttpRequest.class), any(HttpClientResponseHandler.class)))
+                .thenAnswer(invocation -> invocation.<HttpClientResponseHandler<?>>getArgument(1)
+                        .handleResponse(homepageResponse()));
+    }
+
+    @Test
+    void getSession_ShouldParseTokenAndCookiesFromSingleResponse() throws IOException {
+        // Act
+        SsauSession session = sessionManager.getSession();
+
+        // Assert
+        assertEquals("token-123", session.csrfToken());
+        assertEquals("XSRF-TOKEN=xsrf; ssau_session=abc", session.cookies());
+        assertEquals(NOW.plus(Duration.ofHours(1)), session.expiresAt());
+        verify(httpTransport, times(1)).execute(any(ClassicHttpRequest.class), any(HttpClientResponseHandler.class));
+    }
+
+    @Test
+    void getSession_WhenSessionIsFresh_ShouldReuseIt() throws IOException {
+        // Arrange
+        SsauSession first = sessionManager.getSession();
+        clock.advance(Duration.ofMinutes(30));
+
+        // Act
+        SsauSession second = sessionManager.getSession();
+
+        // Assert
+        assertSame(first, second);
+        verify(httpTransport, times(1)).execute(any(ClassicHttpRequest.class), any(HttpClientResponseHandler.class));
+    }
+
+    @Test
+    void getSession_WhenCloseToExpiry_ShouldRenewProactively() throws IOException {
+        // Arrange
+        SsauSession first = sessionManager.getSession();
+        clock.advance(Duration.ofMinutes(59));
+
+        // Act
+        SsauSession second = sessionManager.getSession();
+
+        // Assert
+        assertNotSame(first, second);
+        verify(httpTransport, times(2)).execute(any(ClassicHttpRequest.class), any(HttpClientResponseHandler.class));
+    }
+
+    @Test
+    void invalidate_WhenSessionAlreadyReplaced_ShouldKeepCurrentSession() throws IOException {
+        // Arrange
+        SsauSession first = sessionManager.getSession();
+        sessionManager.invalidate(first);
+        SsauSession second = sessionManager.getSession();
+
+        // Act
+        sessionManager.invalidate(first);
+        SsauSession third = sessionManager.getSession();
+
+        // Assert
+        assertSame(second, third);
+        verify(httpTransport, times(2)).execute(any(ClassicHttpRequest.class), any(HttpClientResponseHandler.class));
+    }
+
+    @Test
+    void isSessionRejected_ShouldMatchOnly419And403() {
+        // Assert
+        assertTrue(SsauSessionManager.isSessionRejected(new UnexpectedResponseStatusException(419)));
+        assertTrue(SsauSessionManager.isSessionRejected(new UnexpectedResponseStatusException(403)));
+        assertFalse(SsauSessionManager.isSessionRejected(new UnexpectedResponseStatusException(500)));
+        assertFalse(SsauSessionManager.isSessionRejected(new IOException("Connection reset")));
+    }
+
+    private static BasicClassicHttpResponse homepageResponse() {
+        BasicClassicHttpResponse response = new BasicClassicHttpResponse(200);
+        response.addHeader("Set-Cookie", "XSRF-TOKEN=xsrf; Max-Age=7200; path=/");
+        response.addHeader("Set-Cookie", "ssau_session=abc; Max-Age=3600; path=/; httponly");
+        response.setEntity(new StringEntity(
+                "<html><head><meta name=\"csrf-token\" content=\"token-123\"></head></html>",
+                ContentType.TEXT_HTML));
+        return response;
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant instant;
+
+        private MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        private void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
@@ -5,12 +5,14 @@ import com.techstud.schedule_university.fetcher.dto.GroupData;
 import com.techstud.schedule_university.fetcher.service.GroupFetcherService;
 import com.techstud.schedule_university.fetcher.service.impl.SseuGroupDataFetchService;
 import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
 import org.springframework.test.context.ActiveProfiles;
 
+import java.io.IOException;
 import java.util.List;
 
 @Slf4j
@@ -18,11 +20,18 @@ import java.util.List;
 @Disabled
 public class SseuGroupDataFetchServiceTest {
 
+    private TestFetchClients clients;
     private GroupFetcherService sseuGroupDataFetchService;
 
     @BeforeEach
     public void setUp() {
-        sseuGroupDataFetchService = new SseuGroupDataFetchService();
+        clients = new TestFetchClients();
+        sseuGroupDataFetchService = new SseuGroupDataFetchService(clients.getTransport());
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        clients.close();
     }
 
     @Test
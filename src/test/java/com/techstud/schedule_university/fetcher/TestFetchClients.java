@@ -0,0 +1,145 @@
+package com.techstud.schedule_university.fetcher;
+
+import com.techstud.schedule_university.fetcher.config.FetcherArchiveProperties;
+import com.techstud.schedule_university.fetcher.config.FetcherCacheProperties;
+import com.techstud.schedule_university.fetcher.config.FetcherHedgeProperties;
+import com.techstud.schedule_university.fetcher.config.FetcherHttpProperties;
+import com.techstud.schedule_university.fetcher.config.FetcherRateLimitProperties;
+import com.techstud.schedule_university.fetcher.config.FetcherResilienceProperties;
+import com.techstud.schedule_university.fetcher.util.FetchRetryPolicy;
+import com.techstud.schedule_university.fetcher.util.FetcherAsyncHttpEngine;
+import com.techstud.schedule_university.fetcher.util.FetcherHttpTransport;
+import com.techstud.schedule_university.fetcher.util.FetcherMetrics;
+import com.techstud.schedule_university.fetcher.util.HedgePolicy;
+import com.techstud.schedule_university.fetcher.util.HostCircuitBreaker;
+import com.techstud.schedule_university.fetcher.util.HostRateLimiter;
+import com.techstud.schedule_university.fetcher.util.HttpExchangeArchive;
+import com.techstud.schedule_university.fetcher.util.HttpPageCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.Getter;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Транспорт и движок для тестов и бенчмарков, собранные как бины приложения
+ *
+ * <p>Настройки можно поменять до первого обращения к компонентам. Транспорт и движок
+ * делят кэш страниц, ограничитель частоты, предохранитель и архив. Кэш страниц пишет
+ * во временный каталог, {@link #close()} закрывает соединения и удаляет его.</p>
+ */
+@Getter
+public final class TestFetchClients implements AutoCloseable {
+
+    private final FetcherHttpProperties httpProperties = new FetcherHttpProperties();
+    private final FetcherCacheProperties cacheProperties = new FetcherCacheProperties();
+    private final FetcherRateLimitProperties rateLimitProperties = new FetcherRateLimitProperties();
+    private final FetcherResilienceProperties resilienceProperties = new FetcherResilienceProperties();
+    private final FetcherHedgeProperties hedgeProperties = new FetcherHedgeProperties();
+    private final FetcherArchiveProperties archiveProperties = new FetcherArchiveProperties();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final Path cacheDirectory;
+
+    private HttpPageCache pageCache;
+    private HostRateLimiter rateLimiter;
+    private HostCircuitBreaker circuitBreaker;
+    private FetcherMetrics metrics;
+    private HttpExchangeArchive archive;
+    private HedgePolicy hedgePolicy;
+    private FetcherHttpTransport transport;
+    private FetcherAsyncHttpEngine engine;
+
+    public TestFetchClients() {
+        try {
+            cacheDirectory = Files.createTempDirectory("http-cache");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        cacheProperties.setDirectory(cacheDirectory);
+    }
+
+    /**
+     * Клиенты без кэша страниц
+     */
+    public static TestFetchClients withoutCache() {
+        TestFetchClients clients = new TestFetchClients();
+        clients.cacheProperties.setEnabled(false);
+        return clients;
+    }
+
+    public synchronized HttpPageCache getPageCache() {
+        if (pageCache == null) {
+            pageCache = new HttpPageCache(cacheProperties, getMetrics());
+        }
+        return pageCache;
+    }
+
+    public synchronized HostRateLimiter getRateLimiter() {
+        if (rateLimiter == null) {
+            rateLimiter = new HostRateLimiter(rateLimitProperties);
+        }
+        return rateLimiter;
+    }
+
+    public synchronized HostCircuitBreaker getCircuitBreaker() {
+        if (circuitBreaker == null) {
+            circuitBreaker = new HostCircuitBreaker(resilienceProperties);
+        }
+        return circuitBreaker;
+    }
+
+    public synchronized FetcherMetrics getMetrics() {
+        if (metrics == null) {
+            metrics = new FetcherMetrics(meterRegistry);
+        }
+        return metrics;
+    }
+
+    public synchronized HttpExchangeArchive getArchive() {
+        if (archive == null) {
+            archive = new HttpExchangeArchive(archiveProperties);
+        }
+        return archive;
+    }
+
+    public synchronized HedgePolicy getHedgePolicy() {
+        if (hedgePolicy == null) {
+            hedgePolicy = new HedgePolicy(hedgeProperties);
+        }
+        return hedgePolicy;
+    }
+
+    public synchronized FetcherHttpTransport getTransport() {
+        if (transport == null) {
+            transport = new FetcherHttpTransport(httpProperties, getPageCache(), getRateLimiter(),
+                    getCircuitBreaker(), new FetchRetryPolicy(resilienceProperties), getMetrics(), getArchive());
+        }
+        return transport;
+    }
+
+    public synchronized FetcherAsyncHttpEngine getEngine() {
+        if (engine == null) {
+            engine = new FetcherAsyncHttpEngine(httpProperties, getPageCache(), getRateLimiter(),
+                    getCircuitBreaker(), new FetchRetryPolicy(resilienceProperties), getHedgePolicy(),
+                    getMetrics(), getArchive());
+        }
+        return engine;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (engine != null) {
+            engine.destroy();
+        }
+        if (transport != null) {
+            transport.destroy();
+        }
+        if (archive != null) {
+            archive.destroy();
+        }
+        FileSystemUtils.deleteRecursively(cacheDirectory);
+    }
+}
@@ -5,11 +5,13 @@ import com.techstud.schedule_university.fetcher.dto.GroupData;
 import com.techstud.schedule_university.fetcher.service.GroupFetcherService;
 import com.techstud.schedule_university.fetcher.service.impl.TltsuGroupDataFetchService;
 import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
 import org.springframework.test.context.ActiveProfiles;
 
+import java.io.IOException;
 import java.util.List;
 
 @ActiveProfiles("dev")
@@ -17,11 +19,18 @@ import java.util.List;
 @Disabled
 public class TltsuGroupDataFetchServiceTest {
 
+    private TestFetchClients clients;
     private GroupFetcherService tltsuGroupDataFetchService;
 
     @BeforeEach
     public void setUp() {
-        tltsuGroupDataFetchService = new TltsuGroupDataFetchService();
+        clients = new TestFetchClients();
+        tltsuGroupDataFetchService = new TltsuGroupDataFetchService(clients.getEngine());
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        clients.close();
     }
 
     @Test
@@ -5,12 +5,15 @@ import com.techstud.schedule_university.fetcher.dto.GroupData;
 import com.techstud.schedule_university.fetcher.service.GroupFetcherService;
 import com.techstud.schedule_university.fetcher.service.impl.UneconGroupDataFetchService;
 import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
 import org.springframework.test.context.ActiveProfiles;
 
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 
 @ActiveProfiles("dev")
@@ -18,11 +21,18 @@ import java.util.List;
 @Disabled
 public class UneconGroupDataFetchServiceTest {
 
+    private TestFetchClients clients;
     private GroupFetcherService uneconGroupDataFetchService;
 
     @BeforeEach
     public void setUp() {
-        uneconGroupDataFetchService = new UneconGroupDataFetchService();
+        clients = new TestFetchClients();
+        uneconGroupDataFetchService = new UneconGroupDataFetchService(clients.getEngine());
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        clients.close();
     }
 
     @Test
@@ -33,4 +43,14 @@ public class UneconGroupDataFetchServiceTest {
         log.info("Group data list: {}", resultJson);
         Assertions.assertNotNull(groupDataList);
     }
+
+    @Test
+    public void testFetchGroupDataStream() {
+        List<GroupData> groupDataList = new ArrayList<>();
+        uneconGroupDataFetchService.fetchGroupsData(groupData -> {
+            log.info("Streamed group: {}", groupData);
+            groupDataList.add(groupData);
+        });
+        Assertions.assertEquals(uneconGroupDataFetchService.fetchGroupsData().size(), groupDataList.size());
+    }
 }
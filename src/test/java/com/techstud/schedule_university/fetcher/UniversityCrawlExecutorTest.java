@@ -0,0 +1,160 @@
+package com.techstud.schedule_university.fetcher;
+
+import com.techstud.schedule_university.fetcher.config.FetcherExecutionProperties;
+import com.techstud.schedule_university.fetcher.service.GroupFetchServiceFactory;
+import com.techstud.schedule_university.fetcher.service.GroupFetcherService;
+import com.techstud.schedule_university.fetcher.service.UniversityCrawlExecutor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class UniversityCrawlExecutorTest {
+
+    private UniversityCrawlExecutor crawlExecutor;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        FetcherExecutionProperties properties = new FetcherExecutionProperties();
+        properties.setDefaultMaxConcurrency(1);
+        properties.setMaxConcurrency(Map.of("UNECON", 2));
+        meterRegistry = new SimpleMeterRegistry();
+        GroupFetcherService fetcher = List::of;
+        GroupFetchServiceFactory factory = new GroupFetchServiceFactory(Map.of(
+                "UNECON_GROUP_FETCHER", fetcher,
+                "BMSTU_GROUP_FETCHER", fetcher,
+                "SSAU_GROUP_FETCHER", fetcher));
+        crawlExecutor = new UniversityCrawlExecutor(properties, factory, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        crawlExecutor.destroy();
+    }
+
+    @Test
+    void submit_ShouldNotExceedUniversityConcurrency() {
+        // Arrange
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+
+        // Act
+        List<CompletableFuture<Integer>> crawls = IntStream.range(0, 6)
+                .mapToObj(i -> crawlExecutor.submit("UNECON", () -> {
+                    maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    sleep(30);
+                    running.decrementAndGet();
+                    return i;
+                }))
+                .toList();
+        CompletableFuture.allOf(crawls.toArray(CompletableFuture[]::new)).join();
+
+        // Assert
+        assertEquals(2, maxRunning.get());
+        assertEquals(0, crawlExecutor.getInFlightCrawls());
+        assertEquals(0, crawlExecutor.getQueuedCrawls());
+    }
+
+    @Test
+    void submit_ShouldRunDifferentUniversitiesConcurrently() throws InterruptedException {
+        // Arrange
+        CountDownLatch bothStarted = new CountDownLatch(2);
+        CountDownLatch release = new CountDownLatch(1);
+
+        // Act
+        CompletableFuture<Void> bmstu = crawlExecutor.submit("BMSTU", () -> awaitTogether(bothStarted, release));
+        CompletableFuture<Void> ssau = crawlExecutor.submit("SSAU", () -> awaitTogether(bothStarted, release));
+
+        // Assert
+        assertTrue(bothStarted.await(5, TimeUnit.SECONDS));
+        assertEquals(2, crawlExecutor.getInFlightCrawls());
+        assertEquals(2.0, meterRegistry.get("fetcher.crawls.in_flight").gauge().value());
+        release.countDown();
+        CompletableFuture.allOf(bmstu, ssau).join();
+    }
+
+    @Test
+    void submit_ShouldQueueCrawlsBeyondLimit() throws InterruptedException {
+        // Arrange
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        // Act
+        CompletableFuture<Void> first = crawlExecutor.submit("BMSTU", () -> awaitTogether(started, release));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Void> second = crawlExecutor.submit("BMSTU", () -> null);
+        while (crawlExecutor.getQueuedCrawls() == 0) {
+            Thread.onSpinWait();
+        }
+
+        // Assert
+        assertEquals(1, crawlExecutor.getQueuedCrawls());
+        assertEquals(1.0, meterRegistry.get("fetcher.university.crawls.queued")
+                .tag("university", "BMSTU").gauge().value());
+        release.countDown();
+        CompletableFuture.allOf(first, second).join();
+        assertEquals(0, crawlExecutor.getQueuedCrawls());
+    }
+
+    @Test
+    void submitStream_ShouldNotTakeCrawlSlot() throws InterruptedException {
+        // Arrange
+        CountDownLatch streamStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> stream = crawlExecutor.submitStream("BMSTU",
+                () -> awaitTogether(streamStarted, release));
+        assertTrue(streamStarted.await(5, TimeUnit.SECONDS));
+
+        // Act
+        Integer crawled = crawlExecutor.submit("BMSTU", () -> 1).join();
+
+        // Assert
+        assertEquals(1, crawled);
+        assertEquals(1.0, meterRegistry.get("fetcher.university.crawls.in_flight")
+                .tags("university", "BMSTU", "kind", "stream").gauge().value());
+        release.countDown();
+        stream.join();
+    }
+
+    @Test
+    void submit_WhenUniversityIsUnknown_ShouldFailWithoutCreatingSlots() {
+        // Act
+        assertThrows(IllegalArgumentException.class, () -> crawlExecutor.submit("UNKNOWN", () -> null));
+
+        // Assert
+        assertTrue(meterRegistry.find("fetcher.university.crawls.queued").tag("university", "UNKNOWN")
+                .gauges().isEmpty());
+        assertEquals(0, crawlExecutor.getQueuedCrawls());
+    }
+
+    private static Void awaitTogether(CountDownLatch started, CountDownLatch release) {
+        started.countDown();
+        try {
+            release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return null;
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}